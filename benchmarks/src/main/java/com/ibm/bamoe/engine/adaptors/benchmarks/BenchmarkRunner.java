@@ -0,0 +1,34 @@
+package com.ibm.bamoe.engine.adaptors.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the regular JMH command line and adds the GC profiler,
+ * so that the allocation rate per operation is always reported, unless other profilers are requested.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers()
+                || commandLineOptions.shouldListResultFormats() || commandLineOptions.shouldListWithParams()) {
+
+            // Listings and help are handled by the stock JMH main
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (commandLineOptions.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
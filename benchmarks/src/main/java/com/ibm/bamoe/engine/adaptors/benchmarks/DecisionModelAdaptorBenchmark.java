@@ -0,0 +1,78 @@
+package com.ibm.bamoe.engine.adaptors.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bamoe.engine.adaptors.DecisionModelAdaptor;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelProperties;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelResults;
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+import com.ibm.bamoe.engine.adaptors.runtime.KieContainerRegistry;
+
+/**
+ * Single-call latency and throughput of DecisionModelAdaptor.execute against the bundled pricing model
+ * from a CLASSPATH container, with and without the event listener.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecisionModelAdaptorBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean listener;
+
+    private KieContainerRegistry registry;
+    private DecisionModelAdaptor adaptor;
+    private DecisionModelProperties properties;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+
+        properties = new DecisionModelProperties();
+        properties.setName("pricing" + (listener ? "-listener" : ""));
+        properties.setKieContainerType(KieContainerType.CLASSPATH);
+        properties.setKieBaseName("dmn");
+        properties.setModelNamespace("https://example.org/pricing");
+        properties.setModelName("Pricing");
+        properties.setListenerEnabled(listener);
+
+        // Build the kieBase and prepare the model outside of the measurement
+        registry = new KieContainerRegistry();
+        adaptor = new DecisionModelAdaptor(registry);
+        adaptor.preload(properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        adaptor.dispose();
+        registry.dispose();
+    }
+
+    @Benchmark
+    public DecisionModelResults execute() throws Exception {
+
+        Map<String,Object> facts = new HashMap<String,Object>();
+        facts.put("Age", 42);
+
+        return adaptor.execute(properties, facts);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ibm.bamoe.engine.adaptors.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.bamoe.engine.adaptors.RuleEngineAdaptor;
+import com.ibm.bamoe.engine.adaptors.benchmarks.fixtures.Applicant;
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+import com.ibm.bamoe.engine.adaptors.model.KieSessionType;
+import com.ibm.bamoe.engine.adaptors.model.RuleResults;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+import com.ibm.bamoe.engine.adaptors.runtime.KieContainerRegistry;
+
+/**
+ * Single-call latency and throughput of RuleEngineAdaptor.execute against the bundled scoring rules,
+ * for each session type, with and without the event listeners.
+ * There is no ruleflow variant: on this BAMOE version a process started in a KIE session disposes the session when it
+ * completes, so the rules it was meant to schedule can no longer be fired.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineAdaptorBenchmark {
+
+    @Param({ "STATELESS", "STATEFUL" })
+    private KieSessionType sessionType;
+
+    @Param({ "false", "true" })
+    private boolean listeners;
+
+    private KieContainerRegistry registry;
+    private RuleEngineAdaptor adaptor;
+    private RuleSetProperties properties;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+
+        properties = new RuleSetProperties();
+        properties.setName("scoring-" + sessionType + (listeners ? "-listeners" : ""));
+        properties.setKieContainerType(KieContainerType.CLASSPATH);
+        properties.setKieBaseName("rules");
+        properties.setKieSessionName(sessionType == KieSessionType.STATELESS ? "rules-stateless" : "rules-stateful");
+        properties.setKieSessionType(sessionType);
+        properties.setRuleFlowName("none");
+        properties.setRuleAgendaListenerEnabled(listeners);
+        properties.setRuleWorkingMemoryListenerEnabled(listeners);
+        properties.setProcessListenerEnabled(listeners);
+
+        // Build the kieBase outside of the measurement
+        registry = new KieContainerRegistry();
+        adaptor = new RuleEngineAdaptor(registry);
+        adaptor.preload(properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        adaptor.dispose();
+        registry.dispose();
+    }
+
+    @Benchmark
+    public RuleResults execute() throws Exception {
+
+        // The rules modify the applicant, so every call gets a fresh one
+        Map<String,Object> facts = new HashMap<String,Object>();
+        facts.put("applicant", new Applicant("benchmark", 42));
+
+        return adaptor.execute(properties, facts);
+    }
+}
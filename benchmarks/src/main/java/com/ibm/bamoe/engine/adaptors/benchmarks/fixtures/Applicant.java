@@ -0,0 +1,58 @@
+package com.ibm.bamoe.engine.adaptors.benchmarks.fixtures;
+
+import java.io.Serializable;
+
+public class Applicant implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    private int age;
+    private boolean approved = false;
+    private int score = 0;
+
+    public Applicant() {
+    }
+
+    public Applicant(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return this.age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public boolean isApproved() {
+        return this.approved;
+    }
+
+    public void setApproved(boolean approved) {
+        this.approved = approved;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "[Applicant: name=" + name + ", age=" + age + ", approved=" + approved + ", score=" + score + "]";
+    }
+}
@@ -2,11 +2,20 @@ package com.ibm.bamoe.engine.adaptors;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Iterator;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,38 +24,193 @@ import io.smallrye.config.SmallRyeConfig;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 
-import org.kie.api.KieBase;
-import org.kie.api.KieServices;
 import org.kie.api.builder.ReleaseId;
-import org.kie.util.maven.support.ReleaseIdImpl;
-import org.kie.api.runtime.KieRuntimeFactory;
 import org.kie.api.runtime.KieContainer;
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNDecisionResult;
-import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNMessage;
 import org.kie.dmn.api.core.DMNResult;
-import org.kie.dmn.api.core.DMNRuntime;
-
-import com.ibm.bamoe.engine.adaptors.model.ExecutionDuration;
+import org.kie.dmn.api.core.ast.DecisionNode;
+import org.kie.dmn.api.core.ast.InputDataNode;
+
+import com.ibm.bamoe.engine.adaptors.binding.FactBinding;
+import com.ibm.bamoe.engine.adaptors.binding.ResultBinding;
+import com.ibm.bamoe.engine.adaptors.cache.CacheableValues;
+import com.ibm.bamoe.engine.adaptors.cache.ResultCache;
+import com.ibm.bamoe.engine.adaptors.cache.ResultCacheKey;
+import com.ibm.bamoe.engine.adaptors.concurrent.AsyncExecutor;
+import com.ibm.bamoe.engine.adaptors.concurrent.Bulkhead;
+import com.ibm.bamoe.engine.adaptors.concurrent.BulkheadRegistry;
+import com.ibm.bamoe.engine.adaptors.config.ResolvedPropertiesCache;
+import com.ibm.bamoe.engine.adaptors.metrics.DecisionModelTimings;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionMetrics;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionPhase;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionTimer;
+import com.ibm.bamoe.engine.adaptors.model.BulkDecisionModelResults;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelRecordResult;
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeTiming;
 import com.ibm.bamoe.engine.adaptors.model.DecisionResult;
 import com.ibm.bamoe.engine.adaptors.model.DecisionModelResults;
 import com.ibm.bamoe.engine.adaptors.model.DecisionModelProperties;
+import com.ibm.bamoe.engine.adaptors.model.ExecutionLimit;
 import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
-import com.ibm.bamoe.engine.adaptors.listeners.DecisionModelEventListener;
+import com.ibm.bamoe.engine.adaptors.runtime.DecisionModelKey;
+import com.ibm.bamoe.engine.adaptors.runtime.KieBaseHandle;
+import com.ibm.bamoe.engine.adaptors.runtime.KieBaseKey;
+import com.ibm.bamoe.engine.adaptors.runtime.KieContainerRegistry;
+import com.ibm.bamoe.engine.adaptors.runtime.KieReleaseManager;
+import com.ibm.bamoe.engine.adaptors.runtime.PreparedDecisionModel;
 
 public class DecisionModelAdaptor {
 
     private static final Logger logger = LoggerFactory.getLogger(DecisionModelAdaptor.class);
 
-    private static final String DATE_TIME_FORMAT    = "yyyy-MM-dd HH:mm:ss";
-    private static final String KIE_BASE_NAME       = "kie-base.name";
-    private static final String KIE_CONTAINER_TYPE  = "kie-container.type";
-    private static final String RELEASE_ID          = "release.id";
-    private static final String DMN_MODEL_NAME      = "dmn-model.name";
-    private static final String DMN_MODEL_NAMESPACE = "dmn-model.namespace";
-    private static final String ENABLE_LISTENER     = "enable.listener";
+    private static final String KIE_BASE_NAME           = "kie-base.name";
+    private static final String KIE_CONTAINER_TYPE      = "kie-container.type";
+    private static final String RELEASE_ID              = "release.id";
+    private static final String DMN_MODEL_NAME          = "dmn-model.name";
+    private static final String DMN_MODEL_NAMESPACE     = "dmn-model.namespace";
+    private static final String ENABLE_LISTENER         = "enable.listener";
+    private static final String ASYNC_MAX_IN_FLIGHT     = "async.max-in-flight";
+    private static final String DMN_DECISION_NAMES      = "dmn-decision.names";
+    private static final String DMN_DECISION_SERVICE    = "dmn-decision-service.name";
+    private static final String ENABLE_RESULT_CACHE     = "enable.result-cache";
+    private static final String EVALUATION_TIMEOUT      = "evaluation.timeout";
+    private static final String EVALUATION_MAX_OVERDUE  = "evaluation.max-overdue";
+    private static final String BULKHEAD_MAX_CONCURRENT = "bulkhead.max-concurrent";
+    private static final String BULKHEAD_MAX_QUEUED     = "bulkhead.max-queued";
+    private static final String BULKHEAD_MAX_WAIT       = "bulkhead.max-wait";
+    private static final String BULKHEAD_ADAPTIVE       = "bulkhead.adaptive";
+
+    private static final int BULK_SLICES_PER_WORKER = 4;
+
+    private final KieContainerRegistry registry;
+    private final KieReleaseManager releaseManager;
+    private volatile Executor bulkExecutor = ForkJoinPool.commonPool();
+    private volatile int bulkParallelism = Runtime.getRuntime().availableProcessors();
+    private volatile int bulkWindowSize = 1024;
+    private volatile AsyncExecutor asyncExecutor = new AsyncExecutor();
+    private volatile Executor evaluationExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean ownedEvaluationExecutor = true;
+    private final ResolvedPropertiesCache<DecisionModelProperties> propertiesCache = new ResolvedPropertiesCache<DecisionModelProperties>(this::loadProperties, DecisionModelProperties::new);
+    private final Map<DecisionModelKey, PreparedDecisionModel> preparedModels = new ConcurrentHashMap<DecisionModelKey, PreparedDecisionModel>();
+    private final Map<String, RegisteredBinding> bindings = new ConcurrentHashMap<String, RegisteredBinding>();
+    private final ExecutionMetrics executionMetrics = new ExecutionMetrics();
+    private final BulkheadRegistry bulkheads = new BulkheadRegistry();
+    private final Map<String, DecisionModelTimings> decisionModelTimings = new ConcurrentHashMap<String, DecisionModelTimings>();
+    private volatile ResultCache<List<DecisionResult>> resultCache = new ResultCache<List<DecisionResult>>();
+
+    public DecisionModelAdaptor() {
+        this(KieContainerRegistry.getInstance());
+    }
+
+    public DecisionModelAdaptor(final KieContainerRegistry registry) {
+        this.registry = registry;
+        this.releaseManager = new KieReleaseManager(registry);
+    }
+
+    public KieContainerRegistry getRegistry() {
+        return this.registry;
+    }
+
+    public void preload(final DecisionModelProperties properties) throws Exception {
+
+        logger.debug("Preloading decision model: name=" + properties.getName() + "...");
+        registry.preload(properties.getKieContainerType(), releaseManager.getReleaseId(properties.getName(), properties.getReleaseId()), properties.getKieBaseName());
+    }
+
+    public boolean evict(final DecisionModelProperties properties) {
+
+        logger.debug("Evicting decision model: name=" + properties.getName() + "...");
+        String releaseId = releaseManager.getReleaseId(properties.getName(), properties.getReleaseId());
+        KieBaseKey kieBaseKey = KieBaseKey.of(properties.getKieContainerType(), releaseId, properties.getKieBaseName());
+
+        synchronized (preparedModels) {
+
+            Iterator<PreparedDecisionModel> iterator = preparedModels.values().iterator();
+            while (iterator.hasNext()) {
+
+                PreparedDecisionModel preparedModel = iterator.next();
+                if (preparedModel.getKieBaseHandle().getKey().equals(kieBaseKey)) {
+
+                    preparedModel.dispose();
+                    resultCache.invalidate(preparedModel.getCacheOwner());
+                    iterator.remove();
+                }
+            }
+        }
+
+        return registry.evict(properties.getKieContainerType(), releaseId, properties.getKieBaseName());
+    }
+
+    public void dispose() {
+
+        logger.debug("Disposing all prepared decision models...");
+
+        synchronized (preparedModels) {
+
+            for (PreparedDecisionModel preparedModel : preparedModels.values()) {
+                preparedModel.dispose();
+            }
+
+            preparedModels.clear();
+        }
+
+        resultCache.clear();
+        bindings.clear();
+        releaseManager.dispose();
+
+        asyncExecutor.shutdown();
+
+        // Only the executor created by the adaptor is shut down, one set by the caller is left to its owner
+        if (ownedEvaluationExecutor) {
+            ((ExecutorService) evaluationExecutor).shutdown();
+        }
+    }
 
     public DecisionModelResults execute(final String decisionModelName, Map<String,Object> facts) throws Exception {
+        return execute(propertiesCache.get(decisionModelName), facts);
+    }
+
+    public DecisionModelResults execute(final String decisionModelName, Map<String,Object> facts, List<String> decisionNames) throws Exception {
+
+        DecisionModelProperties properties = propertiesCache.get(decisionModelName);
+        properties.setDecisionNames(decisionNames);
+        properties.setDecisionServiceName(null);
+
+        return execute(properties, facts);
+    }
+
+    public DecisionModelResults executeDecisionService(final String decisionModelName, Map<String,Object> facts, String decisionServiceName) throws Exception {
+
+        DecisionModelProperties properties = propertiesCache.get(decisionModelName);
+        properties.setDecisionNames(null);
+        properties.setDecisionServiceName(decisionServiceName);
+
+        return execute(properties, facts);
+    }
+
+    public DecisionModelProperties getProperties(final String decisionModelName) throws Exception {
+        return propertiesCache.get(decisionModelName);
+    }
+
+    public void refreshProperties() {
+        propertiesCache.refresh();
+    }
+
+    public void refreshProperties(final String decisionModelName) {
+        propertiesCache.refresh(decisionModelName);
+    }
+
+    public long getPropertiesFailureTtl() {
+        return propertiesCache.getFailureTtl();
+    }
+
+    public void setPropertiesFailureTtl(long propertiesFailureTtl) {
+        propertiesCache.setFailureTtl(propertiesFailureTtl);
+    }
+
+    private DecisionModelProperties loadProperties(final String decisionModelName) throws Exception {
 
         // Load all the properties we need for execution
         logger.debug("Loading decision model properties for: ..." + decisionModelName);
@@ -63,108 +227,781 @@ public class DecisionModelAdaptor {
         properties.setModelName(smallRyeConfig.getValue(decisionModelName + "." + DMN_MODEL_NAME, String.class));
         properties.setModelNamespace(smallRyeConfig.getValue(decisionModelName + "." + DMN_MODEL_NAMESPACE, String.class));
         properties.setListenerEnabled(smallRyeConfig.getValue(decisionModelName + "." + ENABLE_LISTENER, Boolean.class));
+        properties.setMaxInFlight(smallRyeConfig.getOptionalValue(decisionModelName + "." + ASYNC_MAX_IN_FLIGHT, Integer.class).orElse(properties.getMaxInFlight()));
 
-        return execute(properties, facts);
+        // Optional targets, by default every decision in the model is evaluated
+        properties.setDecisionNames(smallRyeConfig.getOptionalValues(decisionModelName + "." + DMN_DECISION_NAMES, String.class).map(List::copyOf).orElse(null));
+        properties.setDecisionServiceName(smallRyeConfig.getOptionalValue(decisionModelName + "." + DMN_DECISION_SERVICE, String.class).orElse(null));
+
+        // Optional result cache, for decision models that always give the same results for the same facts
+        properties.setResultCacheEnabled(smallRyeConfig.getOptionalValue(decisionModelName + "." + ENABLE_RESULT_CACHE, Boolean.class).orElse(properties.isResultCacheEnabled()));
+
+        // Optional time limit of a single evaluation, the decisions completed by then are returned
+        properties.setEvaluationTimeout(smallRyeConfig.getOptionalValue(decisionModelName + "." + EVALUATION_TIMEOUT, Long.class).orElse(properties.getEvaluationTimeout()));
+        properties.setEvaluationMaxOverdue(smallRyeConfig.getOptionalValue(decisionModelName + "." + EVALUATION_MAX_OVERDUE, Integer.class).orElse(properties.getEvaluationMaxOverdue()));
+
+        // Optional bulkhead, so that a spike on this decision model cannot starve the others
+        properties.setBulkheadMaxConcurrent(smallRyeConfig.getOptionalValue(decisionModelName + "." + BULKHEAD_MAX_CONCURRENT, Integer.class).orElse(properties.getBulkheadMaxConcurrent()));
+        properties.setBulkheadMaxQueued(smallRyeConfig.getOptionalValue(decisionModelName + "." + BULKHEAD_MAX_QUEUED, Integer.class).orElse(properties.getBulkheadMaxQueued()));
+        properties.setBulkheadMaxWait(smallRyeConfig.getOptionalValue(decisionModelName + "." + BULKHEAD_MAX_WAIT, Long.class).orElse(properties.getBulkheadMaxWait()));
+        properties.setBulkheadAdaptive(smallRyeConfig.getOptionalValue(decisionModelName + "." + BULKHEAD_ADAPTIVE, Boolean.class).orElse(properties.isBulkheadAdaptive()));
+
+        return properties;
     }
 
     public DecisionModelResults execute(final DecisionModelProperties properties, Map<String,Object> facts) throws Exception {
+        return admit(properties, () -> executeModel(properties, facts));
+    }
+
+    private DecisionModelResults executeModel(final DecisionModelProperties properties, Map<String,Object> facts) throws Exception {
 
         // Mark the start time
-        LocalDateTime startedOn = LocalDateTime.now();
-        logger.debug("Executing decision model: name=" + properties.getName() + "...");
+        ExecutionTimer timer = ExecutionTimer.start();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Executing decision model: name=" + properties.getName() + "...");
+        }
+
+        // Prepared against the active release, which stays in use until the evaluation completes
+        PreparedDecisionModel preparedModel = acquire(properties);
+        try {
+
+            String[] decisionNames = preparedModel.resolveDecisionNames(properties.getDecisionNames());
+            String decisionServiceName = preparedModel.resolveDecisionService(properties.getDecisionServiceName());
+            timer.mark(ExecutionPhase.CONTAINER_LOOKUP);
+
+            return evaluate(preparedModel, properties, facts, null, timer, decisionNames, decisionServiceName, properties.isResultCacheEnabled());
+        } finally {
+            preparedModel.getKieBaseHandle().release();
+        }
+    }
 
-        // Create the KIE session and classpath container
-        logger.debug("\r\nCreating kie session and classpath container, using kieBase=" + properties.getKieBaseName()  + "...");
-        KieServices kieServices = KieServices.Factory.get();
-        KieContainer kieContainer = createKieContainer(kieServices, properties.getKieContainerType(), properties.getReleaseId());
-        KieBase kieBase = kieContainer.getKieBase(properties.getKieBaseName());          
+    public <T> DecisionModelResults executeTyped(final String decisionModelName, T facts) throws Exception {
+        return executeTyped(propertiesCache.get(decisionModelName), facts);
+    }
 
-        // Obtain the DMN runtime from the KIE container and reference to the DMN model
-        logger.debug("\r\nObtaining the DMN runtime, using kieBase=" + properties.getKieBaseName() + "...");
-        DMNRuntime runtime = KieRuntimeFactory.of(kieBase).get(DMNRuntime.class);
-        DMNModel model = runtime.getModel(properties.getModelNamespace(), properties.getModelName());
+    public <T, R> R executeTyped(final String decisionModelName, T facts, Class<R> resultType) throws Exception {
+        return executeTyped(propertiesCache.get(decisionModelName), facts, resultType);
+    }
 
-        // Add an event listener
-        if (properties.isListenerEnabled()) {
+    public <T, R> R executeTyped(final DecisionModelProperties properties, T facts, Class<R> resultType) throws Exception {
 
-            logger.debug("--> Attaching event listener...");
-            runtime.addListener(new DecisionModelEventListener());
+        // A result type registered for the decision model is the only one its results are bound to
+        RegisteredBinding registered = bindings.get(executionKey(properties));
+        if (registered != null && registered.resultBinding != null && registered.resultBinding.getType() != resultType) {
+            throw new Exception("Result type does not match the binding registered for the decision model: name=" + properties.getName() + ", resultType=" + resultType.getName() + ", registered=" + registered.resultBinding.getType().getName());
         }
 
-        // Setting the DMN context
-        logger.debug("\r\nSetting the DMN context...");
-        DMNContext context = runtime.newContext();
+        return ResultBinding.of(resultType).bind(executeTyped(properties, facts));
+    }
+
+    public <T> DecisionModelResults executeTyped(final DecisionModelProperties properties, T facts) throws Exception {
+        return admit(properties, () -> executeBound(properties, facts));
+    }
+
+    private <T> DecisionModelResults executeBound(final DecisionModelProperties properties, T facts) throws Exception {
+
+        // Mark the start time
+        ExecutionTimer timer = ExecutionTimer.start();
+        FactBinding<T> factBinding = factBinding(properties, facts);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Executing decision model: name=" + properties.getName() + ", factType=" + factBinding.getType().getName() + "...");
+        }
+
+        PreparedDecisionModel preparedModel = acquire(properties);
+        try {
+
+            String[] decisionNames = preparedModel.resolveDecisionNames(properties.getDecisionNames());
+            String decisionServiceName = preparedModel.resolveDecisionService(properties.getDecisionServiceName());
+            timer.mark(ExecutionPhase.CONTAINER_LOOKUP);
+
+            return evaluate(preparedModel, properties, facts, factBinding, timer, decisionNames, decisionServiceName, properties.isResultCacheEnabled());
+        } finally {
+            preparedModel.getKieBaseHandle().release();
+        }
+    }
+
+    public void registerBinding(final String decisionModelName, Class<?> factType, Class<?> resultType) throws Exception {
+        registerBinding(propertiesCache.get(decisionModelName), factType, resultType);
+    }
+
+    public void registerBinding(final DecisionModelProperties properties, Class<?> factType, Class<?> resultType) throws Exception {
+
+        // Accessors are generated now rather than on the first execution, and checked against the model
+        PreparedDecisionModel preparedModel = prepareModel(properties);
+        FactBinding<?> factBinding = null;
+        ResultBinding<?> resultBinding = null;
+        if (factType != null) {
+
+            factBinding = FactBinding.of(factType);
+            List<String> inputNames = new ArrayList<String>();
+            for (InputDataNode input : preparedModel.getModel().getInputs()) {
+                inputNames.add(input.getName());
+            }
+
+            for (String name : factBinding.getNames()) {
+
+                if (!inputNames.contains(name)) {
+                    logger.warn("Bound fact property is not an input of the decision model: name=" + properties.getName() + ", factType=" + factType.getName() + ", property=" + name);
+                }
+            }
+
+            for (String inputName : inputNames) {
+
+                if (!factBinding.getNames().contains(inputName)) {
+                    logger.debug("Decision model input is not bound: name=" + properties.getName() + ", factType=" + factType.getName() + ", input=" + inputName);
+                }
+            }
+        }
+
+        if (resultType != null) {
+
+            resultBinding = ResultBinding.of(resultType);
+            List<String> decisionNames = new ArrayList<String>();
+            for (DecisionNode decision : preparedModel.getModel().getDecisions()) {
+                decisionNames.add(decision.getName());
+            }
+
+            for (String name : resultBinding.getNames()) {
+
+                if (!decisionNames.contains(name)) {
+                    logger.warn("Bound result property is not a decision of the decision model: name=" + properties.getName() + ", resultType=" + resultType.getName() + ", property=" + name);
+                }
+            }
+        }
+
+        // From now on the typed executions of the decision model are held to the registered types
+        bindings.put(executionKey(properties), new RegisteredBinding(factBinding, resultBinding));
+    }
+
+    public DecisionModelResults execute(final PreparedDecisionModel preparedModel, Map<String,Object> facts) throws Exception {
+        return execute(preparedModel, facts, null);
+    }
+
+    public DecisionModelResults execute(final PreparedDecisionModel preparedModel, Map<String,Object> facts, List<String> decisionNames) throws Exception {
+        return admit(preparedModel.getProperties(), () -> executePrepared(preparedModel, facts, decisionNames));
+    }
+
+    private DecisionModelResults executePrepared(final PreparedDecisionModel preparedModel, Map<String,Object> facts, List<String> decisionNames) throws Exception {
+
+        // Mark the start time
+        ExecutionTimer timer = ExecutionTimer.start();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Executing decision model: name=" + preparedModel.getName() + "...");
+        }
+
+        acquire(preparedModel);
+        try {
+            return evaluate(preparedModel, preparedModel.getProperties(), facts, null, timer, preparedModel.resolveDecisionNames(decisionNames), null, false);
+        } finally {
+            preparedModel.getKieBaseHandle().release();
+        }
+    }
+
+    public DecisionModelResults executeDecisionService(final PreparedDecisionModel preparedModel, Map<String,Object> facts, String decisionServiceName) throws Exception {
+        return admit(preparedModel.getProperties(), () -> executePreparedService(preparedModel, facts, decisionServiceName));
+    }
+
+    private DecisionModelResults executePreparedService(final PreparedDecisionModel preparedModel, Map<String,Object> facts, String decisionServiceName) throws Exception {
+
+        // Mark the start time
+        ExecutionTimer timer = ExecutionTimer.start();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Executing decision service: name=" + preparedModel.getName() + ", decisionService=" + decisionServiceName + "...");
+        }
+
+        acquire(preparedModel);
+        try {
+            return evaluate(preparedModel, preparedModel.getProperties(), facts, null, timer, null, preparedModel.resolveDecisionService(decisionServiceName), false);
+        } finally {
+            preparedModel.getKieBaseHandle().release();
+        }
+    }
+
+    public CompletableFuture<KieBaseHandle> update(final String decisionModelName, final String releaseId, List<Map<String,Object>> warmUpFacts) throws Exception {
+
+        DecisionModelProperties properties = propertiesCache.get(decisionModelName);
+        return releaseManager.update(decisionModelName, properties.getKieContainerType(), properties.getKieBaseName(), properties.getReleaseId(), releaseId, warmUp(properties, warmUpFacts));
+    }
+
+    public CompletableFuture<KieBaseHandle> pin(final String decisionModelName, final String releaseId, List<Map<String,Object>> warmUpFacts) throws Exception {
+
+        DecisionModelProperties properties = propertiesCache.get(decisionModelName);
+        return releaseManager.pin(decisionModelName, properties.getKieContainerType(), properties.getKieBaseName(), properties.getReleaseId(), releaseId, warmUp(properties, warmUpFacts));
+    }
+
+    public void unpin(final String decisionModelName) {
+        releaseManager.unpin(decisionModelName);
+    }
+
+    public CompletableFuture<KieBaseHandle> rollback(final String decisionModelName) throws Exception {
+
+        DecisionModelProperties properties = propertiesCache.get(decisionModelName);
+        return releaseManager.rollback(decisionModelName, properties.getKieContainerType(), properties.getKieBaseName(), null);
+    }
+
+    public String getReleaseId(final String decisionModelName) throws Exception {
+        return releaseManager.getReleaseId(decisionModelName, propertiesCache.get(decisionModelName).getReleaseId());
+    }
+
+    public KieReleaseManager getReleaseManager() {
+        return this.releaseManager;
+    }
+
+    public CompletableFuture<DecisionModelResults> executeAsync(final String decisionModelName, Map<String,Object> facts) {
+
+        try {
+            return executeAsync(propertiesCache.get(decisionModelName), facts);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<DecisionModelResults> executeAsync(final DecisionModelProperties properties, Map<String,Object> facts) {
+
+        logger.debug("Submitting async decision model execution: name=" + properties.getName() + "...");
+        return asyncExecutor.submit(executionKey(properties), properties.getMaxInFlight(), () -> execute(properties, facts));
+    }
+
+    public Bulkhead getBulkhead(final String decisionModelName) {
+        return bulkheads.get(decisionModelName);
+    }
+
+    public ExecutionMetrics getExecutionMetrics() {
+        return this.executionMetrics;
+    }
+
+    public DecisionModelTimings getDecisionModelTimings(final String decisionModelName) throws Exception {
+        return getDecisionModelTimings(propertiesCache.get(decisionModelName));
+    }
+
+    public DecisionModelTimings getDecisionModelTimings(final DecisionModelProperties properties) {
+
+        // Collected per DMN model, whichever decision model names refer to it
+        String timingsKey = properties.getModelNamespace() + "#" + properties.getModelName();
+        DecisionModelTimings timings = decisionModelTimings.get(timingsKey);
+        if (timings == null) {
+            timings = decisionModelTimings.computeIfAbsent(timingsKey, key -> new DecisionModelTimings(properties.getModelName()));
+        }
+
+        return timings;
+    }
+
+    public ResultCache<List<DecisionResult>> getResultCache() {
+        return this.resultCache;
+    }
+
+    public void setResultCache(ResultCache<List<DecisionResult>> resultCache) {
+
+        ResultCache<List<DecisionResult>> previous = this.resultCache;
+        this.resultCache = resultCache;
+        previous.clear();
+    }
+
+    public AsyncExecutor getAsyncExecutor() {
+        return this.asyncExecutor;
+    }
+
+    public void setAsyncExecutor(AsyncExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public BulkDecisionModelResults executeBulk(final DecisionModelProperties properties, Collection<Map<String,Object>> records) throws Exception {
+
+        List<DecisionModelRecordResult> recordResults = new ArrayList<DecisionModelRecordResult>(records.size());
+        BulkDecisionModelResults bulkResults = executeBulk(properties, records.iterator(), recordResults::add);
+        bulkResults.setResults(recordResults);
+        return bulkResults;
+    }
+
+    public BulkDecisionModelResults executeBulk(final DecisionModelProperties properties, Stream<Map<String,Object>> records, Consumer<DecisionModelRecordResult> consumer) throws Exception {
+        return executeBulk(properties, records.iterator(), consumer);
+    }
+
+    public BulkDecisionModelResults executeBulk(final DecisionModelProperties properties, Iterator<Map<String,Object>> records, Consumer<DecisionModelRecordResult> consumer) throws Exception {
+
+        // A bulk run is admitted as a single execution, its parallelism is bounded by the adaptor
+        return admit(properties, () -> executeRecords(properties, records, consumer));
+    }
+
+    private BulkDecisionModelResults executeRecords(final DecisionModelProperties properties, Iterator<Map<String,Object>> records, Consumer<DecisionModelRecordResult> consumer) throws Exception {
 
-        // Add facts to the DMN context
-        for (Map.Entry<String, Object> fact : facts.entrySet()) {
+        // Mark the start time
+        ExecutionTimer timer = ExecutionTimer.start();
+        logger.debug("Executing decision model in bulk: name=" + properties.getName() + ", parallelism=" + bulkParallelism + "...");
+
+        // Every record is evaluated against the same prepared model, its release stays in use until the last record
+        PreparedDecisionModel preparedModel = acquire(properties);
+        long recordCount = 0;
+        long failedCount = 0;
+
+        try {
+
+            String[] decisionNames = preparedModel.resolveDecisionNames(properties.getDecisionNames());
+            String decisionServiceName = preparedModel.resolveDecisionService(properties.getDecisionServiceName());
+            timer.mark(ExecutionPhase.CONTAINER_LOOKUP);
+
+            // Only one window of records is held in memory, results are handed to the consumer in input order
+            int windowSize = Math.max(1, bulkWindowSize);
+            List<Map<String,Object>> window = new ArrayList<Map<String,Object>>(windowSize);
+            DecisionModelRecordResult[] windowResults = new DecisionModelRecordResult[windowSize];
+
+            while (records.hasNext()) {
+
+                window.clear();
+                while (window.size() < windowSize && records.hasNext()) {
+                    window.add(records.next());
+                }
+
+                evaluateWindow(preparedModel, properties, decisionNames, decisionServiceName, window, recordCount, windowResults);
+
+                for (int i = 0; i < window.size(); i++) {
+
+                    if (windowResults[i].isFailed()) {
+                        failedCount++;
+                    }
+
+                    consumer.accept(windowResults[i]);
+                    windowResults[i] = null;
+                }
+
+                recordCount += window.size();
+            }
+        } finally {
+            preparedModel.getKieBaseHandle().release();
+        }
+
+        // Mark completion time
+        timer.mark(ExecutionPhase.EXECUTION);
+        timer.stop();
+
+        BulkDecisionModelResults bulkResults = new BulkDecisionModelResults();
+        bulkResults.setStartedOnMillis(timer.getStartedOnMillis());
+        bulkResults.setCompletedOnMillis(timer.getCompletedOnMillis());
+        bulkResults.setExecutionDuration(timer.toExecutionDuration());
+        bulkResults.setRecordCount(recordCount);
+        bulkResults.setFailedCount(failedCount);
+        bulkResults.setParallelism(bulkParallelism);
+        logger.debug("Decision Model bulk execution completed: name=" + properties.getName() + ", records: " + recordCount + ", failed: " + failedCount + ", duration: " + bulkResults.getExecutionDuration() + "...");
+
+        return bulkResults;
+    }
+
+    public Executor getEvaluationExecutor() {
+        return this.evaluationExecutor;
+    }
+
+    public void setEvaluationExecutor(Executor evaluationExecutor) {
+
+        Executor previous = this.evaluationExecutor;
+        boolean ownedPrevious = this.ownedEvaluationExecutor;
+        this.evaluationExecutor = evaluationExecutor;
+        this.ownedEvaluationExecutor = false;
+
+        // Evaluations already running on the replaced default executor are allowed to complete
+        if (ownedPrevious) {
+            ((ExecutorService) previous).shutdown();
+        }
+    }
+
+    public Executor getBulkExecutor() {
+        return this.bulkExecutor;
+    }
+
+    public void setBulkExecutor(Executor bulkExecutor) {
+        this.bulkExecutor = bulkExecutor;
+    }
+
+    public int getBulkParallelism() {
+        return this.bulkParallelism;
+    }
+
+    public void setBulkParallelism(int bulkParallelism) {
+        this.bulkParallelism = Math.max(1, bulkParallelism);
+    }
+
+    public int getBulkWindowSize() {
+        return this.bulkWindowSize;
+    }
+
+    public void setBulkWindowSize(int bulkWindowSize) {
+        this.bulkWindowSize = Math.max(1, bulkWindowSize);
+    }
+
+    private void evaluateWindow(final PreparedDecisionModel preparedModel, DecisionModelProperties properties, String[] decisionNames, String decisionServiceName, List<Map<String,Object>> window, long firstIndex, DecisionModelRecordResult[] windowResults) throws Exception {
+
+        int parallelism = Math.min(bulkParallelism, window.size());
+        if (parallelism <= 1) {
+
+            evaluateSlice(preparedModel, properties, decisionNames, decisionServiceName, window, 0, window.size(), firstIndex, windowResults);
+            return;
+        }
+
+        // Several small slices per worker so that the executor can balance uneven records
+        int sliceSize = Math.max(1, window.size() / (parallelism * BULK_SLICES_PER_WORKER));
+        List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+
+        for (int from = 0; from < window.size(); from += sliceSize) {
 
-            logger.debug(fact.getKey() + " -> " + fact.getValue());
-            context.set(fact.getKey(), fact.getValue());
+            final int sliceFrom = from;
+            final int sliceTo = Math.min(window.size(), from + sliceSize);
+            futures.add(CompletableFuture.runAsync(() -> evaluateSlice(preparedModel, properties, decisionNames, decisionServiceName, window, sliceFrom, sliceTo, firstIndex, windowResults), bulkExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private void evaluateSlice(final PreparedDecisionModel preparedModel, DecisionModelProperties properties, String[] decisionNames, String decisionServiceName, List<Map<String,Object>> window, int from, int to, long firstIndex, DecisionModelRecordResult[] windowResults) {
+
+        for (int i = from; i < to; i++) {
+
+            DecisionModelRecordResult recordResult = new DecisionModelRecordResult();
+            recordResult.setIndex(firstIndex + i);
+
+            // A failing record is reported on its own and does not stop the others
+            try {
+
+                ExecutionTimer timer = ExecutionTimer.start();
+                ResultCacheKey cacheKey = resultCacheKey(preparedModel, decisionNames, decisionServiceName, properties.isResultCacheEnabled(), window.get(i), null);
+                DecisionModelResults cachedResults = getCachedResults(properties, cacheKey, timer);
+                if (cachedResults != null) {
+
+                    recordResult.setResults(cachedResults);
+                    windowResults[i] = recordResult;
+                    continue;
+                }
+
+                List<DecisionNodeTiming> nodeTimings = new ArrayList<DecisionNodeTiming>();
+                DMNResult results = evaluateContext(preparedModel, window.get(i), null, timer, decisionNames, decisionServiceName, properties, nodeTimings);
+                recordResult.setResults(createResults(properties, timer, results, decisionNames, nodeTimings));
+                cacheResults(cacheKey, results, recordResult.getResults());
+
+                if (results.hasErrors()) {
+                    recordResult.setFailure(String.valueOf(results.getMessages(DMNMessage.Severity.ERROR)));
+                }
+            } catch (Exception e) {
+
+                logger.debug("Decision model evaluation failed for record: index=" + (firstIndex + i) + ", " + e);
+                recordResult.setFailure(e.toString());
+            }
+
+            windowResults[i] = recordResult;
+        }
+    }
+
+    public PreparedDecisionModel prepare(final DecisionModelProperties properties) throws Exception {
+
+        // The model is shared by every name referring to it, the handle evaluates with the properties of this name
+        return prepareModel(properties).withProperties(properties);
+    }
+
+    private PreparedDecisionModel prepareModel(final DecisionModelProperties properties) throws Exception {
+
+        // Obtain the cached kieContainer and kieBase of the active release, built on first use
+        String releaseId = releaseManager.route(properties.getName(), properties.getKieContainerType(), properties.getReleaseId(), properties.getKieBaseName());
+        KieBaseHandle kieBaseHandle = registry.getKieBase(properties.getKieContainerType(), releaseId, properties.getKieBaseName());
+
+        // Reuse the prepared model as long as it was built against the current kieBase. Keyed by the routed release,
+        // names sharing a model but routed to different releases each keep their own
+        DecisionModelKey key = DecisionModelKey.of(kieBaseHandle.getKey(), properties);
+        PreparedDecisionModel preparedModel = preparedModels.get(key);
+        if (preparedModel != null && preparedModel.getKieBaseHandle() == kieBaseHandle) {
+            return preparedModel;
+        }
+
+        synchronized (preparedModels) {
+
+            preparedModel = preparedModels.get(key);
+            if (preparedModel == null || preparedModel.getKieBaseHandle() != kieBaseHandle) {
+
+                // Results cached against the replaced kieBase can no longer be served
+                if (preparedModel != null) {
+
+                    preparedModel.dispose();
+                    resultCache.invalidate(preparedModel.getCacheOwner());
+                }
+
+                preparedModel = PreparedDecisionModel.prepare(properties, kieBaseHandle, getDecisionModelTimings(properties));
+                preparedModels.put(key, preparedModel);
+                disposeRetired();
+            }
+        }
+
+        return preparedModel;
+    }
+
+    private void disposeRetired() {
+
+        // Models of releases drained since they were prepared can no longer be evaluated, nothing is in flight on them
+        Iterator<PreparedDecisionModel> iterator = preparedModels.values().iterator();
+        while (iterator.hasNext()) {
+
+            PreparedDecisionModel preparedModel = iterator.next();
+            if (preparedModel.getKieBaseHandle().isRetired() && preparedModel.getKieBaseHandle().getInFlight() == 0) {
+
+                preparedModel.dispose();
+                resultCache.invalidate(preparedModel.getCacheOwner());
+                iterator.remove();
+            }
+        }
+    }
+
+    private PreparedDecisionModel acquire(final DecisionModelProperties properties) throws Exception {
+
+        // A release retired between the lookup and the acquisition is prepared again
+        while (true) {
+
+            PreparedDecisionModel preparedModel = prepareModel(properties);
+            if (preparedModel.getKieBaseHandle().tryAcquire()) {
+                return preparedModel;
+            }
+
+            Thread.onSpinWait();
+        }
+    }
+
+    private void acquire(final PreparedDecisionModel preparedModel) throws Exception {
+
+        if (!preparedModel.getKieBaseHandle().tryAcquire()) {
+            throw new Exception("Decision model release was retired, prepare it again: name=" + preparedModel.getName() + ", kieBase=" + preparedModel.getKieBaseHandle().getKey());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> FactBinding<T> factBinding(final DecisionModelProperties properties, T facts) throws Exception {
+
+        if (facts == null) {
+            throw new Exception("No facts to bind");
+        } else if (facts instanceof Map) {
+            throw new Exception("Facts given as a map are executed without a binding, use execute instead");
+        }
+
+        // Facts of a subtype are bound through the registered fact type, so only the registered properties are set
+        RegisteredBinding registered = bindings.get(executionKey(properties));
+        if (registered != null && registered.factBinding != null) {
+
+            if (!registered.factBinding.getType().isInstance(facts)) {
+                throw new Exception("Fact type does not match the binding registered for the decision model: name=" + properties.getName() + ", factType=" + facts.getClass().getName() + ", registered=" + registered.factBinding.getType().getName());
+            }
+
+            return (FactBinding<T>) registered.factBinding;
+        }
+
+        return FactBinding.of((Class<T>) facts.getClass());
+    }
+
+    private KieReleaseManager.WarmUp warmUp(final DecisionModelProperties properties, List<Map<String,Object>> warmUpFacts) {
+
+        if (warmUpFacts == null || warmUpFacts.isEmpty()) {
+            return null;
+        }
+
+        // Sample facts are evaluated against a throwaway model of the new release, without listener or result cache
+        DecisionModelProperties warmUpProperties = new DecisionModelProperties(properties);
+        warmUpProperties.setListenerEnabled(false);
+
+        return kieBaseHandle -> {
+
+            PreparedDecisionModel preparedModel = PreparedDecisionModel.prepare(warmUpProperties, kieBaseHandle);
+            for (Map<String,Object> facts : warmUpFacts) {
+                preparedModel.evaluate(facts);
+            }
+
+            preparedModel.dispose();
+        };
+    }
+
+    private <T> T admit(final DecisionModelProperties properties, Callable<T> execution) throws Exception {
+
+        if (properties.getBulkheadMaxConcurrent() <= 0) {
+            return execution.call();
+        }
+
+        // Admitted against the limits of this decision model only
+        return bulkheads.execute(executionKey(properties), properties.getBulkheadMaxConcurrent(), properties.getBulkheadMaxQueued(), properties.getBulkheadMaxWait(), properties.isBulkheadAdaptive(), execution);
+    }
+
+    private String executionKey(final DecisionModelProperties properties) {
+        return (properties.getName() != null) ? properties.getName() : properties.getModelNamespace() + "#" + properties.getModelName();
+    }
+
+    private <T> DecisionModelResults evaluate(final PreparedDecisionModel preparedModel, DecisionModelProperties properties, T facts, FactBinding<T> factBinding, ExecutionTimer timer, String[] decisionNames, String decisionServiceName, boolean resultCacheEnabled) throws Exception {
+
+        // Serve repeated facts from the result cache, when enabled
+        ResultCacheKey cacheKey = resultCacheKey(preparedModel, decisionNames, decisionServiceName, resultCacheEnabled, facts, factBinding);
+        DecisionModelResults cachedResults = getCachedResults(properties, cacheKey, timer);
+        if (cachedResults != null) {
+            return cachedResults;
         }
 
         // Execute the decision model
         logger.debug("\r\nExecuting the decision model...");
-        DMNResult results = runtime.evaluateAll(model, context);
+        List<DecisionNodeTiming> nodeTimings = new ArrayList<DecisionNodeTiming>();
+        DMNResult results = evaluateContext(preparedModel, facts, factBinding, timer, decisionNames, decisionServiceName, properties, nodeTimings);
 
-        // Mark completion time        
-        LocalDateTime completedOn = LocalDateTime.now();
+        DecisionModelResults executionResults = createResults(properties, timer, results, decisionNames, nodeTimings);
+        cacheResults(cacheKey, results, executionResults);
+        return executionResults;
+    }
 
-        // Report
-        ExecutionDuration duration = calculateExecutionDuration(startedOn, completedOn);
-        logger.debug("Decision Model Execution started: " + startedOn + ", ended: " + completedOn + ", duration: " + duration + "...");
+    private <T> ResultCacheKey resultCacheKey(final PreparedDecisionModel preparedModel, String[] decisionNames, String decisionServiceName, boolean resultCacheEnabled, T facts, FactBinding<T> factBinding) {
+
+        if (!resultCacheEnabled) {
+            return null;
+        }
+
+        // Facts holding values that are not known to be immutable are never cached, bound facts share the keys of their map form
+        Object canonicalFacts = CacheableValues.canonicalize((factBinding != null) ? factBinding.toMap(facts) : facts);
+        if (canonicalFacts == CacheableValues.NOT_CACHEABLE) {
+            return null;
+        }
+
+        Object target = (decisionServiceName != null) ? decisionServiceName : (decisionNames != null) ? Arrays.asList(decisionNames) : null;
+        return ResultCacheKey.of(preparedModel.getCacheOwner(), target, canonicalFacts);
+    }
 
-        // Prepare the execution results
+    private DecisionModelResults getCachedResults(final DecisionModelProperties properties, ResultCacheKey cacheKey, ExecutionTimer timer) {
+
+        if (cacheKey == null) {
+            return null;
+        }
+
+        List<DecisionResult> cachedResults = resultCache.get(cacheKey);
+        if (cachedResults == null) {
+            return null;
+        }
+
+        // Every caller gets its own results, sharing only the immutable decision values
         DecisionModelResults executionResults = new DecisionModelResults();
-        executionResults.setStartedOn(formatLocalDateTime(startedOn));
-        executionResults.setCompletedOn(formatLocalDateTime(completedOn));
-        executionResults.setExecutionDuration(duration);
+        executionResults.setCached(true);
 
-        // Format the decision results into the execution results
-        for (DMNDecisionResult result : results.getDecisionResults()) {  
+        for (DecisionResult cachedResult : cachedResults) {
 
             DecisionResult dr = new DecisionResult();
-            dr.setDecision(result.getDecisionName());
-            dr.setResult(result.getResult());
+            dr.setDecision(cachedResult.getDecision());
+            dr.setResult(cachedResult.getResult());
             executionResults.getResults().add(dr);
         }
 
-        // Return execution results
-        return executionResults;
+        return completeResults(properties, timer, executionResults);
     }
 
-    private KieContainer createKieContainer(final KieServices kieServices, final KieContainerType kieContainerType, final String releaseId) throws Exception {
+    private void cacheResults(final ResultCacheKey cacheKey, DMNResult results, DecisionModelResults executionResults) {
 
-        KieContainer kieContainer = null;
+        if (cacheKey == null || results.hasErrors()) {
+            return;
+        }
 
-        if (kieContainerType == KieContainerType.CLASSPATH) {
+        // The cached copy is detached from the results handed to this caller
+        List<DecisionResult> cachedResults = new ArrayList<DecisionResult>(executionResults.getResults().size());
+        for (DecisionResult result : executionResults.getResults()) {
 
-            logger.debug("Creating classpath container...");
-            kieContainer = kieServices.getKieClasspathContainer();        
-        } else if (kieContainerType == KieContainerType.RELEASE_ID) {
+            Object frozenResult = CacheableValues.freeze(result.getResult());
+            if (frozenResult == CacheableValues.NOT_CACHEABLE) {
+                return;
+            }
+
+            DecisionResult dr = new DecisionResult();
+            dr.setDecision(result.getDecision());
+            dr.setResult(frozenResult);
+            cachedResults.add(dr);
+        }
+
+        resultCache.put(cacheKey, cachedResults);
+    }
 
-            logger.debug("Creating releaseId container...");
-            kieContainer = kieServices.newKieContainer(new ReleaseIdImpl(releaseId));
+    @SuppressWarnings("unchecked")
+    private <T> DMNResult evaluateContext(final PreparedDecisionModel preparedModel, T facts, FactBinding<T> factBinding, ExecutionTimer timer, String[] decisionNames, String decisionServiceName, DecisionModelProperties properties, List<DecisionNodeTiming> nodeTimings) throws Exception {
+
+        // Setting the DMN context
+        DMNContext context = preparedModel.newContext();
+        timer.mark(ExecutionPhase.SESSION_CREATION);
+
+        // Add facts to the DMN context, bound facts are read straight from their properties
+        if (factBinding != null) {
+            preparedModel.setFacts(context, factBinding, facts);
         } else {
-           throw new Exception("Unsupported KIE container type: " + kieContainerType);
+            preparedModel.setFacts(context, (Map<String,Object>) facts);
         }
+        timer.mark(ExecutionPhase.FACT_INSERTION);
 
-        return kieContainer;
+        DMNResult results = preparedModel.evaluate(context, decisionNames, decisionServiceName, nodeTimings, properties.getEvaluationTimeout(), properties.getEvaluationMaxOverdue(), evaluationExecutor);
+        timer.mark(ExecutionPhase.EXECUTION);
+        return results;
     }
 
-    private ExecutionDuration calculateExecutionDuration(LocalDateTime begin, LocalDateTime end) {
+    private DecisionModelResults createResults(final DecisionModelProperties properties, ExecutionTimer timer, DMNResult results, String[] decisionNames, List<DecisionNodeTiming> nodeTimings) {
+
+        // Prepare the execution results, with the per-node breakdown when the listener is enabled
+        DecisionModelResults executionResults = new DecisionModelResults();
+        executionResults.setNodeTimings(nodeTimings);
+
+        // Only the decisions completed by the deadline are there, the results also hold the timeout error
+        if (PreparedDecisionModel.isTruncated(results)) {
+
+            executionResults.setTruncatedBy(ExecutionLimit.DEADLINE);
+            executionMetrics.recordTruncated(executionKey(properties), ExecutionLimit.DEADLINE);
+            logger.warn("Decision model evaluation truncated: name=" + executionKey(properties) + ", completed=" + results.getDecisionResults().size());
+        }
 
-        ExecutionDuration ed = new ExecutionDuration();
-        ed.setDays(ChronoUnit.DAYS.between(begin, end));
-        ed.setHours(ChronoUnit.HOURS.between(begin, end));
-        ed.setMinutes(ChronoUnit.MINUTES.between(begin, end));
-        ed.setSeconds(ChronoUnit.SECONDS.between(begin, end));
-        ed.setMilliseconds(ChronoUnit.MILLIS.between(begin, end));
-        return ed;
-   }
+        // Format the decision results into the execution results, only the targets when decisions were selected
+        if (decisionNames != null) {
 
-   private String formatLocalDateTime(LocalDateTime ldt) {
+            for (String decisionName : decisionNames) {
+
+                DMNDecisionResult result = results.getDecisionResultByName(decisionName);
+                if (result != null) {
+                    addDecisionResult(executionResults, result);
+                }
+            }
+        } else {
 
-       DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
-       return ldt.format(formatter);
-   }
-}
+            for (DMNDecisionResult result : results.getDecisionResults()) {
+                addDecisionResult(executionResults, result);
+            }
+        }
+
+        return completeResults(properties, timer, executionResults);
+    }
+
+    private DecisionModelResults completeResults(final DecisionModelProperties properties, ExecutionTimer timer, DecisionModelResults executionResults) {
+
+        // Mark completion time, the timestamps are only formatted when read
+        timer.mark(ExecutionPhase.RESULT_MAPPING);
+        timer.stop();
+        executionResults.setStartedOnMillis(timer.getStartedOnMillis());
+        executionResults.setCompletedOnMillis(timer.getCompletedOnMillis());
+        executionResults.setExecutionDuration(timer.toExecutionDuration());
+        executionMetrics.record(executionKey(properties), timer);
+
+        // Report
+        if (logger.isDebugEnabled()) {
+            logger.debug("Decision Model execution completed: name=" + properties.getName() + ", duration: " + executionResults.getExecutionDuration() + "...");
+        }
+
+        // Return execution results
+        return executionResults;
+    }
+
+    private void addDecisionResult(DecisionModelResults executionResults, DMNDecisionResult result) {
+
+        DecisionResult dr = new DecisionResult();
+        dr.setDecision(result.getDecisionName());
+        dr.setResult(result.getResult());
+        executionResults.getResults().add(dr);
+    }
+
+    private static final class RegisteredBinding {
+
+        private final FactBinding<?> factBinding;
+        private final ResultBinding<?> resultBinding;
+
+        private RegisteredBinding(FactBinding<?> factBinding, ResultBinding<?> resultBinding) {
+            this.factBinding = factBinding;
+            this.resultBinding = resultBinding;
+        }
+    }
+}
\ No newline at end of file
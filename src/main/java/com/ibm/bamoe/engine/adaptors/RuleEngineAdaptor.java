@@ -2,10 +2,16 @@ package com.ibm.bamoe.engine.adaptors;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,29 +21,55 @@ import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 
 import org.kie.api.KieBase;
-import org.kie.api.KieServices;
-import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.StatelessKieSession;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.ObjectFilter;
+import org.kie.api.runtime.rule.QueryResults;
+import org.kie.api.runtime.rule.QueryResultsRow;
 import org.kie.api.command.Command;
 import org.kie.api.builder.ReleaseId;
-import org.kie.util.maven.support.ReleaseIdImpl;
 import org.kie.internal.command.CommandFactory;
+import org.drools.commands.runtime.rule.FireAllRulesCommand;
 
-import com.ibm.bamoe.engine.adaptors.model.ExecutionDuration;
+import com.ibm.bamoe.engine.adaptors.cache.CachedRuleResults;
+import com.ibm.bamoe.engine.adaptors.cache.FactState;
+import com.ibm.bamoe.engine.adaptors.cache.ResultCache;
+import com.ibm.bamoe.engine.adaptors.cache.ResultCacheKey;
+import com.ibm.bamoe.engine.adaptors.concurrent.AsyncExecutor;
+import com.ibm.bamoe.engine.adaptors.concurrent.Bulkhead;
+import com.ibm.bamoe.engine.adaptors.concurrent.BulkheadRegistry;
+import com.ibm.bamoe.engine.adaptors.concurrent.ShardedRuleEngine;
+import com.ibm.bamoe.engine.adaptors.config.ResolvedPropertiesCache;
+import com.ibm.bamoe.engine.adaptors.model.BatchRuleResults;
+import com.ibm.bamoe.engine.adaptors.model.ExecutionLimit;
 import com.ibm.bamoe.engine.adaptors.model.RuleResults;
 import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
 import com.ibm.bamoe.engine.adaptors.model.KieSessionType;
 import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+import com.ibm.bamoe.engine.adaptors.model.RuleCaptureMode;
 import com.ibm.bamoe.engine.adaptors.listeners.RuleEngineAgendaListener;
-import com.ibm.bamoe.engine.adaptors.listeners.RuleEngineWorkingMemoryListener;
-import com.ibm.bamoe.engine.adaptors.listeners.ProcessEventListener;
+import com.ibm.bamoe.engine.adaptors.listeners.SessionListeners;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionMetrics;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionPhase;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionTimer;
+import com.ibm.bamoe.engine.adaptors.metrics.RuleSetProfiler;
+import com.ibm.bamoe.engine.adaptors.runtime.ExecutionDeadline;
+import com.ibm.bamoe.engine.adaptors.runtime.KieBaseHandle;
+import com.ibm.bamoe.engine.adaptors.runtime.KieBaseKey;
+import com.ibm.bamoe.engine.adaptors.runtime.KieContainerRegistry;
+import com.ibm.bamoe.engine.adaptors.runtime.KieReleaseManager;
+import com.ibm.bamoe.engine.adaptors.runtime.KieSessionPool;
+import com.ibm.bamoe.engine.adaptors.runtime.LongLivedKieSession;
+import com.ibm.bamoe.engine.adaptors.runtime.LongLivedSessionRegistry;
+import com.ibm.bamoe.engine.adaptors.runtime.PendingMatchesCommand;
+import com.ibm.bamoe.engine.adaptors.runtime.PooledKieSession;
+import com.ibm.bamoe.engine.adaptors.runtime.RuleIndex;
 
 public class RuleEngineAdaptor {
 
     private static final Logger logger = LoggerFactory.getLogger(RuleEngineAdaptor.class);
 
-    private static final String DATE_TIME_FORMAT        = "yyyy-MM-dd HH:mm:ss";
     private static final String KIE_BASE_NAME           = "kie-base.name";
     private static final String RELEASE_ID              = "release.id";
     private static final String KIE_SESSION_NAME        = "kie-session.name";
@@ -47,8 +79,155 @@ public class RuleEngineAdaptor {
     private static final String ENABLE_AGENDA_LISTENER  = "enable.agenda.listener";
     private static final String ENABLE_WM_LISTENER      = "enable.working-memory.listener";
     private static final String ENABLE_PROCESS_LISTENER = "enable.process.listener";
+    private static final String POOL_MIN_SIZE           = "kie-session.pool.min-size";
+    private static final String POOL_MAX_SIZE           = "kie-session.pool.max-size";
+    private static final String POOL_BORROW_TIMEOUT     = "kie-session.pool.borrow-timeout";
+    private static final String ASYNC_MAX_IN_FLIGHT     = "async.max-in-flight";
+    private static final String ENABLE_RULE_PROFILING   = "enable.rule.profiling";
+    private static final String RULE_CAPTURE_MODE       = "rule-capture.mode";
+    private static final String ENABLE_RESULT_CACHE     = "enable.result-cache";
+    private static final String SESSION_IDLE_TIMEOUT    = "kie-session.idle-timeout";
+    private static final String SESSION_MAX_LIFETIME    = "kie-session.max-lifetime";
+    private static final String SHARD_COUNT             = "shard.count";
+    private static final String SHARD_KEY               = "shard.key";
+    private static final String SHARD_ISOLATED_KEYS     = "shard.isolated-keys";
+    private static final String OUTPUT_QUERIES          = "output.queries";
+    private static final String OUTPUT_CLASSES          = "output.classes";
+    private static final String OUTPUT_IDENTIFIERS      = "output.identifiers";
+    private static final String EXECUTION_TIMEOUT       = "execution.timeout";
+    private static final String MAX_RULE_FIRINGS        = "rule.max-firings";
+    private static final String BULKHEAD_MAX_CONCURRENT = "bulkhead.max-concurrent";
+    private static final String BULKHEAD_MAX_QUEUED     = "bulkhead.max-queued";
+    private static final String BULKHEAD_MAX_WAIT       = "bulkhead.max-wait";
+    private static final String BULKHEAD_ADAPTIVE       = "bulkhead.adaptive";
+    private static final String FIRED_RULE_COUNT        = "firedRuleCount";
+    private static final String PENDING_MATCHES         = "#pending-matches";
+    private static final String OUTPUT_OBJECTS          = "#output-objects";
+    private static final String OUTPUT_QUERY            = "#output-query:";
+
+    private final KieContainerRegistry registry;
+    private final KieReleaseManager releaseManager;
+    private volatile Executor batchExecutor = ForkJoinPool.commonPool();
+    private volatile AsyncExecutor asyncExecutor = new AsyncExecutor();
+    private final Map<String, KieSessionPool> sessionPools = new ConcurrentHashMap<String, KieSessionPool>();
+    private final BulkheadRegistry bulkheads = new BulkheadRegistry();
+    private final LongLivedSessionRegistry longLivedSessions = new LongLivedSessionRegistry();
+    private final ExecutionMetrics executionMetrics = new ExecutionMetrics();
+    private final Map<String, RuleSetProfiler> ruleProfilers = new ConcurrentHashMap<String, RuleSetProfiler>();
+    private final ResolvedPropertiesCache<RuleSetProperties> propertiesCache = new ResolvedPropertiesCache<RuleSetProperties>(this::loadProperties, RuleSetProperties::new);
+    private volatile ResultCache<CachedRuleResults> resultCache = new ResultCache<CachedRuleResults>();
+
+    public RuleEngineAdaptor() {
+        this(KieContainerRegistry.getInstance());
+    }
+
+    public RuleEngineAdaptor(final KieContainerRegistry registry) {
+        this.registry = registry;
+        this.releaseManager = new KieReleaseManager(registry);
+    }
+
+    public KieContainerRegistry getRegistry() {
+        return this.registry;
+    }
+
+    public void preload(final RuleSetProperties properties) throws Exception {
+
+        logger.debug("Preloading ruleset: name=" + properties.getName() + "...");
+        registry.preload(properties.getKieContainerType(), releaseManager.getReleaseId(properties.getName(), properties.getReleaseId()), properties.getKieBaseName());
+    }
+
+    public boolean evict(final RuleSetProperties properties) {
+
+        logger.debug("Evicting ruleset: name=" + properties.getName() + "...");
+
+        synchronized (sessionPools) {
+
+            KieSessionPool sessionPool = sessionPools.remove(executionKey(properties));
+            if (sessionPool != null) {
+                sessionPool.close();
+            }
+        }
+
+        longLivedSessions.closeAll(executionKey(properties));
+
+        // Drop the results cached against the evicted kieBase
+        KieBaseKey kieBaseKey = KieBaseKey.of(properties.getKieContainerType(), releaseManager.getReleaseId(properties.getName(), properties.getReleaseId()), properties.getKieBaseName());
+        resultCache.invalidateIf(owner -> ((KieBaseHandle) owner).getKey().equals(kieBaseKey));
+
+        return registry.evict(properties.getKieContainerType(), releaseManager.getReleaseId(properties.getName(), properties.getReleaseId()), properties.getKieBaseName());
+    }
+
+    public KieSessionPool getSessionPool(final String ruleSetName) {
+        return sessionPools.get(ruleSetName);
+    }
+
+    public Bulkhead getBulkhead(final String ruleSetName) {
+        return bulkheads.get(ruleSetName);
+    }
+
+    public ExecutionMetrics getExecutionMetrics() {
+        return this.executionMetrics;
+    }
+
+    public RuleSetProfiler getRuleProfiler(final String ruleSetName) {
+        return ruleProfilers.get(ruleSetName);
+    }
+
+    public ResultCache<CachedRuleResults> getResultCache() {
+        return this.resultCache;
+    }
+
+    public void setResultCache(ResultCache<CachedRuleResults> resultCache) {
+
+        ResultCache<CachedRuleResults> previous = this.resultCache;
+        this.resultCache = resultCache;
+        previous.clear();
+    }
+
+    public void dispose() {
+
+        logger.debug("Closing all session pools...");
+
+        synchronized (sessionPools) {
+
+            for (KieSessionPool sessionPool : sessionPools.values()) {
+                sessionPool.close();
+            }
+
+            sessionPools.clear();
+        }
+
+        longLivedSessions.dispose();
+        resultCache.clear();
+        releaseManager.dispose();
+        asyncExecutor.shutdown();
+    }
 
     public RuleResults execute(final String ruleSetName, Map<String,Object> facts) throws Exception {
+        return execute(propertiesCache.get(ruleSetName), facts);
+    }
+
+    public RuleSetProperties getProperties(final String ruleSetName) throws Exception {
+        return propertiesCache.get(ruleSetName);
+    }
+
+    public void refreshProperties() {
+        propertiesCache.refresh();
+    }
+
+    public void refreshProperties(final String ruleSetName) {
+        propertiesCache.refresh(ruleSetName);
+    }
+
+    public long getPropertiesFailureTtl() {
+        return propertiesCache.getFailureTtl();
+    }
+
+    public void setPropertiesFailureTtl(long propertiesFailureTtl) {
+        propertiesCache.setFailureTtl(propertiesFailureTtl);
+    }
+
+    private RuleSetProperties loadProperties(final String ruleSetName) throws Exception {
 
         // Load all the properties we need for execution
         logger.debug("Loading ruleset properties for: " + ruleSetName);
@@ -69,171 +248,961 @@ public class RuleEngineAdaptor {
         properties.setRuleWorkingMemoryListenerEnabled(smallRyeConfig.getValue(ruleSetName + "." + ENABLE_WM_LISTENER, Boolean.class));
         properties.setProcessListenerEnabled(smallRyeConfig.getValue(ruleSetName + "." + ENABLE_PROCESS_LISTENER, Boolean.class));
 
-        return execute(properties, facts);
+        // Optional stateful session pool settings
+        properties.setSessionPoolMinSize(smallRyeConfig.getOptionalValue(ruleSetName + "." + POOL_MIN_SIZE, Integer.class).orElse(properties.getSessionPoolMinSize()));
+        properties.setSessionPoolMaxSize(smallRyeConfig.getOptionalValue(ruleSetName + "." + POOL_MAX_SIZE, Integer.class).orElse(properties.getSessionPoolMaxSize()));
+        properties.setSessionPoolBorrowTimeout(smallRyeConfig.getOptionalValue(ruleSetName + "." + POOL_BORROW_TIMEOUT, Long.class).orElse(properties.getSessionPoolBorrowTimeout()));
+        properties.setMaxInFlight(smallRyeConfig.getOptionalValue(ruleSetName + "." + ASYNC_MAX_IN_FLIGHT, Integer.class).orElse(properties.getMaxInFlight()));
+
+        // Optional per-rule profiling
+        properties.setRuleProfilingEnabled(smallRyeConfig.getOptionalValue(ruleSetName + "." + ENABLE_RULE_PROFILING, Boolean.class).orElse(properties.isRuleProfilingEnabled()));
+
+        // Optional fired rule capture mode, by default rule names are captured when the agenda listener is enabled
+        properties.setRuleCaptureMode(smallRyeConfig.getOptionalValue(ruleSetName + "." + RULE_CAPTURE_MODE, RuleCaptureMode.class).orElse(null));
+
+        // Optional result cache, for stateless rulesets that only depend on the inserted facts
+        properties.setResultCacheEnabled(smallRyeConfig.getOptionalValue(ruleSetName + "." + ENABLE_RESULT_CACHE, Boolean.class).orElse(properties.isResultCacheEnabled()));
+
+        // Optional lifetime of long-lived stateful sessions
+        properties.setSessionIdleTimeout(smallRyeConfig.getOptionalValue(ruleSetName + "." + SESSION_IDLE_TIMEOUT, Long.class).orElse(properties.getSessionIdleTimeout()));
+        properties.setSessionMaxLifetime(smallRyeConfig.getOptionalValue(ruleSetName + "." + SESSION_MAX_LIFETIME, Long.class).orElse(properties.getSessionMaxLifetime()));
+
+        // Optional sharding of stateful load, by the value of the named fact
+        properties.setShardCount(smallRyeConfig.getOptionalValue(ruleSetName + "." + SHARD_COUNT, Integer.class).orElse(properties.getShardCount()));
+        properties.setShardKey(smallRyeConfig.getOptionalValue(ruleSetName + "." + SHARD_KEY, String.class).orElse(null));
+        properties.setShardKeysIsolated(smallRyeConfig.getOptionalValue(ruleSetName + "." + SHARD_ISOLATED_KEYS, Boolean.class).orElse(properties.isShardKeysIsolated()));
+
+        // Optional outputs, by default the input facts are returned as they were left by the rules
+        properties.setOutputQueries(smallRyeConfig.getOptionalValues(ruleSetName + "." + OUTPUT_QUERIES, String.class).map(List::copyOf).orElse(null));
+        properties.setOutputClasses(smallRyeConfig.getOptionalValues(ruleSetName + "." + OUTPUT_CLASSES, String.class).map(List::copyOf).orElse(null));
+        properties.setOutputIdentifiers(smallRyeConfig.getOptionalValues(ruleSetName + "." + OUTPUT_IDENTIFIERS, String.class).map(List::copyOf).orElse(null));
+
+        // Optional limits of a single execution, a ruleset that reaches them returns what it has done so far
+        properties.setExecutionTimeout(smallRyeConfig.getOptionalValue(ruleSetName + "." + EXECUTION_TIMEOUT, Long.class).orElse(properties.getExecutionTimeout()));
+        properties.setMaxRuleFirings(smallRyeConfig.getOptionalValue(ruleSetName + "." + MAX_RULE_FIRINGS, Integer.class).orElse(properties.getMaxRuleFirings()));
+
+        // Optional bulkhead, so that a spike on this ruleset cannot starve the others
+        properties.setBulkheadMaxConcurrent(smallRyeConfig.getOptionalValue(ruleSetName + "." + BULKHEAD_MAX_CONCURRENT, Integer.class).orElse(properties.getBulkheadMaxConcurrent()));
+        properties.setBulkheadMaxQueued(smallRyeConfig.getOptionalValue(ruleSetName + "." + BULKHEAD_MAX_QUEUED, Integer.class).orElse(properties.getBulkheadMaxQueued()));
+        properties.setBulkheadMaxWait(smallRyeConfig.getOptionalValue(ruleSetName + "." + BULKHEAD_MAX_WAIT, Long.class).orElse(properties.getBulkheadMaxWait()));
+        properties.setBulkheadAdaptive(smallRyeConfig.getOptionalValue(ruleSetName + "." + BULKHEAD_ADAPTIVE, Boolean.class).orElse(properties.isBulkheadAdaptive()));
+
+        return properties;
     }
 
     public RuleResults execute(final RuleSetProperties properties, Map<String,Object> facts) throws Exception {
+        return admit(properties, () -> executeRuleSet(properties, facts));
+    }
+
+    private RuleResults executeRuleSet(final RuleSetProperties properties, Map<String,Object> facts) throws Exception {
 
         // Mark the start time
-        LocalDateTime startedOn = LocalDateTime.now();
-        logger.debug("Executing ruleset: name=" + properties.getName() + "...");
+        ExecutionTimer timer = ExecutionTimer.start();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Executing ruleset: name=" + properties.getName() + "...");
+            logger.debug("Obtaining KIE container objects for kieBase=" + properties.getKieBaseName()  + "...");
+        }
 
-        // Create the kieSesion, kieContainer, and kieBase
-        logger.debug("Creating KIE services and container objects for kieBase=" + properties.getKieBaseName()  + "...");
-        KieServices kieServices = KieServices.Factory.get();
-        KieContainer kieContainer = createKieContainer(kieServices, properties.getKieContainerType(), properties.getReleaseId());
-        KieBase kieBase = kieContainer.getKieBase(properties.getKieBaseName());          
+        // Obtain the cached kieContainer and kieBase of the active release, built on first use
+        KieBaseHandle kieBaseHandle = acquireKieBase(properties);
+        timer.mark(ExecutionPhase.CONTAINER_LOOKUP);
 
-        // Prepare the facts for the engine
-        logger.debug("Inserting facts into rule engine instance...");
+        try {
 
-        List<Command> commands = new ArrayList<Command>();
-        for (Map.Entry<String, Object> fact : facts.entrySet()) {
+            // Serve repeated facts from the result cache, when enabled
+            ResultCacheKey cacheKey = resultCacheKey(kieBaseHandle, properties, facts);
+            RuleResults cachedResults = getCachedResults(properties, cacheKey, facts, timer);
+            if (cachedResults != null) {
+                return cachedResults;
+            }
+
+            // Execute the session
+            RuleResults results = executeSession(kieBaseHandle, properties, facts, timer);
+            cacheResults(kieBaseHandle, cacheKey, results, facts);
 
-            logger.debug(fact.getKey() + " -> " + fact.getValue());
-            commands.add(CommandFactory.newInsert(fact.getValue(), fact.getKey()));
+            // Return the results
+            return results;
+        } finally {
+
+            // The previous release of an updated ruleset is disposed once its executions are released
+            kieBaseHandle.release();
         }
+    }
 
-        // Add a stateless workflow, if it exists
-        if (properties.getRuleFlowName() != null && !properties.getRuleFlowName().equalsIgnoreCase("none")) {
-            commands.add(CommandFactory.newStartProcess(properties.getRuleFlowName()));
+    public LongLivedKieSession openSession(final String ruleSetName, String sessionKey) throws Exception {
+        return openSession(propertiesCache.get(ruleSetName), sessionKey);
+    }
+
+    public LongLivedKieSession openSession(final RuleSetProperties properties, String sessionKey) throws Exception {
+
+        if (properties.getKieSessionType() != KieSessionType.STATEFUL) {
+            throw new Exception("Long-lived sessions require a STATEFUL kieSession: name=" + properties.getName() + ", kieSessionType=" + properties.getKieSessionType());
         }
 
-        // Add other batch commands
-        commands.add(CommandFactory.newFireAllRules());        
+        return longLivedSessions.getOrCreate(executionKey(properties), sessionKey, () -> {
 
-        // Execute the session
-        RuleResults results = executeSession(kieContainer, properties, commands, startedOn);
+            // The session is counted on the kieBase until it is closed, apart from the executions in flight
+            KieBaseHandle kieBaseHandle = acquireKieBase(properties);
+            try {
 
-        // Add the updated facts
-        results.getFacts().add(facts);
+                kieBaseHandle.openSession();
+                try {
+                    return new LongLivedKieSession(sessionKey, properties, kieBaseHandle, getRuleProfiler(properties));
+                } catch (RuntimeException e) {
 
-        // Return the results
-        return results;
+                    kieBaseHandle.closeSession();
+                    throw e;
+                }
+            } finally {
+                kieBaseHandle.release();
+            }
+        });
     }
 
-    private RuleResults executeSession(final KieContainer kieContainer, final RuleSetProperties properties, List<Command> commands, LocalDateTime startedOn) throws Exception {
+    public LongLivedKieSession getSession(final String ruleSetName, String sessionKey) throws Exception {
+        return longLivedSessions.get(executionKey(propertiesCache.get(ruleSetName)), sessionKey);
+    }
 
-        logger.debug("Creating KIE session: name=" + properties.getKieSessionName() + ", type=" + properties.getKieSessionType() + "...");
-        RuleEngineAgendaListener ruleAgendaListener = new RuleEngineAgendaListener();;
+    public List<String> getSessionKeys(final String ruleSetName) throws Exception {
+        return longLivedSessions.getSessionKeys(executionKey(propertiesCache.get(ruleSetName)));
+    }
 
-        // Stateless sessions are the default
-        if (properties.getKieSessionType() == KieSessionType.STATELESS) {
+    public boolean closeSession(final String ruleSetName, String sessionKey) throws Exception {
+        return closeSession(propertiesCache.get(ruleSetName), sessionKey);
+    }
 
-            StatelessKieSession kieSession = kieContainer.newStatelessKieSession(properties.getKieSessionName());
+    public boolean closeSession(final RuleSetProperties properties, String sessionKey) {
+        return longLivedSessions.close(executionKey(properties), sessionKey);
+    }
 
-            // Add event listeners
-            if (properties.isRuleAgendaListenerEnabled()) {
+    public RuleResults execute(final String ruleSetName, String sessionKey, Map<String,Object> facts) throws Exception {
+        return execute(propertiesCache.get(ruleSetName), sessionKey, facts);
+    }
 
-                logger.debug("Attaching rule engine agenda listener...");
-                kieSession.addEventListener(ruleAgendaListener);
-            }
+    public RuleResults execute(final RuleSetProperties properties, String sessionKey, Map<String,Object> facts) throws Exception {
+        return execute(properties, sessionKey, null, facts);
+    }
+
+    public RuleResults execute(final RuleSetProperties properties, String sessionKey, String partitionKey, Map<String,Object> facts) throws Exception {
+        return admit(properties, () -> executeInSession(properties, sessionKey, partitionKey, facts));
+    }
+
+    private RuleResults executeInSession(final RuleSetProperties properties, String sessionKey, String partitionKey, Map<String,Object> facts) throws Exception {
+
+        // Facts of different partitions sharing a session are told apart by prefixing their names with the partition key
+        String factNamePrefix = (partitionKey != null) ? partitionKey + "/" : "";
+
+        while (true) {
+
+            ExecutionTimer timer = ExecutionTimer.start();
+            LongLivedKieSession session = openSession(properties, sessionKey);
+            timer.mark(ExecutionPhase.SESSION_CREATION);
+
+            try {
+
+                return session.execute(longLivedSession -> {
 
-            if (properties.isRuleWorkingMemoryListenerEnabled()) {
+                    // Named facts are inserted the first time and updated afterwards, only the resulting agenda changes fire
+                    for (Map.Entry<String,Object> fact : facts.entrySet()) {
+                        longLivedSession.insert(factNamePrefix + fact.getKey(), fact.getValue());
+                    }
 
-                logger.debug("Attaching rule engine working memory listener...");
-                kieSession.addEventListener(new RuleEngineWorkingMemoryListener());
+                    timer.mark(ExecutionPhase.FACT_INSERTION);
+
+                    // A truncated execution leaves its remaining activations on the agenda, they fire with the next facts
+                    logger.debug("Executing ruleset...");
+                    ExecutionDeadline deadline = newDeadline(longLivedSession.getProperties());
+                    try {
+
+                        ExecutionResults executionResults = fireStateful(longLivedSession.getKieBaseHandle(), longLivedSession.getKieSession(), longLivedSession.getProperties(), deadline, timer);
+                        return createResults(longLivedSession.getProperties(), timer, longLivedSession.getRuleAgendaListener(), longLivedSession.getKieBaseHandle().getRuleIndex(), executionResults, deadline, facts);
+                    } finally {
+                        closeDeadline(deadline);
+                    }
+                });
+            } catch (IllegalStateException e) {
+
+                // Evicted between the lookup and the execution, a new session is opened for the key
+                if (!session.isClosed()) {
+                    throw e;
+                }
             }
+        }
+    }
+
+    public ShardedRuleEngine newShardedEngine(final String ruleSetName) throws Exception {
+
+        RuleSetProperties properties = propertiesCache.get(ruleSetName);
+        if (properties.getShardKey() == null) {
+            throw new Exception("No shard key configured: name=" + ruleSetName + ", key=" + ruleSetName + "." + SHARD_KEY);
+        }
+
+        return newShardedEngine(properties, ShardedRuleEngine.byFact(properties.getShardKey()));
+    }
+
+    public ShardedRuleEngine newShardedEngine(final RuleSetProperties properties, ShardedRuleEngine.PartitionKey partitionKey) throws Exception {
+
+        if (properties.getKieSessionType() != KieSessionType.STATEFUL) {
+            throw new Exception("Sharded execution requires a STATEFUL kieSession: name=" + properties.getName() + ", kieSessionType=" + properties.getKieSessionType());
+        }
+
+        // Keys share the session of their shard unless isolated, rules must then constrain on the key
+        return new ShardedRuleEngine(this, properties, properties.getShardCount(), partitionKey, ShardedRuleEngine.DEFAULT_MAX_QUEUE_SIZE, properties.isShardKeysIsolated());
+    }
+
+    public RuleResults fire(final String ruleSetName, String sessionKey) throws Exception {
+        return execute(propertiesCache.get(ruleSetName), sessionKey, new HashMap<String,Object>());
+    }
+
+    public CompletableFuture<KieBaseHandle> update(final String ruleSetName, final String releaseId, List<Map<String,Object>> warmUpFacts) throws Exception {
+
+        RuleSetProperties properties = propertiesCache.get(ruleSetName);
+        return releaseManager.update(ruleSetName, properties.getKieContainerType(), properties.getKieBaseName(), properties.getReleaseId(), releaseId, warmUp(properties, releaseId, warmUpFacts));
+    }
+
+    public CompletableFuture<KieBaseHandle> pin(final String ruleSetName, final String releaseId, List<Map<String,Object>> warmUpFacts) throws Exception {
+
+        RuleSetProperties properties = propertiesCache.get(ruleSetName);
+        return releaseManager.pin(ruleSetName, properties.getKieContainerType(), properties.getKieBaseName(), properties.getReleaseId(), releaseId, warmUp(properties, releaseId, warmUpFacts));
+    }
+
+    public void unpin(final String ruleSetName) {
+        releaseManager.unpin(ruleSetName);
+    }
 
-            if (properties.isProcessListenerEnabled()) {
+    public CompletableFuture<KieBaseHandle> rollback(final String ruleSetName) throws Exception {
+
+        RuleSetProperties properties = propertiesCache.get(ruleSetName);
+        String previousReleaseId = releaseManager.getPreviousReleaseId(ruleSetName);
+        return releaseManager.rollback(ruleSetName, properties.getKieContainerType(), properties.getKieBaseName(), warmUp(properties, previousReleaseId, null));
+    }
+
+    public String getReleaseId(final String ruleSetName) throws Exception {
+        return releaseManager.getReleaseId(ruleSetName, propertiesCache.get(ruleSetName).getReleaseId());
+    }
+
+    public KieReleaseManager getReleaseManager() {
+        return this.releaseManager;
+    }
+
+    public CompletableFuture<RuleResults> executeAsync(final String ruleSetName, Map<String,Object> facts) {
+
+        try {
+            return executeAsync(propertiesCache.get(ruleSetName), facts);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<RuleResults> executeAsync(final RuleSetProperties properties, Map<String,Object> facts) {
+
+        logger.debug("Submitting async ruleset execution: name=" + properties.getName() + "...");
+        return asyncExecutor.submit(executionKey(properties), properties.getMaxInFlight(), () -> execute(properties, facts));
+    }
+
+    public AsyncExecutor getAsyncExecutor() {
+        return this.asyncExecutor;
+    }
+
+    public void setAsyncExecutor(AsyncExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public BatchRuleResults executeBatch(final RuleSetProperties properties, List<Map<String,Object>> records) throws Exception {
+        return executeBatch(properties, records, 1);
+    }
+
+    public BatchRuleResults executeBatch(final RuleSetProperties properties, List<Map<String,Object>> records, int parallelism) throws Exception {
+
+        // A batch is admitted as a single execution, its parallelism is bounded by the caller
+        return admit(properties, () -> executeRecords(properties, records, parallelism));
+    }
+
+    private BatchRuleResults executeRecords(final RuleSetProperties properties, List<Map<String,Object>> records, int parallelism) throws Exception {
+
+        // Mark the start time
+        ExecutionTimer timer = ExecutionTimer.start();
+        logger.debug("Executing ruleset batch: name=" + properties.getName() + ", records=" + records.size() + ", parallelism=" + parallelism + "...");
 
-                logger.debug("Attaching process listener...");
-                kieSession.addEventListener(new ProcessEventListener());
+        // Obtain the cached kieContainer and kieBase once for the whole batch, it stays in use until the batch completes
+        KieBaseHandle kieBaseHandle = acquireKieBase(properties);
+        timer.mark(ExecutionPhase.CONTAINER_LOOKUP);
+
+        // Split the records into one contiguous slice per worker, results keep the input order
+        RuleResults[] results = new RuleResults[records.size()];
+        int workers = Math.max(1, Math.min(parallelism, records.size()));
+
+        // Workers beyond the ruleset pool size would only park batch executor threads in borrow
+        if (properties.getKieSessionType() == KieSessionType.STATEFUL && properties.getSessionPoolMaxSize() > 0) {
+            workers = Math.min(workers, properties.getSessionPoolMaxSize());
+        }
+
+        int sliceSize = (records.size() + workers - 1) / Math.max(1, workers);
+
+        // Stateful batches reuse one session per worker, from the ruleset pool or from a pool just for this batch
+        KieSessionPool sessionPool = null;
+        boolean transientPool = false;
+
+        try {
+
+            if (properties.getKieSessionType() == KieSessionType.STATEFUL) {
+
+                if (properties.getSessionPoolMaxSize() > 0) {
+                    sessionPool = getSessionPool(properties, kieBaseHandle);
+                }
+
+                if (sessionPool == null) {
+
+                    RuleSetProperties batchProperties = new RuleSetProperties(properties);
+                    batchProperties.setSessionPoolMaxSize(workers);
+                    sessionPool = new KieSessionPool(batchProperties, kieBaseHandle, getRuleProfiler(properties));
+                    transientPool = true;
+                }
             }
 
-            // Execute the rules
-            logger.debug("Executing ruleset...");
-            kieSession.execute(CommandFactory.newBatchExecution(commands));
+            if (workers == 1) {
+                executeSlice(kieBaseHandle, sessionPool, properties, records, 0, records.size(), results);
+            } else {
 
-        } else if (properties.getKieSessionType() == KieSessionType.STATEFUL) {
+                List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+                for (int from = 0; from < records.size(); from += sliceSize) {
 
-            KieSession kieSession = kieContainer.newKieSession(properties.getKieSessionName());
+                    final int sliceFrom = from;
+                    final int sliceTo = Math.min(records.size(), from + sliceSize);
+                    final KieSessionPool slicePool = sessionPool;
 
-            // Add event listeners
-            if (properties.isRuleAgendaListenerEnabled()) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+
+                        try {
+                            executeSlice(kieBaseHandle, slicePool, properties, records, sliceFrom, sliceTo, results);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, batchExecutor));
+                }
+
+                try {
+                    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+                } catch (CompletionException e) {
+                    throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
 
-                logger.debug("Attaching rule engine agenda listener...");
-                kieSession.addEventListener(ruleAgendaListener);
+            if (transientPool) {
+                sessionPool.close();
             }
 
-            if (properties.isRuleWorkingMemoryListenerEnabled()) {
+            kieBaseHandle.release();
+        }
+
+        // Prepare the aggregate results
+        BatchRuleResults batchResults = new BatchRuleResults();
+        batchResults.setRecordCount(records.size());
+        batchResults.setParallelism(workers);
 
-                logger.debug("Attaching rule engine working memory listener...");
-                kieSession.addEventListener(new RuleEngineWorkingMemoryListener());
+        long firedRuleCount = 0;
+        long recordNanoseconds = 0;
+        for (RuleResults result : results) {
+
+            firedRuleCount += result.getFiredRuleCount();
+            recordNanoseconds += result.getExecutionDuration().getNanoseconds();
+            batchResults.getResults().add(result);
+        }
+
+        batchResults.setFiredRuleCount(firedRuleCount);
+        batchResults.setAverageDurationNanos(records.isEmpty() ? 0 : recordNanoseconds / records.size());
+        batchResults.setAverageDurationMillis(records.isEmpty() ? 0 : (double) recordNanoseconds / records.size() / 1_000_000.0);
+
+        // Mark completion time
+        timer.mark(ExecutionPhase.RESULT_MAPPING);
+        timer.stop();
+        batchResults.setStartedOnMillis(timer.getStartedOnMillis());
+        batchResults.setCompletedOnMillis(timer.getCompletedOnMillis());
+        batchResults.setExecutionDuration(timer.toExecutionDuration());
+        logger.debug("Rule batch execution completed: name=" + properties.getName() + ", records=" + records.size() + ", duration: " + batchResults.getExecutionDuration() + "...");
+
+        return batchResults;
+    }
+
+    public Executor getBatchExecutor() {
+        return this.batchExecutor;
+    }
+
+    public void setBatchExecutor(Executor batchExecutor) {
+        this.batchExecutor = batchExecutor;
+    }
+
+    private void executeSlice(final KieBaseHandle kieBaseHandle, final KieSessionPool sessionPool, final RuleSetProperties properties, List<Map<String,Object>> records, int from, int to, RuleResults[] results) throws Exception {
+
+        if (properties.getKieSessionType() == KieSessionType.STATELESS) {
+
+            RuleEngineAgendaListener ruleAgendaListener = SessionListeners.newAgendaListener(properties, kieBaseHandle.getRuleIndex(), getRuleProfiler(properties));
+            StatelessKieSession kieSession = kieBaseHandle.newStatelessKieSession(properties.getKieSessionName());
+            SessionListeners.attach(kieSession, properties, ruleAgendaListener);
+
+            for (int i = from; i < to; i++) {
+
+                ExecutionTimer timer = ExecutionTimer.start();
+                ResultCacheKey cacheKey = resultCacheKey(kieBaseHandle, properties, records.get(i));
+                results[i] = getCachedResults(properties, cacheKey, records.get(i), timer);
+                if (results[i] != null) {
+                    continue;
+                }
+
+                ExecutionDeadline deadline = newDeadline(properties);
+                try {
+
+                    ExecutionResults executionResults = executeStateless(kieBaseHandle, kieSession, properties, records.get(i), deadline, timer);
+                    results[i] = createResults(properties, timer, ruleAgendaListener, kieBaseHandle.getRuleIndex(), executionResults, deadline, records.get(i));
+                } finally {
+                    closeDeadline(deadline);
+                }
+
+                cacheResults(kieBaseHandle, cacheKey, results[i], records.get(i));
             }
 
-            if (properties.isProcessListenerEnabled()) {
+        } else if (properties.getKieSessionType() == KieSessionType.STATEFUL) {
+
+            PooledKieSession pooledSession = sessionPool.borrow();
+            boolean reusable = false;
+
+            try {
+
+                for (int i = from; i < to; i++) {
+
+                    ExecutionTimer timer = ExecutionTimer.start();
+                    ExecutionDeadline deadline = newDeadline(properties);
+                    try {
 
-                logger.debug("Attaching process listener...");
-                kieSession.addEventListener(new ProcessEventListener());
+                        ExecutionResults executionResults = executeStateful(kieBaseHandle, pooledSession.getKieSession(), properties, records.get(i), deadline, timer);
+                        results[i] = createResults(properties, timer, pooledSession.getRuleAgendaListener(), kieBaseHandle.getRuleIndex(), executionResults, deadline, records.get(i));
+                    } finally {
+                        closeDeadline(deadline);
+                    }
+
+                    // A truncated execution leaves activations behind that a reset cannot clear, the session is replaced,
+                    // as are sessions that would lose what the kmodule declares for them
+                    if (results[i].isTruncated() || !sessionPool.isResettable()) {
+
+                        sessionPool.release(pooledSession, false);
+                        pooledSession = null;
+                        pooledSession = sessionPool.borrow();
+                    } else {
+                        pooledSession.reset();
+                    }
+                }
+
+                reusable = true;
+            } finally {
+
+                if (pooledSession != null) {
+                    sessionPool.release(pooledSession, reusable);
+                }
             }
 
+        } else {
+            throw new Exception("Unsupported KIE Session type: " + properties.getKieSessionType());
+        }
+    }
+
+    private RuleResults executeSession(final KieBaseHandle kieBaseHandle, final RuleSetProperties properties, Map<String,Object> facts, ExecutionTimer timer) throws Exception {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Creating KIE session: name=" + properties.getKieSessionName() + ", type=" + properties.getKieSessionType() + "...");
+        }
+
+        RuleResults results;
+        ExecutionDeadline deadline = newDeadline(properties);
+
+        try {
+            results = executeSession(kieBaseHandle, properties, facts, deadline, timer);
+        } finally {
+            closeDeadline(deadline);
+        }
+
+        return results;
+    }
+
+    private RuleResults executeSession(final KieBaseHandle kieBaseHandle, final RuleSetProperties properties, Map<String,Object> facts, ExecutionDeadline deadline, ExecutionTimer timer) throws Exception {
+
+        RuleResults results;
+
+        // An execution still on a replaced release creates its own session rather than take over the ruleset pool
+        KieSessionPool sessionPool = null;
+        if (properties.getKieSessionType() == KieSessionType.STATEFUL && properties.getSessionPoolMaxSize() > 0) {
+            sessionPool = getSessionPool(properties, kieBaseHandle);
+        }
+
+        // Stateless sessions are the default
+        if (properties.getKieSessionType() == KieSessionType.STATELESS) {
+
+            RuleEngineAgendaListener ruleAgendaListener = SessionListeners.newAgendaListener(properties, kieBaseHandle.getRuleIndex(), getRuleProfiler(properties));
+            StatelessKieSession kieSession = kieBaseHandle.newStatelessKieSession(properties.getKieSessionName());
+
+            // Add event listeners
+            SessionListeners.attach(kieSession, properties, ruleAgendaListener);
+            timer.mark(ExecutionPhase.SESSION_CREATION);
+
             // Execute the rules
             logger.debug("Executing ruleset...");
-            kieSession.execute(CommandFactory.newBatchExecution(commands));
+            ExecutionResults executionResults = executeStateless(kieBaseHandle, kieSession, properties, facts, deadline, timer);
+            results = createResults(properties, timer, ruleAgendaListener, kieBaseHandle.getRuleIndex(), executionResults, deadline, facts);
+
+        } else if (sessionPool != null) {
+
+            // Borrow a pooled session, its listeners are already attached
+            PooledKieSession pooledSession = sessionPool.borrow();
+            timer.mark(ExecutionPhase.SESSION_CREATION);
+            boolean reusable = false;
+
+            try {
 
-            // Cleanup the kieSession
-            kieSession.dispose();
+                // Execute the rules, the results are captured before the session is reset
+                logger.debug("Executing ruleset...");
+                ExecutionResults executionResults = executeStateful(kieBaseHandle, pooledSession.getKieSession(), properties, facts, deadline, timer);
+                results = createResults(properties, timer, pooledSession.getRuleAgendaListener(), kieBaseHandle.getRuleIndex(), executionResults, deadline, facts);
+
+                // A truncated execution leaves activations behind that a reset cannot clear
+                reusable = !results.isTruncated();
+            } finally {
+
+                // Reset and return the kieSession, or discard it if the execution failed
+                sessionPool.release(pooledSession, reusable);
+            }
+
+        } else if (properties.getKieSessionType() == KieSessionType.STATEFUL) {
+
+            RuleEngineAgendaListener ruleAgendaListener = SessionListeners.newAgendaListener(properties, kieBaseHandle.getRuleIndex(), getRuleProfiler(properties));
+            KieSession kieSession = kieBaseHandle.newKieSession(properties.getKieSessionName());
+
+            // Add event listeners
+            SessionListeners.attach(kieSession, properties, ruleAgendaListener);
+            timer.mark(ExecutionPhase.SESSION_CREATION);
+
+            try {
+
+                // Execute the rules
+                logger.debug("Executing ruleset...");
+                ExecutionResults executionResults = executeStateful(kieBaseHandle, kieSession, properties, facts, deadline, timer);
+                results = createResults(properties, timer, ruleAgendaListener, kieBaseHandle.getRuleIndex(), executionResults, deadline, facts);
+            } finally {
+
+                // Cleanup the kieSession
+                kieSession.dispose();
+            }
         } else {
             throw new Exception("Unsupported KIE Session type: " + properties.getKieSessionType());
         }
 
-        // Mark completion time        
-        LocalDateTime completedOn = LocalDateTime.now();
+        return results;
+    }
 
-        // Report
-        ExecutionDuration duration = calculateExecutionDuration(startedOn, completedOn);
-        logger.debug("Rule Execution started: " + startedOn + ", ended: " + completedOn + ", duration: " + duration + "...");
+    private ExecutionResults executeStateless(final KieBaseHandle kieBaseHandle, final StatelessKieSession kieSession, final RuleSetProperties properties, Map<String,Object> facts, ExecutionDeadline deadline, ExecutionTimer timer) throws Exception {
+
+        // A stateless session inserts and fires in a single call, only preparing the inserts is timed apart
+        List<Command> commands = new ArrayList<Command>();
+        addInsertCommands(properties, facts, commands);
+        timer.mark(ExecutionPhase.FACT_INSERTION);
+
+        addFireCommands(properties, deadline, commands);
+        addOutputCommands(kieBaseHandle, properties, commands);
+        ExecutionResults executionResults = kieSession.execute(CommandFactory.newBatchExecution(commands));
+        timer.mark(ExecutionPhase.EXECUTION);
+
+        return executionResults;
+    }
+
+    private ExecutionResults executeStateful(final KieBaseHandle kieBaseHandle, final KieSession kieSession, final RuleSetProperties properties, Map<String,Object> facts, ExecutionDeadline deadline, ExecutionTimer timer) throws Exception {
+
+        // Inserting does not fire any rule, so the facts are inserted ahead of the ruleflow and fireAllRules
+        List<Command> commands = new ArrayList<Command>();
+        addInsertCommands(properties, facts, commands);
+        kieSession.execute(CommandFactory.newBatchExecution(commands));
+        timer.mark(ExecutionPhase.FACT_INSERTION);
+
+        return fireStateful(kieBaseHandle, kieSession, properties, deadline, timer);
+    }
+
+    private ExecutionResults fireStateful(final KieBaseHandle kieBaseHandle, final KieSession kieSession, final RuleSetProperties properties, ExecutionDeadline deadline, ExecutionTimer timer) throws Exception {
+
+        // The outputs are collected in the same batch, once the rules have fired
+        List<Command> commands = new ArrayList<Command>();
+        addFireCommands(properties, deadline, commands);
+        addOutputCommands(kieBaseHandle, properties, commands);
+        ExecutionResults executionResults = kieSession.execute(CommandFactory.newBatchExecution(commands));
+        timer.mark(ExecutionPhase.EXECUTION);
+
+        return executionResults;
+    }
+
+    private int firedCount(final RuleSetProperties properties, ExecutionResults executionResults) {
+
+        // Only requested from fireAllRules in the count capture mode, or when the firings are limited
+        if ((properties.getRuleCaptureMode() != RuleCaptureMode.COUNT && properties.getMaxRuleFirings() <= 0) || executionResults == null) {
+            return 0;
+        }
+
+        Object firedCount = executionResults.getValue(FIRED_RULE_COUNT);
+        return (firedCount instanceof Number) ? ((Number) firedCount).intValue() : 0;
+    }
+
+    private RuleResults createResults(final RuleSetProperties properties, ExecutionTimer timer, RuleEngineAgendaListener ruleAgendaListener, RuleIndex ruleIndex, ExecutionResults executionResults, ExecutionDeadline deadline, Map<String,Object> facts) {
 
         // Prepare the execution results
         RuleResults results = new RuleResults();
-        results.setStartedOn(formatLocalDateTime(startedOn));
-        results.setCompletedOn(formatLocalDateTime(completedOn));
-        results.setExecutionDuration(duration);
 
-        // Add the list of rules that fired as well as the count
-        if (ruleAgendaListener != null) {
+        // Add the rules that fired, in the configured capture mode, as well as the count
+        RuleCaptureMode captureMode = (ruleAgendaListener != null) ? ruleAgendaListener.getCaptureMode() : properties.getRuleCaptureMode();
+        if (captureMode == RuleCaptureMode.NAMES && ruleAgendaListener != null) {
+
+            List<String> rulesFired = ruleAgendaListener.takeRulesFired();
+            results.setFiredRuleCount(rulesFired.size());
+            results.setRulesFired(rulesFired);
+        } else if (captureMode == RuleCaptureMode.INDICES && ruleAgendaListener != null) {
+
+            int[] firedRuleIndices = ruleAgendaListener.takeFiredRuleIndices();
+            results.setFiredRuleCount(firedRuleIndices.length);
+            results.setFiredRuleIndices(firedRuleIndices, ruleIndex);
+        } else {
+            results.setFiredRuleCount(firedCount(properties, executionResults));
+        }
+
+        // Add the declared outputs, or else the updated facts
+        if (hasOutputs(properties)) {
+            addOutputs(properties, executionResults, facts, results);
+        } else {
+            results.getFacts().add(facts);
+        }
+
+        // Flag an execution cut short by one of its limits, reaching the firing limit only counts when matches were left
+        if (deadline != null && deadline.isExpired()) {
+            results.setTruncatedBy(ExecutionLimit.DEADLINE);
+        } else if (properties.getMaxRuleFirings() > 0 && firedCount(properties, executionResults) >= properties.getMaxRuleFirings() && Boolean.TRUE.equals(executionResults.getValue(PENDING_MATCHES))) {
+            results.setTruncatedBy(ExecutionLimit.MAX_RULE_FIRINGS);
+        }
+
+        if (results.isTruncated()) {
+
+            executionMetrics.recordTruncated(executionKey(properties), results.getTruncatedBy());
+            logger.warn("Rule execution truncated: name=" + executionKey(properties) + ", limit=" + results.getTruncatedBy() + ", executionTimeout=" + properties.getExecutionTimeout() + "ms, maxRuleFirings=" + properties.getMaxRuleFirings());
+        }
+
+        return completeResults(properties, timer, results);
+    }
+
+    private RuleResults completeResults(final RuleSetProperties properties, ExecutionTimer timer, RuleResults results) {
+
+        // Mark completion time, the timestamps are only formatted when read
+        timer.mark(ExecutionPhase.RESULT_MAPPING);
+        timer.stop();
+        results.setStartedOnMillis(timer.getStartedOnMillis());
+        results.setCompletedOnMillis(timer.getCompletedOnMillis());
+        results.setExecutionDuration(timer.toExecutionDuration());
+        executionMetrics.record(executionKey(properties), timer);
 
-            results.setFiredRuleCount(ruleAgendaListener.getRulesFired().size());
-            results.setRulesFired(ruleAgendaListener.getRulesFired());
+        // Report
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rule execution completed: name=" + properties.getName() + ", duration: " + results.getExecutionDuration() + "...");
         }
 
         return results;
     }
 
-    private KieContainer createKieContainer(final KieServices kieServices, final KieContainerType kieContainerType, final String releaseId) throws Exception {
+    private KieBaseHandle acquireKieBase(final RuleSetProperties properties) throws Exception {
 
-        KieContainer kieContainer = null;
+        // A release retired between the lookup and the acquisition is looked up again
+        while (true) {
 
-        if (kieContainerType == KieContainerType.CLASSPATH) {
+            String releaseId = releaseManager.route(properties.getName(), properties.getKieContainerType(), properties.getReleaseId(), properties.getKieBaseName());
+            KieBaseHandle kieBaseHandle = registry.getKieBase(properties.getKieContainerType(), releaseId, properties.getKieBaseName());
+            if (kieBaseHandle.tryAcquire()) {
+                return kieBaseHandle;
+            }
+
+            Thread.onSpinWait();
+        }
+    }
 
-            logger.debug("Creating classpath container...");
-            kieContainer = kieServices.getKieClasspathContainer();        
-        } else if (kieContainerType == KieContainerType.RELEASE_ID) {
+    private KieReleaseManager.WarmUp warmUp(final RuleSetProperties properties, String releaseId, List<Map<String,Object>> warmUpFacts) {
 
-            logger.debug("Creating releaseId container...");
-            kieContainer = kieServices.newKieContainer(new ReleaseIdImpl(releaseId));
+        if (warmUpFacts == null || warmUpFacts.isEmpty()) {
+            return null;
+        }
+
+        // Sample facts run directly against the new release, outside of the pools, caches and metrics of the ruleset
+        RuleSetProperties warmUpProperties = new RuleSetProperties(properties);
+        warmUpProperties.setName(null);
+        warmUpProperties.setReleaseId(releaseId);
+        warmUpProperties.setSessionPoolMaxSize(0);
+        warmUpProperties.setResultCacheEnabled(false);
+        warmUpProperties.setRuleProfilingEnabled(false);
+
+        return kieBaseHandle -> {
+
+            for (Map<String,Object> facts : warmUpFacts) {
+                executeSession(kieBaseHandle, warmUpProperties, facts, ExecutionTimer.start());
+            }
+        };
+    }
+
+    private ResultCacheKey resultCacheKey(final KieBaseHandle kieBaseHandle, final RuleSetProperties properties, Map<String,Object> facts) {
+
+        // Only stateless rulesets without a ruleflow are known to depend on the inserted facts alone, outputs are not kept
+        if (!properties.isResultCacheEnabled() || properties.getKieSessionType() != KieSessionType.STATELESS || hasRuleFlow(properties) || hasOutputs(properties)) {
+            return null;
+        }
+
+        // Facts that cannot be captured field by field are never cached
+        FactState factState = FactState.capture(facts);
+        if (factState == null) {
+            return null;
+        }
+
+        return ResultCacheKey.of(kieBaseHandle, Arrays.asList(properties.getKieSessionName(), properties.getRuleCaptureMode()), factState);
+    }
+
+    private RuleResults getCachedResults(final RuleSetProperties properties, ResultCacheKey cacheKey, Map<String,Object> facts, ExecutionTimer timer) {
+
+        if (cacheKey == null) {
+            return null;
+        }
+
+        // Bring the caller's facts into the state the cached execution left them in, facts that cannot be are executed
+        CachedRuleResults cachedResults = resultCache.get(cacheKey, cached -> cached.getFactState().restore(facts));
+        if (cachedResults == null) {
+            return null;
+        }
+
+        RuleResults results = new RuleResults();
+        results.setCached(true);
+        results.setFiredRuleCount(cachedResults.getFiredRuleCount());
+
+        if (cachedResults.getFiredRuleIndices() != null) {
+            results.setFiredRuleIndices(cachedResults.getFiredRuleIndices(), cachedResults.getRuleNameResolver());
+        } else if (cachedResults.getRulesFired() != null) {
+            results.setRulesFired(new ArrayList<String>(cachedResults.getRulesFired()));
+        }
+
+        results.getFacts().add(facts);
+        timer.mark(ExecutionPhase.EXECUTION);
+
+        return completeResults(properties, timer, results);
+    }
+
+    private void cacheResults(final KieBaseHandle kieBaseHandle, ResultCacheKey cacheKey, RuleResults results, Map<String,Object> facts) {
+
+        // A truncated execution depends on timing, or is flagged as such, neither is kept
+        if (cacheKey == null || results.isTruncated()) {
+            return;
+        }
+
+        FactState factState = FactState.capture(facts);
+        if (factState == null) {
+            return;
+        }
+
+        // Rule names are only kept when they were captured as names
+        int[] firedRuleIndices = results.getFiredRuleIndices();
+        List<String> rulesFired = (firedRuleIndices == null) ? results.getRulesFired() : null;
+        resultCache.put(cacheKey, new CachedRuleResults(factState, results.getFiredRuleCount(), rulesFired, firedRuleIndices, kieBaseHandle.getRuleIndex()));
+    }
+
+    private boolean hasRuleFlow(final RuleSetProperties properties) {
+        return properties.getRuleFlowName() != null && !properties.getRuleFlowName().equalsIgnoreCase("none");
+    }
+
+    private boolean hasOutputs(final RuleSetProperties properties) {
+        return properties.getOutputQueries() != null || properties.getOutputClasses() != null || properties.getOutputIdentifiers() != null;
+    }
+
+    private void addInsertCommands(final RuleSetProperties properties, Map<String,Object> facts, List<Command> commands) {
+
+        // Prepare the facts for the engine
+        logger.debug("Inserting facts into rule engine instance...");
+
+        // Declared outputs are read from the facts after execution, so the facts are not echoed back in the execution results
+        boolean outIdentifiers = !hasOutputs(properties);
+        for (Map.Entry<String, Object> fact : facts.entrySet()) {
+
+            if (logger.isDebugEnabled()) {
+                logger.debug(fact.getKey() + " -> " + fact.getValue());
+            }
+
+            commands.add(outIdentifiers ? CommandFactory.newInsert(fact.getValue(), fact.getKey()) : CommandFactory.newInsert(fact.getValue()));
+        }
+    }
+
+    private void addOutputCommands(final KieBaseHandle kieBaseHandle, final RuleSetProperties properties, List<Command> commands) throws Exception {
+
+        // Queries return their rows, by the identifiers they declare
+        if (properties.getOutputQueries() != null) {
+
+            for (String queryName : properties.getOutputQueries()) {
+                commands.add(CommandFactory.newQuery(OUTPUT_QUERY + queryName, queryName));
+            }
+        }
+
+        // Only the facts of the output classes are collected from the working memory
+        if (properties.getOutputClasses() != null) {
+
+            Class<?>[] outputClasses = kieBaseHandle.resolveClasses(properties.getOutputClasses());
+            ObjectFilter outputFilter = object -> {
+
+                for (Class<?> outputClass : outputClasses) {
+
+                    if (outputClass.isInstance(object)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            };
+
+            commands.add(CommandFactory.newGetObjects(outputFilter, OUTPUT_OBJECTS));
+        }
+    }
+
+    private void addOutputs(final RuleSetProperties properties, ExecutionResults executionResults, Map<String,Object> facts, RuleResults results) {
+
+        if (properties.getOutputClasses() != null && executionResults != null) {
+
+            Object objects = executionResults.getValue(OUTPUT_OBJECTS);
+            if (objects instanceof Collection) {
+                results.getFacts().addAll((Collection<?>) objects);
+            }
+        }
+
+        if (properties.getOutputQueries() != null && executionResults != null) {
+
+            for (String queryName : properties.getOutputQueries()) {
+
+                Object queryResults = executionResults.getValue(OUTPUT_QUERY + queryName);
+                if (queryResults instanceof QueryResults) {
+
+                    String[] identifiers = ((QueryResults) queryResults).getIdentifiers();
+                    List<Map<String,Object>> rows = new ArrayList<Map<String,Object>>(((QueryResults) queryResults).size());
+                    for (QueryResultsRow row : (QueryResults) queryResults) {
+
+                        Map<String,Object> values = new HashMap<String,Object>(identifiers.length * 2);
+                        for (String identifier : identifiers) {
+                            values.put(identifier, row.get(identifier));
+                        }
+
+                        rows.add(values);
+                    }
+
+                    results.getOutputs().put(queryName, rows);
+                }
+            }
+        }
+
+        // Named input facts, as the rules left them
+        if (properties.getOutputIdentifiers() != null) {
+
+            for (String identifier : properties.getOutputIdentifiers()) {
+                results.getOutputs().put(identifier, facts.get(identifier));
+            }
+        }
+    }
+
+    private void addFireCommands(final RuleSetProperties properties, ExecutionDeadline deadline, List<Command> commands) {
+
+        // The deadline covers the ruleflow and the rules only
+        if (deadline != null) {
+            commands.add(deadline.bindCommand());
+        }
+
+        // Add a stateless workflow, if it exists
+        if (hasRuleFlow(properties)) {
+            commands.add(CommandFactory.newStartProcess(properties.getRuleFlowName()));
+        }
+
+        // Add other batch commands, asking for the number of rules fired when only the count is captured or when it is limited
+        if (properties.getMaxRuleFirings() > 0) {
+            commands.add(new FireAllRulesCommand(FIRED_RULE_COUNT, properties.getMaxRuleFirings(), null));
+            commands.add(new PendingMatchesCommand(PENDING_MATCHES));
+        } else if (properties.getRuleCaptureMode() == RuleCaptureMode.COUNT) {
+            commands.add(CommandFactory.newFireAllRules(FIRED_RULE_COUNT));
         } else {
-           throw new Exception("Unsupported KIE container type: " + kieContainerType);
+            commands.add(CommandFactory.newFireAllRules());
+        }
+
+        if (deadline != null) {
+            commands.add(deadline.closeCommand());
         }
+    }
 
-        return kieContainer;
+    private ExecutionDeadline newDeadline(final RuleSetProperties properties) {
+        return (properties.getExecutionTimeout() > 0) ? new ExecutionDeadline(properties.getExecutionTimeout()) : null;
     }
 
-    private ExecutionDuration calculateExecutionDuration(LocalDateTime begin, LocalDateTime end) {
+    private void closeDeadline(final ExecutionDeadline deadline) {
 
-        ExecutionDuration ed = new ExecutionDuration();
-        ed.setDays(ChronoUnit.DAYS.between(begin, end));
-        ed.setHours(ChronoUnit.HOURS.between(begin, end));
-        ed.setMinutes(ChronoUnit.MINUTES.between(begin, end));
-        ed.setSeconds(ChronoUnit.SECONDS.between(begin, end));
-        ed.setMilliseconds(ChronoUnit.MILLIS.between(begin, end));
-        return ed;
-   }
+        // Disarmed by the batch itself, unless it failed before getting there
+        if (deadline != null) {
+            deadline.close();
+        }
+    }
 
-   private String formatLocalDateTime(LocalDateTime ldt) {
+    private <T> T admit(final RuleSetProperties properties, Callable<T> execution) throws Exception {
 
-       DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
-       return ldt.format(formatter);
-   }
-}
+        if (properties.getBulkheadMaxConcurrent() <= 0) {
+            return execution.call();
+        }
+
+        // Admitted against the limits of this ruleset only
+        return bulkheads.execute(executionKey(properties), properties.getBulkheadMaxConcurrent(), properties.getBulkheadMaxQueued(), properties.getBulkheadMaxWait(), properties.isBulkheadAdaptive(), execution);
+    }
+
+    private KieSessionPool getSessionPool(final RuleSetProperties properties, final KieBaseHandle kieBaseHandle) {
+
+        // Reuse the pool as long as it was built against the current kieBase
+        String poolKey = executionKey(properties);
+        KieSessionPool sessionPool = sessionPools.get(poolKey);
+        if (sessionPool != null && sessionPool.getKieBaseHandle() == kieBaseHandle) {
+            return sessionPool;
+        }
+
+        synchronized (sessionPools) {
+
+            sessionPool = sessionPools.get(poolKey);
+            if (sessionPool == null || sessionPool.getKieBaseHandle() != kieBaseHandle) {
+
+                // Only the kieBase the ruleset routes to replaces the pool, executions draining on a replaced one get none
+                String releaseId = releaseManager.getReleaseId(properties.getName(), properties.getReleaseId());
+                if (sessionPool != null && registry.getLoadedKieBase(properties.getKieContainerType(), releaseId, properties.getKieBaseName()) != kieBaseHandle) {
+                    return null;
+                }
+
+                if (sessionPool != null) {
+                    sessionPool.close();
+                }
+
+                sessionPool = new KieSessionPool(properties, kieBaseHandle, getRuleProfiler(properties));
+                sessionPools.put(poolKey, sessionPool);
+            }
+        }
+
+        return sessionPool;
+    }
+
+    private RuleSetProfiler getRuleProfiler(final RuleSetProperties properties) {
+
+        if (!properties.isRuleProfilingEnabled()) {
+            return null;
+        }
+
+        String profilerKey = executionKey(properties);
+        RuleSetProfiler profiler = ruleProfilers.get(profilerKey);
+        if (profiler == null) {
+            profiler = ruleProfilers.computeIfAbsent(profilerKey, RuleSetProfiler::new);
+        }
+
+        return profiler;
+    }
+
+    private String executionKey(final RuleSetProperties properties) {
+        return (properties.getName() != null) ? properties.getName() : properties.getKieBaseName() + "/" + properties.getKieSessionName();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.ibm.bamoe.engine.adaptors.binding;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the accessors used by the bindings, once per property. Accessors are spun as lambdas through the
+ * LambdaMetafactory, so that the JIT can inline them like hand-written code; when the bound type does not grant
+ * the access needed for that, they fall back to plain method handles.
+ */
+final class BindingAccessors {
+
+    private static final Logger logger = LoggerFactory.getLogger(BindingAccessors.class);
+
+    private BindingAccessors() {
+    }
+
+    static MethodHandles.Lookup lookup(final Class<?> type) {
+
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+
+            logger.debug("No private access to bound type, using public access: type=" + type.getName() + ", " + e);
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> getter(final MethodHandles.Lookup lookup, Method method) throws Exception {
+
+        MethodHandle handle = lookup.unreflect(method);
+        try {
+
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class), handle, MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) callSite.getTarget().invoke();
+        } catch (Throwable e) {
+
+            logger.debug("Unable to generate getter, using a method handle: method=" + method + ", " + e);
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return target -> {
+
+                try {
+                    return generic.invokeExact(target);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> setter(final MethodHandles.Lookup lookup, Method method) throws Exception {
+
+        MethodHandle handle = lookup.unreflect(method);
+        try {
+
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class), handle, MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+        } catch (Throwable e) {
+
+            logger.debug("Unable to generate setter, using a method handle: method=" + method + ", " + e);
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+
+                try {
+                    generic.invokeExact(target, value);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> constructor(final MethodHandles.Lookup lookup, Constructor<?> constructor) throws Exception {
+
+        MethodHandle handle = lookup.unreflectConstructor(constructor);
+        try {
+
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), handle, MethodType.methodType(constructor.getDeclaringClass()));
+            return (Supplier<Object>) callSite.getTarget().invoke();
+        } catch (Throwable e) {
+
+            logger.debug("Unable to generate constructor, using a method handle: constructor=" + constructor + ", " + e);
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+            return () -> {
+
+                try {
+                    return generic.invokeExact();
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    static MethodHandle canonicalConstructor(final MethodHandles.Lookup lookup, Class<?> recordType) throws Exception {
+
+        RecordComponent[] components = recordType.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+        }
+
+        // Spread over an argument array, so that any record is built with a single invokeExact
+        MethodHandle handle = lookup.unreflectConstructor(recordType.getDeclaredConstructor(parameterTypes));
+        return handle.asType(MethodType.genericMethodType(components.length)).asSpreader(Object[].class, components.length);
+    }
+
+    static String decisionName(final RecordComponent component) {
+
+        DecisionName decisionName = component.getAnnotation(DecisionName.class);
+        return (decisionName != null) ? decisionName.value() : component.getName();
+    }
+
+    static String decisionName(final Method method, String propertyName) {
+
+        // Declared on the accessor, or on the field backing the property
+        DecisionName decisionName = method.getAnnotation(DecisionName.class);
+        for (Class<?> type = method.getDeclaringClass(); decisionName == null && type != null && type != Object.class; type = type.getSuperclass()) {
+
+            try {
+
+                Field field = type.getDeclaredField(propertyName);
+                decisionName = field.getAnnotation(DecisionName.class);
+                break;
+            } catch (NoSuchFieldException e) {
+                // Not declared at this level of the hierarchy
+            }
+        }
+
+        return (decisionName != null) ? decisionName.value() : propertyName;
+    }
+
+    static String propertyName(final Method method) {
+
+        String methodName = method.getName();
+        int prefix = methodName.startsWith("is") ? 2 : 3;
+        String name = methodName.substring(prefix);
+
+        // Same rule as java.beans: an acronym such as URL keeps its case
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static boolean isGetter(final Method method) {
+
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getDeclaringClass() == Object.class || method.isBridge()) {
+            return false;
+        }
+
+        String methodName = method.getName();
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            return method.getReturnType() != void.class;
+        }
+
+        return methodName.startsWith("is") && methodName.length() > 2 && method.getReturnType() == boolean.class;
+    }
+
+    static boolean isSetter(final Method method) {
+
+        String methodName = method.getName();
+        return !Modifier.isStatic(method.getModifiers()) && !method.isBridge() && method.getParameterCount() == 1 && methodName.startsWith("set") && methodName.length() > 3;
+    }
+
+    static Class<?> wrap(final Class<?> type) {
+
+        if (!type.isPrimitive()) {
+            return type;
+        }
+
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    static RuntimeException rethrow(final Throwable t) {
+
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+
+        return new IllegalStateException("Bound accessor failed: " + t, t);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ibm.bamoe.engine.adaptors.binding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the DMN input data or decision a property is bound to, when it differs from the property name.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.FIELD, ElementType.RECORD_COMPONENT })
+public @interface DecisionName {
+    String value();
+}
@@ -0,0 +1,136 @@
+package com.ibm.bamoe.engine.adaptors.binding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.dmn.api.core.DMNContext;
+
+/**
+ * Binds the properties of a POJO or record to the input data of a DMN context. The accessors are generated once per
+ * type, each property is then read and set straight into the context, without reflection or an intermediate map.
+ * Record components, and bean getters, are bound by name, or by the name given with {@link DecisionName}.
+ */
+public final class FactBinding<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(FactBinding.class);
+
+    private static final ClassValue<FactBinding<?>> bindings = new ClassValue<FactBinding<?>>() {
+
+        @Override
+        protected FactBinding<?> computeValue(Class<?> type) {
+
+            try {
+                return new FactBinding<>(type);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Unable to bind fact type: type=" + type.getName() + ", " + e, e);
+            }
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] names;
+    private final Function<Object, Object>[] accessors;
+
+    @SuppressWarnings("unchecked")
+    private FactBinding(final Class<T> type) throws Exception {
+
+        this.type = type;
+        logger.debug("Generating fact binding: type=" + type.getName() + "...");
+
+        // Sorted by name, so that the context is always filled in the same order
+        Map<String, Method> getters = new TreeMap<String, Method>();
+        if (type.isRecord()) {
+
+            for (RecordComponent component : type.getRecordComponents()) {
+                putUnique(getters, BindingAccessors.decisionName(component), component.getAccessor());
+            }
+        } else {
+
+            for (Method method : type.getMethods()) {
+
+                if (BindingAccessors.isGetter(method)) {
+                    putUnique(getters, BindingAccessors.decisionName(method, BindingAccessors.propertyName(method)), method);
+                }
+            }
+        }
+
+        if (getters.isEmpty()) {
+            throw new Exception("No bindable properties found: type=" + type.getName());
+        }
+
+        MethodHandles.Lookup lookup = BindingAccessors.lookup(type);
+        this.names = new String[getters.size()];
+        this.accessors = (Function<Object, Object>[]) new Function<?, ?>[getters.size()];
+
+        int i = 0;
+        for (Map.Entry<String, Method> getter : getters.entrySet()) {
+
+            names[i] = getter.getKey();
+            accessors[i] = BindingAccessors.getter(lookup, getter.getValue());
+            i++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FactBinding<T> of(final Class<T> type) {
+
+        // Generated on first use and kept for as long as the type is loaded
+        return (FactBinding<T>) bindings.get(type);
+    }
+
+    public void bind(final DMNContext context, T facts) {
+
+        for (int i = 0; i < names.length; i++) {
+            context.set(names[i], accessors[i].apply(facts));
+        }
+    }
+
+    public Object get(final T facts, String name) {
+
+        int i = Arrays.binarySearch(names, name);
+        return (i >= 0) ? accessors[i].apply(facts) : null;
+    }
+
+    public Map<String,Object> toMap(final T facts) {
+
+        Map<String,Object> values = new HashMap<String,Object>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            values.put(names[i], accessors[i].apply(facts));
+        }
+
+        return values;
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(names)));
+    }
+
+    private static void putUnique(final Map<String, Method> getters, String name, Method method) throws Exception {
+
+        Method existing = getters.putIfAbsent(name, method);
+        if (existing != null && !existing.equals(method)) {
+            throw new Exception("Properties bound to the same name: name=" + name + ", " + existing.getName() + ", " + method.getName());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[FactBinding: type=" + type.getName() + ", names=" + Arrays.toString(names) + "]";
+    }
+}
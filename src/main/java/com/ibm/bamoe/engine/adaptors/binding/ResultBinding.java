@@ -0,0 +1,320 @@
+package com.ibm.bamoe.engine.adaptors.binding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.dmn.api.core.DMNDecisionResult;
+import org.kie.dmn.api.core.DMNResult;
+
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelResults;
+import com.ibm.bamoe.engine.adaptors.model.DecisionResult;
+
+/**
+ * Binds decision results back to a POJO or record. Records are built through their canonical constructor, other types
+ * through their no-arg constructor and setters, all generated once per type. DMN numbers are converted to the numeric
+ * type of the property, and structured results to the nested type, or to the element type of a list or set.
+ */
+public final class ResultBinding<R> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultBinding.class);
+
+    private static final ClassValue<ResultBinding<?>> bindings = new ClassValue<ResultBinding<?>>() {
+
+        @Override
+        protected ResultBinding<?> computeValue(Class<?> type) {
+
+            try {
+                return new ResultBinding<>(type);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Unable to bind result type: type=" + type.getName() + ", " + e, e);
+            }
+        }
+    };
+
+    private final Class<R> type;
+    private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+    private final Class<?>[] rawTypes;
+    private final Type[] genericTypes;
+    private final MethodHandle recordConstructor;
+    private final Supplier<Object> constructor;
+    private final BiConsumer<Object, Object>[] setters;
+
+    @SuppressWarnings("unchecked")
+    private ResultBinding(final Class<R> type) throws Exception {
+
+        this.type = type;
+        logger.debug("Generating result binding: type=" + type.getName() + "...");
+
+        MethodHandles.Lookup lookup = BindingAccessors.lookup(type);
+        if (type.isRecord()) {
+
+            RecordComponent[] components = type.getRecordComponents();
+            this.rawTypes = new Class<?>[components.length];
+            this.genericTypes = new Type[components.length];
+            for (int i = 0; i < components.length; i++) {
+
+                putUnique(BindingAccessors.decisionName(components[i]), i);
+                rawTypes[i] = components[i].getType();
+                genericTypes[i] = components[i].getGenericType();
+            }
+
+            this.recordConstructor = BindingAccessors.canonicalConstructor(lookup, type);
+            this.constructor = null;
+            this.setters = null;
+        } else {
+
+            List<Method> methods = new ArrayList<Method>();
+            for (Method method : type.getMethods()) {
+
+                if (BindingAccessors.isSetter(method)) {
+
+                    putUnique(BindingAccessors.decisionName(method, BindingAccessors.propertyName(method)), methods.size());
+                    methods.add(method);
+                }
+            }
+
+            if (methods.isEmpty()) {
+                throw new Exception("No bindable properties found: type=" + type.getName());
+            }
+
+            this.rawTypes = new Class<?>[methods.size()];
+            this.genericTypes = new Type[methods.size()];
+            this.setters = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[methods.size()];
+            for (int i = 0; i < methods.size(); i++) {
+
+                rawTypes[i] = methods.get(i).getParameterTypes()[0];
+                genericTypes[i] = methods.get(i).getGenericParameterTypes()[0];
+                setters[i] = BindingAccessors.setter(lookup, methods.get(i));
+            }
+
+            Constructor<R> noArgConstructor = type.getDeclaredConstructor();
+            this.constructor = BindingAccessors.constructor(lookup, noArgConstructor);
+            this.recordConstructor = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R> ResultBinding<R> of(final Class<R> type) {
+
+        // Generated on first use and kept for as long as the type is loaded
+        return (ResultBinding<R>) bindings.get(type);
+    }
+
+    public R bind(final DecisionModelResults results) {
+
+        Object[] values = new Object[rawTypes.length];
+        boolean[] bound = new boolean[rawTypes.length];
+        for (DecisionResult result : results.getResults()) {
+            collect(values, bound, result.getDecision(), result.getResult());
+        }
+
+        return build(values, bound);
+    }
+
+    public R bind(final DMNResult results) {
+
+        Object[] values = new Object[rawTypes.length];
+        boolean[] bound = new boolean[rawTypes.length];
+        for (DMNDecisionResult result : results.getDecisionResults()) {
+            collect(values, bound, result.getDecisionName(), result.getResult());
+        }
+
+        return build(values, bound);
+    }
+
+    public R bind(final Map<?, ?> structure) {
+
+        Object[] values = new Object[rawTypes.length];
+        boolean[] bound = new boolean[rawTypes.length];
+        for (Map.Entry<?, ?> entry : structure.entrySet()) {
+            collect(values, bound, String.valueOf(entry.getKey()), entry.getValue());
+        }
+
+        return build(values, bound);
+    }
+
+    public Class<R> getType() {
+        return this.type;
+    }
+
+    public Set<String> getNames() {
+        return new LinkedHashSet<String>(indexes.keySet());
+    }
+
+    private void collect(final Object[] values, boolean[] bound, String name, Object value) {
+
+        // Results without a matching property are left out
+        Integer i = indexes.get(name);
+        if (i != null) {
+
+            values[i] = convert(value, rawTypes[i], genericTypes[i]);
+            bound[i] = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private R build(final Object[] values, boolean[] bound) {
+
+        try {
+
+            if (recordConstructor != null) {
+
+                // Primitive components of missing or null results take their default value
+                for (int i = 0; i < values.length; i++) {
+
+                    if (values[i] == null && rawTypes[i].isPrimitive()) {
+                        values[i] = defaultValue(rawTypes[i]);
+                    }
+                }
+
+                Object record = recordConstructor.invokeExact(values);
+                return (R) record;
+            }
+
+            Object target = constructor.get();
+            for (int i = 0; i < values.length; i++) {
+
+                if (bound[i] && (values[i] != null || !rawTypes[i].isPrimitive())) {
+                    setters[i].accept(target, values[i]);
+                }
+            }
+
+            return (R) target;
+        } catch (Throwable t) {
+            throw BindingAccessors.rethrow(t);
+        }
+    }
+
+    private void putUnique(final String name, int i) throws Exception {
+
+        if (indexes.putIfAbsent(name, i) != null) {
+            throw new Exception("Properties bound to the same name: type=" + type.getName() + ", name=" + name);
+        }
+    }
+
+    static Object convert(final Object value, Class<?> rawType, Type genericType) {
+
+        if (value == null) {
+            return null;
+        }
+
+        Class<?> targetType = BindingAccessors.wrap(rawType);
+        if (value instanceof Collection && Collection.class.isAssignableFrom(targetType)) {
+            return convertElements((Collection<?>) value, targetType, genericType);
+        }
+
+        if (targetType.isInstance(value)) {
+            return value;
+        }
+
+        if (value instanceof Number) {
+
+            Object number = convertNumber((Number) value, targetType);
+            if (number != null) {
+                return number;
+            }
+        }
+
+        if (targetType == String.class) {
+            return String.valueOf(value);
+        }
+
+        if (targetType.isEnum() && value instanceof String) {
+            return enumValue(targetType, (String) value);
+        }
+
+        // Structured results come back from DMN as maps
+        if (value instanceof Map && !targetType.isInterface()) {
+            return of(targetType).bind((Map<?, ?>) value);
+        }
+
+        throw new IllegalArgumentException("Unable to convert decision result: value=" + value + ", valueType=" + value.getClass().getName() + ", targetType=" + targetType.getName());
+    }
+
+    private static Object convertElements(final Collection<?> values, Class<?> targetType, Type genericType) {
+
+        Class<?> elementType = Object.class;
+        if (genericType instanceof ParameterizedType && ((ParameterizedType) genericType).getActualTypeArguments()[0] instanceof Class) {
+            elementType = (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+        }
+
+        // Kept as is when every element already has the right type
+        boolean converted = false;
+        Collection<Object> elements = Set.class.isAssignableFrom(targetType) ? new LinkedHashSet<Object>() : new ArrayList<Object>(values.size());
+        for (Object value : values) {
+
+            Object element = convert(value, elementType, elementType);
+            converted |= (element != value);
+            elements.add(element);
+        }
+
+        if (!converted && targetType.isInstance(values)) {
+            return values;
+        }
+
+        return elements;
+    }
+
+    private static Object convertNumber(final Number value, Class<?> targetType) {
+
+        if (targetType == Integer.class) {
+            return value.intValue();
+        } else if (targetType == Long.class) {
+            return value.longValue();
+        } else if (targetType == Double.class) {
+            return value.doubleValue();
+        } else if (targetType == Float.class) {
+            return value.floatValue();
+        } else if (targetType == Short.class) {
+            return value.shortValue();
+        } else if (targetType == Byte.class) {
+            return value.byteValue();
+        } else if (targetType == BigDecimal.class) {
+            return (value instanceof BigInteger) ? new BigDecimal((BigInteger) value) : new BigDecimal(value.toString());
+        } else if (targetType == BigInteger.class) {
+            return (value instanceof BigDecimal) ? ((BigDecimal) value).toBigInteger() : BigInteger.valueOf(value.longValue());
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object enumValue(final Class<?> enumType, String value) {
+        return Enum.valueOf((Class<Enum>) enumType, value);
+    }
+
+    private static Object defaultValue(final Class<?> primitiveType) {
+
+        if (primitiveType == boolean.class) {
+            return false;
+        } else if (primitiveType == char.class) {
+            return '\0';
+        }
+
+        return convertNumber(0, BindingAccessors.wrap(primitiveType));
+    }
+
+    @Override
+    public String toString() {
+        return "[ResultBinding: type=" + type.getName() + ", names=" + indexes.keySet() + "]";
+    }
+}
@@ -0,0 +1,145 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts facts and results into immutable copies that can be shared through a result cache.
+ * Only values known to be immutable, and maps and collections of them, are accepted; anything else is not cacheable.
+ */
+public final class CacheableValues {
+
+    public static final Object NOT_CACHEABLE = new Object();
+
+    private CacheableValues() {
+    }
+
+    public static Object canonicalize(final Object value) {
+
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return value;
+        }
+
+        // Numbers compare by value, as DMN coerces them to BigDecimal anyway
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros();
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue()).stripTrailingZeros();
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value).stripTrailingZeros();
+        } else if (value instanceof Double || value instanceof Float) {
+
+            double number = ((Number) value).doubleValue();
+            return Double.isFinite(number) ? BigDecimal.valueOf(number).stripTrailingZeros() : value;
+        }
+
+        if (isTimeValue(value)) {
+            return value;
+        }
+
+        if (value instanceof Map) {
+
+            Map<Object, Object> canonical = new HashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+
+                Object canonicalValue = canonicalize(entry.getValue());
+                if (canonicalValue == NOT_CACHEABLE) {
+                    return NOT_CACHEABLE;
+                }
+
+                canonical.put(entry.getKey(), canonicalValue);
+            }
+
+            return Collections.unmodifiableMap(canonical);
+        }
+
+        if (value instanceof List || value instanceof Set) {
+
+            Collection<Object> canonical = (value instanceof List) ? new ArrayList<Object>() : new HashSet<Object>();
+            for (Object element : (Collection<?>) value) {
+
+                Object canonicalElement = canonicalize(element);
+                if (canonicalElement == NOT_CACHEABLE) {
+                    return NOT_CACHEABLE;
+                }
+
+                canonical.add(canonicalElement);
+            }
+
+            return (value instanceof List) ? Collections.unmodifiableList((List<Object>) canonical) : Collections.unmodifiableSet((Set<Object>) canonical);
+        }
+
+        return NOT_CACHEABLE;
+    }
+
+    public static Object freeze(final Object value) {
+
+        if (isImmutable(value)) {
+            return value;
+        }
+
+        // Results keep their types and ordering, only their containers are copied
+        if (value instanceof Map) {
+
+            Map<Object, Object> frozen = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+
+                Object frozenValue = freeze(entry.getValue());
+                if (frozenValue == NOT_CACHEABLE) {
+                    return NOT_CACHEABLE;
+                }
+
+                frozen.put(entry.getKey(), frozenValue);
+            }
+
+            return Collections.unmodifiableMap(frozen);
+        }
+
+        if (value instanceof List || value instanceof Set) {
+
+            Collection<Object> frozen = (value instanceof List) ? new ArrayList<Object>() : new LinkedHashSet<Object>();
+            for (Object element : (Collection<?>) value) {
+
+                Object frozenElement = freeze(element);
+                if (frozenElement == NOT_CACHEABLE) {
+                    return NOT_CACHEABLE;
+                }
+
+                frozen.add(frozenElement);
+            }
+
+            return (value instanceof List) ? Collections.unmodifiableList((List<Object>) frozen) : Collections.unmodifiableSet((Set<Object>) frozen);
+        }
+
+        return NOT_CACHEABLE;
+    }
+
+    public static boolean isImmutable(final Object value) {
+
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return true;
+        }
+
+        if (value instanceof BigDecimal || value instanceof BigInteger || value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte || value instanceof Double || value instanceof Float) {
+            return true;
+        }
+
+        return isTimeValue(value);
+    }
+
+    private static boolean isTimeValue(final Object value) {
+
+        // The java.time types are all immutable
+        return value.getClass().getPackageName().startsWith("java.time");
+    }
+}
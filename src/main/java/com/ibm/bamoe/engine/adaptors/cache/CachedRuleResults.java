@@ -0,0 +1,42 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import java.util.List;
+
+import com.ibm.bamoe.engine.adaptors.model.RuleNameResolver;
+
+public final class CachedRuleResults {
+
+    private final FactState factState;
+    private final int firedRuleCount;
+    private final List<String> rulesFired;
+    private final int[] firedRuleIndices;
+    private final RuleNameResolver ruleNameResolver;
+
+    public CachedRuleResults(FactState factState, int firedRuleCount, List<String> rulesFired, int[] firedRuleIndices, RuleNameResolver ruleNameResolver) {
+        this.factState = factState;
+        this.firedRuleCount = firedRuleCount;
+        this.rulesFired = (rulesFired != null) ? List.copyOf(rulesFired) : null;
+        this.firedRuleIndices = (firedRuleIndices != null) ? firedRuleIndices.clone() : null;
+        this.ruleNameResolver = ruleNameResolver;
+    }
+
+    public FactState getFactState() {
+        return this.factState;
+    }
+
+    public int getFiredRuleCount() {
+        return this.firedRuleCount;
+    }
+
+    public List<String> getRulesFired() {
+        return this.rulesFired;
+    }
+
+    public int[] getFiredRuleIndices() {
+        return (this.firedRuleIndices != null) ? this.firedRuleIndices.clone() : null;
+    }
+
+    public RuleNameResolver getRuleNameResolver() {
+        return this.ruleNameResolver;
+    }
+}
@@ -0,0 +1,360 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A structural snapshot of a fact map, walking plain Java objects field by field.
+ * Snapshots compare by value, so the state of the facts before an execution can key a result cache,
+ * and the state after it can be restored onto equal facts later on instead of executing again.
+ * Only changes made in place can be restored: values of fields and refillable containers of immutable values. A nested
+ * object the rules created, replaced, or set into a null field is not rebuilt, restore fails and the facts are left
+ * untouched, so rulesets that do this are executed every time even with the result cache enabled.
+ */
+public final class FactState {
+
+    private static final int MAX_DEPTH = 32;
+    private static final Map<Class<?>, Field[]> fieldCache = new ConcurrentHashMap<Class<?>, Field[]>();
+    private static final Field[] NOT_SUPPORTED = new Field[0];
+
+    private final Map<String, Object> facts;
+    private final int hash;
+
+    private FactState(Map<String, Object> facts) {
+        this.facts = facts;
+        this.hash = facts.hashCode();
+    }
+
+    public static FactState capture(final Map<String, Object> facts) {
+
+        Map<String, Object> captured = new HashMap<String, Object>();
+        IdentityHashMap<Object, Boolean> path = new IdentityHashMap<Object, Boolean>();
+
+        for (Map.Entry<String, Object> fact : facts.entrySet()) {
+
+            Object node = capture(fact.getValue(), path, 0);
+            if (node == CacheableValues.NOT_CACHEABLE) {
+                return null;
+            }
+
+            captured.put(fact.getKey(), node);
+        }
+
+        return new FactState(captured);
+    }
+
+    public boolean restore(final Map<String, Object> liveFacts) {
+
+        if (!liveFacts.keySet().equals(facts.keySet())) {
+            return false;
+        }
+
+        // Checked first so that the facts are either fully restored or left untouched
+        try {
+
+            for (Map.Entry<String, Object> fact : facts.entrySet()) {
+
+                if (!restoreValue(fact.getValue(), liveFacts.get(fact.getKey()), false)) {
+                    return false;
+                }
+            }
+
+            for (Map.Entry<String, Object> fact : facts.entrySet()) {
+                restoreValue(fact.getValue(), liveFacts.get(fact.getKey()), true);
+            }
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof FactState)) {
+            return false;
+        }
+
+        FactState other = (FactState) o;
+        return hash == other.hash && facts.equals(other.facts);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    private static Object capture(final Object value, IdentityHashMap<Object, Boolean> path, int depth) {
+
+        if (value == null) {
+            return null;
+        }
+
+        // Immutable values are their own snapshot, numbers keep their exact type as rules may depend on it
+        if (CacheableValues.isImmutable(value)) {
+            return value;
+        }
+
+        if (depth >= MAX_DEPTH || path.put(value, Boolean.TRUE) != null) {
+            return CacheableValues.NOT_CACHEABLE;
+        }
+
+        try {
+
+            if (value instanceof Map || value instanceof List || value instanceof Set) {
+                return captureContainer(value, path, depth);
+            }
+
+            Field[] fields = fieldsOf(value.getClass());
+            if (fields == NOT_SUPPORTED) {
+                return CacheableValues.NOT_CACHEABLE;
+            }
+
+            Object[] values = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+
+                values[i] = capture(fields[i].get(value), path, depth + 1);
+                if (values[i] == CacheableValues.NOT_CACHEABLE) {
+                    return CacheableValues.NOT_CACHEABLE;
+                }
+            }
+
+            return new ObjectNode(value.getClass(), values);
+        } catch (IllegalAccessException e) {
+            return CacheableValues.NOT_CACHEABLE;
+        } finally {
+            path.remove(value);
+        }
+    }
+
+    private static Object captureContainer(final Object value, IdentityHashMap<Object, Boolean> path, int depth) {
+
+        if (value instanceof Map) {
+
+            Map<Object, Object> entries = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+
+                Object node = capture(entry.getValue(), path, depth + 1);
+                if (node == CacheableValues.NOT_CACHEABLE || !CacheableValues.isImmutable(entry.getKey())) {
+                    return CacheableValues.NOT_CACHEABLE;
+                }
+
+                entries.put(entry.getKey(), node);
+            }
+
+            return new ContainerNode(value.getClass(), entries);
+        }
+
+        Collection<Object> elements = (value instanceof List) ? new ArrayList<Object>() : new HashSet<Object>();
+        for (Object element : (Collection<?>) value) {
+
+            Object node = capture(element, path, depth + 1);
+            if (node == CacheableValues.NOT_CACHEABLE) {
+                return CacheableValues.NOT_CACHEABLE;
+            }
+
+            elements.add(node);
+        }
+
+        return new ContainerNode(value.getClass(), elements);
+    }
+
+    private static boolean restoreValue(final Object node, Object live, boolean write) throws IllegalAccessException {
+
+        if (node instanceof ObjectNode) {
+            return live != null && live.getClass() == ((ObjectNode) node).type && restoreObject((ObjectNode) node, live, write);
+        } else if (node instanceof ContainerNode) {
+            return restoreContainer((ContainerNode) node, live, write);
+        }
+
+        // A value held directly in the fact map cannot have been replaced
+        return Objects.equals(node, live);
+    }
+
+    private static boolean restoreObject(final ObjectNode node, Object live, boolean write) throws IllegalAccessException {
+
+        Field[] fields = fieldsOf(node.type);
+        for (int i = 0; i < fields.length; i++) {
+
+            Object after = node.values[i];
+            Object current = fields[i].get(live);
+
+            if (after instanceof ObjectNode || after instanceof ContainerNode) {
+
+                if (!restoreValue(after, current, write)) {
+                    return false;
+                }
+            } else if (!Objects.equals(after, current)) {
+
+                if (Modifier.isFinal(fields[i].getModifiers())) {
+                    return false;
+                }
+
+                if (write) {
+                    fields[i].set(live, after);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean restoreContainer(final ContainerNode node, Object live, boolean write) {
+
+        if (live == null || live.getClass() != node.type) {
+            return false;
+        }
+
+        // Unchanged containers are left alone, changed ones are refilled when they only hold immutable values
+        Object current = capture(live, new IdentityHashMap<Object, Boolean>(), 0);
+        if (node.equals(current)) {
+            return true;
+        }
+
+        if (!node.isRefillable()) {
+            return false;
+        }
+
+        if (write) {
+
+            if (node.contents instanceof Map) {
+
+                ((Map<Object, Object>) live).clear();
+                ((Map<Object, Object>) live).putAll((Map<Object, Object>) node.contents);
+            } else {
+
+                ((Collection<Object>) live).clear();
+                ((Collection<Object>) live).addAll((Collection<Object>) node.contents);
+            }
+        }
+
+        return true;
+    }
+
+    private static Field[] fieldsOf(final Class<?> type) {
+
+        Field[] fields = fieldCache.get(type);
+        if (fields == null) {
+            fields = fieldCache.computeIfAbsent(type, FactState::resolveFields);
+        }
+
+        return fields;
+    }
+
+    private static Field[] resolveFields(final Class<?> type) {
+
+        // Platform classes other than the known immutable values and containers are not walked
+        String packageName = type.getPackageName();
+        if (type.isArray() || packageName.startsWith("java.") || packageName.startsWith("javax.") || packageName.startsWith("jdk.") || packageName.startsWith("sun.")) {
+            return NOT_SUPPORTED;
+        }
+
+        List<Field> fields = new ArrayList<Field>();
+        try {
+
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+
+                for (Field field : current.getDeclaredFields()) {
+
+                    if (!Modifier.isStatic(field.getModifiers())) {
+
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            return NOT_SUPPORTED;
+        }
+
+        return fields.toArray(new Field[0]);
+    }
+
+    private static final class ObjectNode {
+
+        private final Class<?> type;
+        private final Object[] values;
+        private final int hash;
+
+        private ObjectNode(Class<?> type, Object[] values) {
+            this.type = type;
+            this.values = values;
+            this.hash = 31 * type.hashCode() + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof ObjectNode) && hash == ((ObjectNode) o).hash && type == ((ObjectNode) o).type && Arrays.equals(values, ((ObjectNode) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class ContainerNode {
+
+        private static final Set<Class<?>> REFILLABLE = Set.of(ArrayList.class, LinkedList.class, HashSet.class, LinkedHashSet.class, TreeSet.class, HashMap.class, LinkedHashMap.class, TreeMap.class);
+
+        private final Class<?> type;
+        private final Object contents;
+        private final int hash;
+
+        private ContainerNode(Class<?> type, Object contents) {
+            this.type = type;
+            this.contents = (contents instanceof Map) ? Collections.unmodifiableMap((Map<?, ?>) contents) : contents;
+            this.hash = 31 * type.hashCode() + contents.hashCode();
+        }
+
+        private boolean isRefillable() {
+
+            if (!REFILLABLE.contains(type)) {
+                return false;
+            }
+
+            Collection<?> values = (contents instanceof Map) ? ((Map<?, ?>) contents).values() : (Collection<?>) contents;
+            for (Object value : values) {
+
+                if (value instanceof ObjectNode || value instanceof ContainerNode) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof ContainerNode) && hash == ((ContainerNode) o).hash && type == ((ContainerNode) o).type && contents.equals(((ContainerNode) o).contents);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
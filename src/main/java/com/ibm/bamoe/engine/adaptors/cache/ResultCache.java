@@ -0,0 +1,226 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.bamoe.engine.adaptors.metrics.ResultCacheStatistics;
+
+/**
+ * A size and time bounded cache of execution results, split into independently locked LRU segments.
+ * Entries belong to an owner, such as a prepared model, and are dropped together when the owner is replaced.
+ */
+public class ResultCache<V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_TTL = 300000L;
+
+    private static final int SEGMENTS = 16;
+
+    private final int maxSize;
+    private final long ttl;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResultCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ResultCache(final int maxSize, final long ttl) {
+
+        this.maxSize = Math.max(1, maxSize);
+        this.ttl = ttl;
+        this.segments = (Segment[]) new ResultCache<?>.Segment[SEGMENTS];
+
+        // Each segment holds its share of the entries, rounded up
+        int segmentSize = Math.max(1, (this.maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    public V get(final ResultCacheKey key) {
+        return get(key, null);
+    }
+
+    public V get(final ResultCacheKey key, Predicate<? super V> usable) {
+
+        V value = lookup(key);
+
+        // Checked outside of the segment lock, an entry the caller cannot use is a miss
+        if (value == null || (usable != null && !usable.test(value))) {
+
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return value;
+    }
+
+    private V lookup(final ResultCacheKey key) {
+
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+
+            Entry<V> entry = segment.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+
+            if (ttl > 0 && System.nanoTime() - entry.createdNanos > ttl * 1000000L) {
+
+                segment.entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+
+            return entry.value;
+        }
+    }
+
+    public void put(final ResultCacheKey key, V value) {
+
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.put(key, new Entry<V>(value, System.nanoTime()));
+        }
+
+        puts.increment();
+    }
+
+    public void invalidate(final Object owner) {
+        invalidateIf(candidate -> candidate == owner);
+    }
+
+    public void invalidateIf(final Predicate<Object> ownerFilter) {
+
+        int removed = 0;
+        for (Segment segment : segments) {
+
+            synchronized (segment) {
+
+                Iterator<ResultCacheKey> iterator = segment.entries.keySet().iterator();
+                while (iterator.hasNext()) {
+
+                    if (ownerFilter.test(iterator.next().getOwner())) {
+
+                        iterator.remove();
+                        removed++;
+                    }
+                }
+            }
+        }
+
+        invalidations.add(removed);
+        if (removed > 0 && logger.isDebugEnabled()) {
+            logger.debug("Invalidated cached results: entries=" + removed);
+        }
+    }
+
+    public void clear() {
+
+        logger.debug("Clearing all cached results...");
+
+        for (Segment segment : segments) {
+
+            synchronized (segment) {
+
+                invalidations.add(segment.entries.size());
+                segment.entries.clear();
+            }
+        }
+    }
+
+    public int size() {
+
+        int size = 0;
+        for (Segment segment : segments) {
+
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+
+        return size;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public long getTtl() {
+        return this.ttl;
+    }
+
+    public ResultCacheStatistics getStatistics() {
+        return new ResultCacheStatistics(hits.sum(), misses.sum(), puts.sum(), evictions.sum(), expirations.sum(), invalidations.sum(), size());
+    }
+
+    public void resetStatistics() {
+
+        hits.reset();
+        misses.reset();
+        puts.reset();
+        evictions.reset();
+        expirations.reset();
+        invalidations.reset();
+    }
+
+    private Segment segmentFor(final ResultCacheKey key) {
+
+        // Spread the hash so that keys differing only in their high bits do not share a segment
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<ResultCacheKey, Entry<V>> entries;
+
+        private Segment(final int capacity) {
+
+            // Access ordered, so that the least recently used entry is evicted first
+            this.entries = new LinkedHashMap<ResultCacheKey, Entry<V>>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ResultCacheKey, Entry<V>> eldest) {
+
+                    if (size() > capacity) {
+
+                        evictions.increment();
+                        return true;
+                    }
+
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long createdNanos;
+
+        private Entry(T value, long createdNanos) {
+            this.value = value;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import java.util.Objects;
+
+public final class ResultCacheKey {
+
+    private final Object owner;
+    private final Object target;
+    private final Object facts;
+    private final int hash;
+
+    private ResultCacheKey(Object owner, Object target, Object facts) {
+        this.owner = owner;
+        this.target = target;
+        this.facts = facts;
+        this.hash = 31 * (31 * System.identityHashCode(owner) + Objects.hashCode(target)) + Objects.hashCode(facts);
+    }
+
+    public static ResultCacheKey of(final Object owner, final Object target, final Object canonicalFacts) {
+        return new ResultCacheKey(owner, target, canonicalFacts);
+    }
+
+    public Object getOwner() {
+        return this.owner;
+    }
+
+    public Object getTarget() {
+        return this.target;
+    }
+
+    public Object getFacts() {
+        return this.facts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof ResultCacheKey)) {
+            return false;
+        }
+
+        // The owner is compared by identity, a replaced model or kieBase never matches its predecessor
+        ResultCacheKey other = (ResultCacheKey) o;
+        return hash == other.hash && owner == other.owner && Objects.equals(target, other.target) && Objects.equals(facts, other.facts);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "[ResultCacheKey: owner=" + owner + ", target=" + target + ", hash=" + hash + "]";
+    }
+}
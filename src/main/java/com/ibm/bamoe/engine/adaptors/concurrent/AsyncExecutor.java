@@ -0,0 +1,187 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs adaptor executions off the caller's thread, by default on virtual threads, and caps the number of
+ * executions in flight per ruleset or decision model name. Executions above the cap are queued and handed to the
+ * executor as earlier ones complete, so no executor thread is held waiting for its turn. The cap of a name is
+ * rebuilt when its setting changes; executions started under the previous one release it.
+ */
+public class AsyncExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncExecutor.class);
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    private final Executor executor;
+    private final boolean ownedExecutor;
+    private final int defaultMaxInFlight;
+    private final Map<String, InFlightLimit> limits = new ConcurrentHashMap<String, InFlightLimit>();
+
+    public AsyncExecutor() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), true, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public AsyncExecutor(final Executor executor, final int defaultMaxInFlight) {
+        this(executor, false, defaultMaxInFlight);
+    }
+
+    private AsyncExecutor(final Executor executor, final boolean ownedExecutor, final int defaultMaxInFlight) {
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        this.defaultMaxInFlight = Math.max(1, defaultMaxInFlight);
+    }
+
+    public <T> CompletableFuture<T> submit(final String name, final int maxInFlight, final Callable<T> task) {
+
+        int max = (maxInFlight > 0) ? maxInFlight : defaultMaxInFlight;
+        InFlightLimit limit = limits.get(name);
+        if (limit == null || limit.maxInFlight != max) {
+
+            limit = limits.compute(name, (key, existing) -> {
+
+                if (existing != null && existing.maxInFlight == max) {
+                    return existing;
+                }
+
+                logger.debug("Creating in-flight limit: name=" + key + ", maxInFlight=" + max);
+                return new InFlightLimit(max);
+            });
+        }
+
+        PendingExecution<T> execution = new PendingExecution<T>(name, limit, task);
+        if (limit.tryAcquire(execution)) {
+            dispatch(execution);
+        }
+
+        return execution.future;
+    }
+
+    public int getInFlight(final String name) {
+
+        InFlightLimit limit = limits.get(name);
+        return (limit == null) ? 0 : limit.getInFlight();
+    }
+
+    public int getWaiting(final String name) {
+
+        InFlightLimit limit = limits.get(name);
+        return (limit == null) ? 0 : limit.getWaiting();
+    }
+
+    public int getMaxInFlight(final String name) {
+
+        InFlightLimit limit = limits.get(name);
+        return (limit == null) ? defaultMaxInFlight : limit.maxInFlight;
+    }
+
+    public void shutdown() {
+
+        if (ownedExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void dispatch(PendingExecution<?> execution) {
+
+        // A rejected execution gives its permit to the next queued one, which is most likely rejected as well
+        while (execution != null) {
+
+            try {
+                executor.execute(execution);
+                return;
+            } catch (RejectedExecutionException e) {
+
+                logger.debug("Async execution rejected: name=" + execution.name + ", " + e.getMessage());
+                execution.future.completeExceptionally(e);
+                execution = execution.limit.release();
+            }
+        }
+    }
+
+    private final class PendingExecution<T> implements Runnable {
+
+        private final String name;
+        private final InFlightLimit limit;
+        private final Callable<T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<T>();
+
+        private PendingExecution(String name, InFlightLimit limit, Callable<T> task) {
+            this.name = name;
+            this.limit = limit;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+
+                if (t instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+
+                future.completeExceptionally(t);
+            } finally {
+                dispatch(limit.release());
+            }
+        }
+    }
+
+    private static final class InFlightLimit {
+
+        private final int maxInFlight;
+        private final Queue<PendingExecution<?>> waiting = new ArrayDeque<PendingExecution<?>>();
+        private int inFlight;
+
+        private InFlightLimit(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        private synchronized boolean tryAcquire(final PendingExecution<?> execution) {
+
+            if (inFlight < maxInFlight) {
+
+                inFlight++;
+                return true;
+            }
+
+            waiting.add(execution);
+            return false;
+        }
+
+        private synchronized PendingExecution<?> release() {
+
+            // The permit passes straight to the next queued execution, if any
+            PendingExecution<?> next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+
+            return next;
+        }
+
+        private synchronized int getInFlight() {
+            return this.inFlight;
+        }
+
+        private synchronized int getWaiting() {
+            return this.waiting.size();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.bamoe.engine.adaptors.metrics.BulkheadMetrics;
+
+/**
+ * Admission control for the executions of one ruleset or decision model name, so that a spike on one name cannot
+ * take every thread of the JVM from the others. Executions above the concurrency limit wait in a bounded queue;
+ * those that find the queue full are rejected, those that wait for longer than allowed are shed.
+ * With an adaptive limit, the limit follows the latency of the executions: it shrinks below the configured maximum
+ * as latency climbs over its long-term average, and grows back as it recovers.
+ */
+public class Bulkhead {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bulkhead.class);
+
+    private static final double SHORT_WINDOW      = 10.0;
+    private static final double LONG_WINDOW       = 100.0;
+    private static final double LATENCY_TOLERANCE = 1.5;
+    private static final double SMOOTHING         = 0.2;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWait;
+    private final boolean adaptive;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private final BulkheadMetrics metrics = new BulkheadMetrics();
+
+    private int inFlight;
+    private int queued;
+    private double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    public Bulkhead(final String name, int maxConcurrent, int maxQueued, long maxWait, boolean adaptive) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWait = Math.max(0L, maxWait);
+        this.adaptive = adaptive;
+        this.limit = this.maxConcurrent;
+    }
+
+    public <T> T execute(final Callable<T> task) throws Exception {
+
+        acquire();
+        long startedOn = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            release(System.nanoTime() - startedOn);
+        }
+    }
+
+    public boolean hasSettings(final int maxConcurrent, int maxQueued, long maxWait, boolean adaptive) {
+        return this.maxConcurrent == Math.max(1, maxConcurrent) && this.maxQueued == Math.max(0, maxQueued) && this.maxWait == Math.max(0L, maxWait) && this.adaptive == adaptive;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getMaxConcurrent() {
+        return this.maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return this.maxQueued;
+    }
+
+    public long getMaxWait() {
+        return this.maxWait;
+    }
+
+    public boolean isAdaptive() {
+        return this.adaptive;
+    }
+
+    public int getLimit() {
+
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+
+        lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+
+        lock.lock();
+        try {
+            return this.queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BulkheadMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    private void acquire() throws InterruptedException {
+
+        lock.lockInterruptibly();
+        try {
+
+            if (inFlight < currentLimit()) {
+
+                inFlight++;
+                metrics.recordAdmission();
+                return;
+            }
+
+            // Waiting callers are bounded, beyond that the execution is rejected straight away
+            if (queued >= maxQueued) {
+
+                metrics.recordRejection();
+                throw new RejectedExecutionException("Bulkhead full: name=" + name + ", inFlight=" + inFlight + ", limit=" + currentLimit() + ", queued=" + queued);
+            }
+
+            queued++;
+            metrics.recordWait();
+            try {
+
+                long remaining = TimeUnit.MILLISECONDS.toNanos(maxWait);
+                while (inFlight >= currentLimit()) {
+
+                    if (remaining <= 0) {
+
+                        metrics.recordShed();
+                        throw new RejectedExecutionException("Bulkhead wait exceeded " + maxWait + "ms: name=" + name + ", inFlight=" + inFlight + ", limit=" + currentLimit() + ", queued=" + queued);
+                    }
+
+                    remaining = available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+
+                // The signal this caller may have taken is passed on to the next one
+                available.signal();
+                throw e;
+            } finally {
+                queued--;
+            }
+
+            inFlight++;
+            metrics.recordAdmission();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final long latencyNanos) {
+
+        lock.lock();
+        try {
+
+            inFlight--;
+            int previousLimit = currentLimit();
+            if (adaptive) {
+                adapt(latencyNanos);
+            }
+
+            // A grown limit may let more than one waiting caller in
+            if (currentLimit() > previousLimit) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adapt(final long latencyNanos) {
+
+        double latency = Math.max(1.0, latencyNanos);
+        if (longLatency == 0.0) {
+
+            shortLatency = latency;
+            longLatency = latency;
+            return;
+        }
+
+        shortLatency += (latency - shortLatency) / SHORT_WINDOW;
+        longLatency += (latency - longLatency) / LONG_WINDOW;
+
+        // After a long overload the average has drifted up, it is pulled back so that the limit can recover
+        if (longLatency / shortLatency > 2.0) {
+            longLatency *= 0.95;
+        }
+
+        // The limit follows the ratio of the long-term to the recent latency, with some headroom to keep probing
+        double gradient = Math.max(0.5, Math.min(1.0, LATENCY_TOLERANCE * longLatency / shortLatency));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        double adapted = Math.max(1.0, Math.min(maxConcurrent, limit * (1.0 - SMOOTHING) + newLimit * SMOOTHING));
+
+        if (logger.isDebugEnabled() && (int) adapted != (int) limit) {
+            logger.debug("Bulkhead limit adapted: name=" + name + ", limit=" + (int) adapted + ", shortLatency=" + (long) shortLatency + "ns, longLatency=" + (long) longLatency + "ns");
+        }
+
+        limit = adapted;
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public String toString() {
+        return "[Bulkhead: name=" + name + ", limit=" + getLimit() + ", maxConcurrent=" + maxConcurrent + ", inFlight=" + getInFlight() + ", queued=" + getQueueDepth() + ", " + metrics + "]";
+    }
+}
@@ -0,0 +1,42 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the bulkhead of every ruleset or decision model name of an adaptor. A bulkhead is created on the first
+ * execution of its name and rebuilt when its settings change; executions admitted by the previous one release it.
+ */
+public class BulkheadRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<String, Bulkhead>();
+
+    public <T> T execute(final String name, int maxConcurrent, int maxQueued, long maxWait, boolean adaptive, Callable<T> task) throws Exception {
+
+        Bulkhead bulkhead = bulkheads.get(name);
+        if (bulkhead == null || !bulkhead.hasSettings(maxConcurrent, maxQueued, maxWait, adaptive)) {
+
+            bulkhead = bulkheads.compute(name, (key, existing) -> {
+
+                if (existing != null && existing.hasSettings(maxConcurrent, maxQueued, maxWait, adaptive)) {
+                    return existing;
+                }
+
+                logger.debug("Creating bulkhead: name=" + key + ", maxConcurrent=" + maxConcurrent + ", maxQueued=" + maxQueued + ", maxWait=" + maxWait + "ms, adaptive=" + adaptive);
+                return new Bulkhead(key, maxConcurrent, maxQueued, maxWait, adaptive);
+            });
+        }
+
+        return bulkhead.execute(task);
+    }
+
+    public Bulkhead get(final String name) {
+        return bulkheads.get(name);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.ibm.bamoe.engine.adaptors.DecisionModelAdaptor;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelProperties;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelRecordResult;
+
+public class DecisionModelProcessor extends MicroBatchProcessor<Map<String,Object>, DecisionModelRecordResult> {
+
+    private final DecisionModelAdaptor adaptor;
+    private final DecisionModelProperties properties;
+
+    // Batches are processed one at a time, so the stream offset needs no synchronization
+    private long offset = 0;
+
+    public DecisionModelProcessor(final DecisionModelAdaptor adaptor, final DecisionModelProperties properties) {
+        this(adaptor, properties, DEFAULT_BATCH_SIZE);
+    }
+
+    public DecisionModelProcessor(final DecisionModelAdaptor adaptor, final DecisionModelProperties properties, final int batchSize) {
+        this(adaptor, properties, batchSize, DEFAULT_PREFETCH_BATCHES, DEFAULT_MAX_BATCH_DELAY, null);
+    }
+
+    public DecisionModelProcessor(final DecisionModelAdaptor adaptor, final DecisionModelProperties properties, final int batchSize, final int prefetchBatches, final long maxBatchDelay, final Executor executor) {
+
+        super(batchSize, prefetchBatches, maxBatchDelay, executor);
+        this.adaptor = adaptor;
+        this.properties = new DecisionModelProperties(properties);
+    }
+
+    @Override
+    protected List<DecisionModelRecordResult> process(final List<Map<String,Object>> batch) throws Exception {
+
+        List<DecisionModelRecordResult> results = adaptor.executeBulk(properties, batch).getResults();
+
+        // Report indexes relative to the whole stream rather than to the batch
+        for (DecisionModelRecordResult result : results) {
+            result.setIndex(offset + result.getIndex());
+        }
+
+        offset += batch.size();
+        return results;
+    }
+}
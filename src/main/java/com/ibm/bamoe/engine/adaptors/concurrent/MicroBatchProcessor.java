@@ -0,0 +1,222 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Flow processor that collects incoming records into micro-batches and hands each batch to an adaptor.
+ * Batches are processed one after the other, in arrival order, while the next batch is being received.
+ * Upstream demand is only replenished once a batch has been published, so a slow subscriber slows the source.
+ */
+public abstract class MicroBatchProcessor<I, O> implements Flow.Processor<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBatchProcessor.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_PREFETCH_BATCHES = 2;
+    public static final long DEFAULT_MAX_BATCH_DELAY = 50L;
+
+    private static final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("bamoe-flow-flush").factory());
+
+    private final int batchSize;
+    private final int prefetchBatches;
+    private final long maxBatchDelay;
+    private final Executor executor;
+    private final SubmissionPublisher<O> publisher;
+    private final Object lock = new Object();
+
+    private Flow.Subscription subscription;
+    private List<I> buffer;
+    private ScheduledFuture<?> flushTimer;
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    private boolean done = false;
+    private volatile boolean failed = false;
+
+    protected MicroBatchProcessor(final int batchSize, final int prefetchBatches, final long maxBatchDelay, final Executor executor) {
+
+        this.batchSize = Math.max(1, batchSize);
+        this.prefetchBatches = Math.max(1, prefetchBatches);
+        this.maxBatchDelay = maxBatchDelay;
+        this.executor = (executor != null) ? executor : Executors.newVirtualThreadPerTaskExecutor();
+        this.publisher = new SubmissionPublisher<O>(this.executor, Flow.defaultBufferSize());
+    }
+
+    protected abstract List<O> process(List<I> batch) throws Exception;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super O> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        synchronized (lock) {
+
+            if (this.subscription != null) {
+
+                logger.debug("Processor is already subscribed, cancelling the new subscription...");
+                subscription.cancel();
+                return;
+            }
+
+            this.subscription = subscription;
+            this.buffer = new ArrayList<I>(batchSize);
+        }
+
+        // Allow a few batches to be received while earlier ones are processed
+        subscription.request((long) batchSize * prefetchBatches);
+    }
+
+    @Override
+    public void onNext(I item) {
+
+        synchronized (lock) {
+
+            if (done || failed) {
+                return;
+            }
+
+            buffer.add(item);
+
+            if (buffer.size() >= batchSize) {
+                dispatch(takeBuffer());
+            } else if (buffer.size() == 1 && maxBatchDelay > 0) {
+
+                // Do not hold a partial batch back for longer than the maximum delay
+                flushTimer = flushScheduler.schedule(this::flush, maxBatchDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+
+        synchronized (lock) {
+
+            if (done) {
+                return;
+            }
+
+            done = true;
+            if (!buffer.isEmpty()) {
+                dispatch(takeBuffer());
+            }
+
+            tail = tail.thenRunAsync(() -> publisher.closeExceptionally(throwable), executor);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+
+        synchronized (lock) {
+
+            if (done) {
+                return;
+            }
+
+            done = true;
+            if (!buffer.isEmpty()) {
+                dispatch(takeBuffer());
+            }
+
+            tail = tail.thenRunAsync(() -> {
+
+                if (!failed) {
+                    publisher.close();
+                }
+            }, executor);
+        }
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public int getPrefetchBatches() {
+        return this.prefetchBatches;
+    }
+
+    public long getMaxBatchDelay() {
+        return this.maxBatchDelay;
+    }
+
+    public boolean isFailed() {
+        return this.failed;
+    }
+
+    private void flush() {
+
+        synchronized (lock) {
+
+            flushTimer = null;
+            if (!done && !failed && !buffer.isEmpty()) {
+                dispatch(takeBuffer());
+            }
+        }
+    }
+
+    private List<I> takeBuffer() {
+
+        if (flushTimer != null) {
+
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+
+        List<I> batch = buffer;
+        buffer = new ArrayList<I>(batchSize);
+        return batch;
+    }
+
+    private void dispatch(final List<I> batch) {
+
+        // Chained while holding the lock, so that batches are processed and published in arrival order
+        tail = tail.thenRunAsync(() -> processBatch(batch), executor);
+    }
+
+    private void processBatch(final List<I> batch) {
+
+        if (failed) {
+            return;
+        }
+
+        try {
+
+            List<O> results = process(batch);
+
+            // Blocks while the subscribers' buffers are full
+            for (O result : results) {
+                publisher.submit(result);
+            }
+
+            // Replenish the upstream demand consumed by this batch
+            boolean upstreamActive;
+            synchronized (lock) {
+                upstreamActive = !done;
+            }
+
+            if (upstreamActive) {
+                subscription.request(batch.size());
+            }
+        } catch (Throwable t) {
+
+            logger.warn("Micro-batch processing failed, cancelling the stream...", t);
+            failed = true;
+            subscription.cancel();
+            publisher.closeExceptionally(t);
+        }
+    }
+}
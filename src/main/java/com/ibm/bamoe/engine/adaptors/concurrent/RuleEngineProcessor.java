@@ -0,0 +1,37 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.ibm.bamoe.engine.adaptors.RuleEngineAdaptor;
+import com.ibm.bamoe.engine.adaptors.model.RuleResults;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+
+public class RuleEngineProcessor extends MicroBatchProcessor<Map<String,Object>, RuleResults> {
+
+    private final RuleEngineAdaptor adaptor;
+    private final RuleSetProperties properties;
+    private final int parallelism;
+
+    public RuleEngineProcessor(final RuleEngineAdaptor adaptor, final RuleSetProperties properties) {
+        this(adaptor, properties, DEFAULT_BATCH_SIZE, 1);
+    }
+
+    public RuleEngineProcessor(final RuleEngineAdaptor adaptor, final RuleSetProperties properties, final int batchSize, final int parallelism) {
+        this(adaptor, properties, batchSize, parallelism, DEFAULT_PREFETCH_BATCHES, DEFAULT_MAX_BATCH_DELAY, null);
+    }
+
+    public RuleEngineProcessor(final RuleEngineAdaptor adaptor, final RuleSetProperties properties, final int batchSize, final int parallelism, final int prefetchBatches, final long maxBatchDelay, final Executor executor) {
+
+        super(batchSize, prefetchBatches, maxBatchDelay, executor);
+        this.adaptor = adaptor;
+        this.properties = new RuleSetProperties(properties);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    protected List<RuleResults> process(final List<Map<String,Object>> batch) throws Exception {
+        return adaptor.executeBatch(properties, batch, parallelism).getResults();
+    }
+}
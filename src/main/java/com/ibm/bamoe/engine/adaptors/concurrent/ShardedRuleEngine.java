@@ -0,0 +1,338 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.api.runtime.rule.FactHandle;
+
+import com.ibm.bamoe.engine.adaptors.RuleEngineAdaptor;
+import com.ibm.bamoe.engine.adaptors.model.RuleResults;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+import com.ibm.bamoe.engine.adaptors.runtime.LongLivedKieSession;
+
+/**
+ * Spreads the stateful load of one ruleset over a number of long-lived sessions, partitioned by a key taken from
+ * each fact set. Every shard is owned by a dedicated thread that drains a lock-free inbound queue, so fact sets with
+ * the same key are always executed one after the other, in submission order, against the same session.
+ * <p>
+ * By default all the keys of a shard share its session: their facts are only told apart by the names they are
+ * inserted under, and rules match across them. Rules of a shared session MUST constrain every pattern on the key,
+ * or they join the facts of unrelated keys. Engines created with isolated keys give every key a session of its own
+ * instead, still executed by the thread of its shard, at the cost of one session per live key.
+ */
+public class ShardedRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedRuleEngine.class);
+
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 10000;
+
+    private static final String SHARD_SESSION_KEY = "#shard-";
+
+    private static final AtomicLong engineIds = new AtomicLong();
+
+    @FunctionalInterface
+    public interface PartitionKey {
+        Object of(Map<String,Object> facts);
+    }
+
+    private final RuleEngineAdaptor adaptor;
+    private final RuleSetProperties properties;
+    private final PartitionKey partitionKey;
+    private final int maxQueueSize;
+    private final boolean isolatedKeys;
+    private final Shard[] shards;
+    private final long engineId = engineIds.incrementAndGet();
+    private volatile boolean closed = false;
+
+    public ShardedRuleEngine(final RuleEngineAdaptor adaptor, final RuleSetProperties properties, final int shardCount, final PartitionKey partitionKey) {
+        this(adaptor, properties, shardCount, partitionKey, DEFAULT_MAX_QUEUE_SIZE);
+    }
+
+    public ShardedRuleEngine(final RuleEngineAdaptor adaptor, final RuleSetProperties properties, final int shardCount, final PartitionKey partitionKey, final int maxQueueSize) {
+        this(adaptor, properties, shardCount, partitionKey, maxQueueSize, false);
+    }
+
+    public ShardedRuleEngine(final RuleEngineAdaptor adaptor, final RuleSetProperties properties, final int shardCount, final PartitionKey partitionKey, final int maxQueueSize, final boolean isolatedKeys) {
+
+        this.adaptor = adaptor;
+        this.partitionKey = partitionKey;
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+        this.isolatedKeys = isolatedKeys;
+
+        // The shard sessions hold the state of their keys, they are never evicted for being idle
+        this.properties = new RuleSetProperties(properties);
+        this.properties.setSessionIdleTimeout(0L);
+        this.properties.setSessionMaxLifetime(0L);
+
+        int count = (shardCount > 0) ? shardCount : Runtime.getRuntime().availableProcessors();
+        logger.debug("Starting sharded engine: name=" + properties.getName() + ", shards=" + count + ", isolatedKeys=" + isolatedKeys + "...");
+
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    public static PartitionKey byFact(final String factName) {
+        return facts -> facts.get(factName);
+    }
+
+    public CompletableFuture<RuleResults> submit(final Map<String,Object> facts) {
+        return submit(partitionKey.of(facts), facts);
+    }
+
+    public CompletableFuture<RuleResults> submit(final Object key, Map<String,Object> facts) {
+
+        if (key == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No partition key for facts: name=" + properties.getName()));
+        }
+
+        String partition = String.valueOf(key);
+        Shard shard = shardFor(partition);
+
+        // An isolated key has a session of its own, its facts keep their names
+        if (isolatedKeys) {
+            return shard.submit(partition, session -> adaptor.execute(properties, session.getSessionKey(), facts));
+        }
+
+        return shard.submit(null, session -> adaptor.execute(properties, session.getSessionKey(), partition, facts));
+    }
+
+    public CompletableFuture<Integer> remove(final Object key) {
+
+        if (key == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No partition key: name=" + properties.getName()));
+        }
+
+        // Queued behind the key's earlier fact sets, so that they are all executed before its facts are deleted
+        String partition = String.valueOf(key);
+        Shard shard = shardFor(partition);
+
+        if (isolatedKeys) {
+
+            return shard.submit(partition, session -> {
+
+                int removed = session.execute(longLivedSession -> longLivedSession.getFactHandles().size());
+                shard.close(partition);
+                return removed;
+            });
+        }
+
+        String prefix = partition + "/";
+        return shard.submit(null, session -> session.execute(longLivedSession -> {
+
+            int removed = 0;
+            for (Map.Entry<String, FactHandle> factHandle : longLivedSession.getFactHandles().entrySet()) {
+
+                if (factHandle.getKey().startsWith(prefix)) {
+
+                    longLivedSession.delete(factHandle.getKey());
+                    removed++;
+                }
+            }
+
+            return removed;
+        }));
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int getShard(final Object key) {
+        return shardIndex(String.valueOf(key));
+    }
+
+    public List<Integer> getQueueSizes() {
+
+        List<Integer> queueSizes = new ArrayList<Integer>(shards.length);
+        for (Shard shard : shards) {
+            queueSizes.add(shard.queued.get());
+        }
+
+        return queueSizes;
+    }
+
+    public RuleSetProperties getProperties() {
+        return this.properties;
+    }
+
+    public boolean isIsolatedKeys() {
+        return this.isolatedKeys;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    public void close() {
+
+        // Fact sets already queued are still executed, new ones are rejected
+        closed = true;
+        for (Shard shard : shards) {
+            shard.wake();
+        }
+
+        for (Shard shard : shards) {
+
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Anything offered while the shard thread was stopping is executed here, still in order.
+            // A submit that offers after this drain finds the engine closed and takes its task back
+            Runnable task;
+            while ((task = shard.inbound.poll()) != null) {
+
+                shard.queued.decrementAndGet();
+                task.run();
+            }
+
+            adaptor.closeSession(properties, shard.sessionKey);
+            for (String partition : new ArrayList<String>(shard.partitions)) {
+                shard.close(partition);
+            }
+        }
+
+        logger.debug("Stopped sharded engine: name=" + properties.getName());
+    }
+
+    private Shard shardFor(final String partition) {
+        return shards[shardIndex(partition)];
+    }
+
+    private int shardIndex(final String partition) {
+
+        // Spread the hash so that keys differing only in their high bits do not share a shard
+        int hash = partition.hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, shards.length);
+    }
+
+    @FunctionalInterface
+    private interface ShardWork<T> {
+        T execute(LongLivedKieSession session) throws Exception;
+    }
+
+    private final class Shard implements Runnable {
+
+        private final String sessionKey;
+        private final ConcurrentLinkedQueue<Runnable> inbound = new ConcurrentLinkedQueue<Runnable>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private final Set<String> partitions = new HashSet<String>();
+        private final Thread thread;
+
+        private Shard(final int index) {
+
+            // Engines of the same ruleset share the adaptor's long-lived sessions, each one keeps to its own
+            this.sessionKey = SHARD_SESSION_KEY + engineId + "-" + index;
+            this.thread = Thread.ofPlatform().daemon().name("bamoe-shard-" + properties.getName() + "-" + index).start(this);
+        }
+
+        private <T> CompletableFuture<T> submit(final String partition, ShardWork<T> work) {
+
+            CompletableFuture<T> future = new CompletableFuture<T>();
+            if (closed) {
+
+                future.completeExceptionally(new RejectedExecutionException("Sharded engine is closed: name=" + properties.getName()));
+                return future;
+            }
+
+            if (queued.incrementAndGet() > maxQueueSize) {
+
+                queued.decrementAndGet();
+                future.completeExceptionally(new RejectedExecutionException("Shard queue is full: name=" + properties.getName() + ", shard=" + sessionKey + ", maxQueueSize=" + maxQueueSize));
+                return future;
+            }
+
+            // Only ever run by the shard thread, or by close once it stopped, so the partitions need no lock
+            Runnable task = () -> {
+
+                try {
+
+                    if (partition != null) {
+                        partitions.add(partition);
+                    }
+
+                    future.complete(work.execute(adaptor.openSession(properties, sessionKeyOf(partition))));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            };
+
+            inbound.offer(task);
+
+            // Closed in the meantime, the task may have missed the final drain. If it is still queued nobody will run it
+            if (closed && inbound.remove(task)) {
+
+                queued.decrementAndGet();
+                future.completeExceptionally(new RejectedExecutionException("Sharded engine is closed: name=" + properties.getName()));
+                return future;
+            }
+
+            wake();
+            return future;
+        }
+
+        private String sessionKeyOf(final String partition) {
+            return (partition != null) ? sessionKey + "/" + partition : sessionKey;
+        }
+
+        private void close(final String partition) {
+
+            partitions.remove(partition);
+            adaptor.closeSession(properties, sessionKeyOf(partition));
+        }
+
+        private void wake() {
+
+            // Only a parked shard thread needs unparking
+            if (parked.get() && parked.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+
+            while (true) {
+
+                Runnable task = inbound.poll();
+                if (task != null) {
+
+                    queued.decrementAndGet();
+                    task.run();
+                    continue;
+                }
+
+                if (closed) {
+                    return;
+                }
+
+                // Checked again once parked is announced, a producer that missed the flag left its task in the queue
+                parked.set(true);
+                if (inbound.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+
+                parked.set(false);
+            }
+        }
+    }
+}
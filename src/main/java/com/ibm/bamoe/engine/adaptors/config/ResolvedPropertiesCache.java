@@ -0,0 +1,115 @@
+package com.ibm.bamoe.engine.adaptors.config;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the properties resolved from configuration per ruleset or decision model name.
+ * Callers get their own copy of the cached properties. Names that fail to resolve are remembered for a short while,
+ * so they keep failing fast without hitting the configuration on every call, and are resolved again once that expires.
+ */
+public class ResolvedPropertiesCache<P> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResolvedPropertiesCache.class);
+
+    public static final long DEFAULT_FAILURE_TTL = 5000L;
+
+    @FunctionalInterface
+    public interface Resolver<P> {
+        P resolve(String name) throws Exception;
+    }
+
+    private final Resolver<P> resolver;
+    private final UnaryOperator<P> copier;
+    private final Map<String, Entry<P>> entries = new ConcurrentHashMap<String, Entry<P>>();
+    private volatile long failureTtl = DEFAULT_FAILURE_TTL;
+
+    public ResolvedPropertiesCache(final Resolver<P> resolver, UnaryOperator<P> copier) {
+        this.resolver = resolver;
+        this.copier = copier;
+    }
+
+    public P get(final String name) throws Exception {
+
+        Entry<P> entry = entries.get(name);
+        if (entry == null || entry.isExpired(failureTtl)) {
+
+            Entry<P> resolved = resolve(name);
+            if (entry == null) {
+
+                Entry<P> existing = entries.putIfAbsent(name, resolved);
+                entry = (existing != null) ? existing : resolved;
+            } else {
+
+                // Only the expired failure is replaced, a refresh or another caller may have got there first
+                entries.replace(name, entry, resolved);
+                entry = resolved;
+            }
+        }
+
+        // Every caller gets its own exception, with the original failure as the cause
+        if (entry.failure != null) {
+            throw new NoSuchElementException("Unable to resolve properties for: " + name, entry.failure);
+        }
+
+        return copier.apply(entry.properties);
+    }
+
+    public boolean contains(final String name) {
+
+        Entry<P> entry = entries.get(name);
+        return entry != null && entry.failure == null;
+    }
+
+    public long getFailureTtl() {
+        return this.failureTtl;
+    }
+
+    public void setFailureTtl(long failureTtl) {
+        this.failureTtl = failureTtl;
+    }
+
+    public void refresh() {
+
+        logger.debug("Refreshing all resolved properties...");
+        entries.clear();
+    }
+
+    public void refresh(final String name) {
+
+        logger.debug("Refreshing resolved properties for: " + name);
+        entries.remove(name);
+    }
+
+    private Entry<P> resolve(final String name) {
+
+        try {
+            return new Entry<P>(resolver.resolve(name), null);
+        } catch (Exception e) {
+
+            logger.debug("Unable to resolve properties for: " + name + ", " + e.getMessage());
+            return new Entry<P>(null, e);
+        }
+    }
+
+    private static final class Entry<P> {
+
+        private final P properties;
+        private final Exception failure;
+        private final long createdNanos = System.nanoTime();
+
+        private Entry(P properties, Exception failure) {
+            this.properties = properties;
+            this.failure = failure;
+        }
+
+        private boolean isExpired(final long failureTtl) {
+            return failure != null && System.nanoTime() - createdNanos > failureTtl * 1000000L;
+        }
+    }
+}
@@ -1,66 +1,132 @@
 package com.ibm.bamoe.engine.adaptors.listeners;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
 
-import org.kie.dmn.api.core.event.AfterEvaluateAllEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateContextEntryEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateDecisionEvent;
 import org.kie.dmn.api.core.event.AfterEvaluateDecisionTableEvent;
-import org.kie.dmn.api.core.event.BeforeEvaluateAllEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateContextEntryEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateDecisionEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateDecisionTableEvent;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.ibm.bamoe.engine.adaptors.metrics.DecisionModelTimings;
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeTiming;
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeType;
 
+/**
+ * Times decisions, decision tables and context entries by pairing their before and after events.
+ * The runtime is shared between threads, so every evaluation keeps its own trace in a thread local between
+ * begin and end; events outside of such an evaluation, e.g. for another model of the same runtime, are ignored.
+ */
 public class DecisionModelEventListener implements DMNRuntimeEventListener {
 
-    private static final Logger logger = LoggerFactory.getLogger(DecisionModelEventListener.class);
+    private final DecisionModelTimings timings;
+    private final ThreadLocal<Trace> traces = new ThreadLocal<Trace>();
+
+    public DecisionModelEventListener(DecisionModelTimings timings) {
+        this.timings = timings;
+    }
+
+    public DecisionModelTimings getTimings() {
+        return this.timings;
+    }
+
+    public void begin() {
+        traces.set(new Trace());
+    }
+
+    public List<DecisionNodeTiming> end() {
+
+        Trace trace = traces.get();
+        if (trace == null) {
+            return Collections.emptyList();
+        }
+
+        traces.remove();
+
+        // Aggregate the breakdown of this evaluation into the model totals
+        for (DecisionNodeTiming timing : trace.timings) {
+            timings.record(timing);
+        }
+
+        return trace.timings;
+    }
 
     public void cleanup() {
+        traces.remove();
     }
 
     @Override
     public void beforeEvaluateDecision(BeforeEvaluateDecisionEvent event) {
-        logger.info("beforeEvaluateDecision: {}" + event);
+        push();
     }
 
     @Override
     public void afterEvaluateDecision(AfterEvaluateDecisionEvent event) {
-        logger.info("beforeEvaluateDecision: {}" + event);
+        pop(DecisionNodeType.DECISION, event.getDecision().getName(), null);
     }
 
     @Override
     public void beforeEvaluateContextEntry(BeforeEvaluateContextEntryEvent event) {
-        logger.info("afterEvaluateDecision: {}" + event);
+        push();
     }
 
     @Override
     public void afterEvaluateContextEntry(AfterEvaluateContextEntryEvent event) {
-        logger.info("afterEvaluateContextEntry: {}" + event);
+        pop(DecisionNodeType.CONTEXT_ENTRY, event.getNodeName(), event.getVariableName());
     }
 
     @Override
     public void beforeEvaluateDecisionTable(BeforeEvaluateDecisionTableEvent event) {
-        logger.info("beforeEvaluateDecisionTable: {}" + event);
+        push();
     }
 
     @Override
     public void afterEvaluateDecisionTable(AfterEvaluateDecisionTableEvent event) {
-        logger.info("afterEvaluateDecisionTable: {}" + event);
+        pop(DecisionNodeType.DECISION_TABLE, event.getNodeName(), event.getDecisionTableName());
     }
 
-    @Override
-    public void beforeEvaluateAll(BeforeEvaluateAllEvent event) {
-        logger.info("beforeEvaluateAll: {}" + event);
+    private void push() {
+
+        Trace trace = traces.get();
+        if (trace != null) {
+            trace.push(System.nanoTime());
+        }
     }
 
-    @Override
-    public void afterEvaluateAll(AfterEvaluateAllEvent event) {
-        logger.info("afterEvaluateAll: {}" + event);
+    private void pop(final DecisionNodeType type, final String nodeName, final String elementName) {
+
+        long now = System.nanoTime();
+        Trace trace = traces.get();
+
+        // Nodes are evaluated depth first, so the latest start belongs to this node
+        if (trace != null && trace.depth > 0) {
+            trace.timings.add(new DecisionNodeTiming(type, nodeName, elementName, now - trace.pop()));
+        }
     }
-}
 
+    private static final class Trace {
+
+        private final List<DecisionNodeTiming> timings = new ArrayList<DecisionNodeTiming>();
+        private long[] starts = new long[16];
+        private int depth = 0;
+
+        private void push(long nanos) {
 
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+            }
 
+            starts[depth++] = nanos;
+        }
+
+        private long pop() {
+            return starts[--depth];
+        }
+    }
+}
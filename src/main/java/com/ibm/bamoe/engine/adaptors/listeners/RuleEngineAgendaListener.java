@@ -2,23 +2,66 @@ package com.ibm.bamoe.engine.adaptors.listeners;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 
+import org.drools.base.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.DefaultAgendaEventListener;
+import org.kie.api.definition.rule.Rule;
 import org.kie.api.event.rule.AgendaEventListener;
 import org.kie.api.event.rule.AfterMatchFiredEvent;
 import org.kie.api.event.rule.AgendaGroupPoppedEvent;
 import org.kie.api.event.rule.AgendaGroupPushedEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
 import org.kie.api.event.rule.MatchCancelledEvent;
 import org.kie.api.event.rule.MatchCreatedEvent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ibm.bamoe.engine.adaptors.metrics.RuleProfile;
+import com.ibm.bamoe.engine.adaptors.metrics.RuleSetProfiler;
+import com.ibm.bamoe.engine.adaptors.model.RuleCaptureMode;
+import com.ibm.bamoe.engine.adaptors.runtime.RuleIndex;
+
 public class RuleEngineAgendaListener extends DefaultAgendaEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(RuleEngineAgendaListener.class);
 
+    private static final int[] NO_RULES = new int[0];
+
+    // Capture, names and indices are only collected in their own mode
+    private final RuleCaptureMode captureMode;
+    private final RuleIndex ruleIndex;
     private List<String> rulesFired = new ArrayList<String>();
+    private int[] firedRuleIndices = NO_RULES;
+    private int firedCount = 0;
+
+    // Profiling, a session fires one rule at a time so the firing in progress is kept in plain fields
+    private final RuleSetProfiler profiler;
+    private RuleProfile firingProfile;
+    private long firingStartedNanos;
+
+    public RuleEngineAgendaListener() {
+        this(null);
+    }
+
+    public RuleEngineAgendaListener(RuleSetProfiler profiler) {
+        this(RuleCaptureMode.NAMES, null, profiler);
+    }
+
+    public RuleEngineAgendaListener(RuleCaptureMode captureMode, RuleIndex ruleIndex, RuleSetProfiler profiler) {
+        this.captureMode = (captureMode == RuleCaptureMode.INDICES && ruleIndex == null) ? RuleCaptureMode.NAMES : captureMode;
+        this.ruleIndex = ruleIndex;
+        this.profiler = profiler;
+    }
+
+    public RuleCaptureMode getCaptureMode() {
+        return this.captureMode;
+    }
+
+    public RuleSetProfiler getProfiler() {
+        return this.profiler;
+    }
 
     public List<String> getRulesFired() {
         return this.rulesFired;
@@ -28,26 +71,119 @@ public class RuleEngineAgendaListener extends DefaultAgendaEventListener {
         this.rulesFired = rulesFired;
     }
 
+    public int getFiredCount() {
+        return this.firedCount;
+    }
+
+    public int[] getFiredRuleIndices() {
+        return Arrays.copyOf(firedRuleIndices, (captureMode == RuleCaptureMode.INDICES) ? firedCount : 0);
+    }
+
+    public List<String> takeRulesFired() {
+
+        // Hand the names over to the results and start a new list for the next execution
+        List<String> taken = rulesFired;
+        rulesFired = new ArrayList<String>();
+        firedCount = 0;
+        return taken;
+    }
+
+    public int[] takeFiredRuleIndices() {
+
+        int[] taken = getFiredRuleIndices();
+        firedCount = 0;
+        return taken;
+    }
+
+    public void reset() {
+
+        rulesFired.clear();
+        firedCount = 0;
+        firingProfile = null;
+    }
+
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+
+        Rule rule = event.getMatch().getRule();
+        if (profiler != null && !isQuery(rule)) {
+
+            firingProfile = profiler.getProfile(rule.getPackageName(), rule.getName());
+            firingStartedNanos = System.nanoTime();
+        }
+    }
+
     public void afterMatchFired(AfterMatchFiredEvent event) {
 
-        logger.debug("Firing Rule: rule=" + event.getMatch().getRule().getName());
-		rulesFired.add(event.getMatch().getRule().getName());
+        if (firingProfile != null) {
+
+            firingProfile.recordFired(System.nanoTime() - firingStartedNanos);
+            firingProfile = null;
+        }
+
+        // Queries run through the agenda as well, they are not rules firing
+        Rule rule = event.getMatch().getRule();
+        if (isQuery(rule)) {
+            return;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Firing Rule: rule=" + rule.getName());
+        }
+
+        if (captureMode == RuleCaptureMode.NAMES) {
+            rulesFired.add(rule.getName());
+        } else if (captureMode == RuleCaptureMode.INDICES) {
+
+            if (firedCount == firedRuleIndices.length) {
+                firedRuleIndices = Arrays.copyOf(firedRuleIndices, Math.max(8, firedCount * 2));
+            }
+
+            firedRuleIndices[firedCount] = ruleIndex.indexOf(rule.getPackageName(), rule.getName());
+        }
+
+        firedCount++;
 	}
 
+    private boolean isQuery(final Rule rule) {
+        return rule instanceof RuleImpl && ((RuleImpl) rule).isQuery();
+    }
+
     public void agendaGroupPopped(AgendaGroupPoppedEvent event) {
-        logger.debug("Agenda group popped from agenda: agendaGroup=" + event.getAgendaGroup().getName());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Agenda group popped from agenda: agendaGroup=" + event.getAgendaGroup().getName());
+        }
 	}
 
     public void agendaGroupPushed(AgendaGroupPushedEvent event) {
-        logger.debug("Agenda group pushed to agenda: agendaGroup=" + event.getAgendaGroup().getName());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Agenda group pushed to agenda: agendaGroup=" + event.getAgendaGroup().getName());
+        }
 	}
 
     public void matchCreated(MatchCreatedEvent event) {
-        logger.debug("Rule added to agenda: rule=" + event.getMatch().getRule().getName());
+
+        if (profiler != null) {
+            Rule rule = event.getMatch().getRule();
+            profiler.getProfile(rule.getPackageName(), rule.getName()).recordMatchCreated();
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rule added to agenda: rule=" + event.getMatch().getRule().getName());
+        }
 	}
 
     public void matchCancelled(MatchCancelledEvent event) {
-        logger.debug("Rule removed from agenda: rule=" + event.getMatch().getRule().getName());
+
+        if (profiler != null) {
+            Rule rule = event.getMatch().getRule();
+            profiler.getProfile(rule.getPackageName(), rule.getName()).recordMatchCancelled();
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rule removed from agenda: rule=" + event.getMatch().getRule().getName());
+        }
 	}
 }
 
@@ -13,15 +13,24 @@ public class RuleEngineWorkingMemoryListener implements RuleRuntimeEventListener
     private static final Logger logger = LoggerFactory.getLogger(RuleEngineWorkingMemoryListener.class);
 
     public void objectInserted(ObjectInsertedEvent event) {
-        logger.debug("Fact inserted: type=" + event.getObject().getClass() + ": " + event.getObject().toString());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Fact inserted: type=" + event.getObject().getClass() + ": " + event.getObject().toString());
+        }
     }
 
     public void objectUpdated(ObjectUpdatedEvent event) {
-        logger.debug("Fact updated by rule=" + event.getRule().getName() + ", type=" + event.getObject().getClass() + ": " + event.getObject().toString());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Fact updated by rule=" + event.getRule().getName() + ", type=" + event.getObject().getClass() + ": " + event.getObject().toString());
+        }
     }
 
     public void objectDeleted(ObjectDeletedEvent event) {
-        logger.debug("Fact deleted: type=" + event.getOldObject().getClass() + ": " + event.getOldObject().getClass().toString());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Fact deleted: type=" + event.getOldObject().getClass() + ": " + event.getOldObject().getClass().toString());
+        }
     }
 }
 
@@ -0,0 +1,52 @@
+package com.ibm.bamoe.engine.adaptors.listeners;
+
+import org.kie.api.event.KieRuntimeEventManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.bamoe.engine.adaptors.metrics.RuleSetProfiler;
+import com.ibm.bamoe.engine.adaptors.model.RuleCaptureMode;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+import com.ibm.bamoe.engine.adaptors.runtime.RuleIndex;
+
+public final class SessionListeners {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionListeners.class);
+
+    private SessionListeners() {
+    }
+
+    public static RuleEngineAgendaListener newAgendaListener(final RuleSetProperties properties, final RuleIndex ruleIndex, final RuleSetProfiler profiler) {
+
+        // Counts come from fireAllRules itself, so only rule names, indices or profiling need a listener
+        RuleCaptureMode captureMode = properties.getRuleCaptureMode();
+        if (captureMode != RuleCaptureMode.NAMES && captureMode != RuleCaptureMode.INDICES && profiler == null) {
+            return null;
+        }
+
+        return new RuleEngineAgendaListener(captureMode, ruleIndex, profiler);
+    }
+
+    public static void attach(final KieRuntimeEventManager kieSession, final RuleSetProperties properties, final RuleEngineAgendaListener ruleAgendaListener) {
+
+        // Add event listeners, the agenda listener is only created when rules are captured or profiled
+        if (ruleAgendaListener != null) {
+
+            logger.debug("Attaching rule engine agenda listener...");
+            kieSession.addEventListener(ruleAgendaListener);
+        }
+
+        if (properties.isRuleWorkingMemoryListenerEnabled()) {
+
+            logger.debug("Attaching rule engine working memory listener...");
+            kieSession.addEventListener(new RuleEngineWorkingMemoryListener());
+        }
+
+        if (properties.isProcessListenerEnabled()) {
+
+            logger.debug("Attaching process listener...");
+            kieSession.addEventListener(new ProcessEventListener());
+        }
+    }
+}
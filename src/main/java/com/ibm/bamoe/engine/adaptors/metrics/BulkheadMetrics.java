@@ -0,0 +1,48 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class BulkheadMetrics {
+
+    private final LongAdder admissions = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder sheds = new LongAdder();
+
+    public void recordAdmission() {
+        admissions.increment();
+    }
+
+    public void recordWait() {
+        waits.increment();
+    }
+
+    public void recordRejection() {
+        rejections.increment();
+    }
+
+    public void recordShed() {
+        sheds.increment();
+    }
+
+    public long getAdmissions() {
+        return admissions.sum();
+    }
+
+    public long getWaits() {
+        return waits.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public long getSheds() {
+        return sheds.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "admissions=" + getAdmissions() + ", waits=" + getWaits() + ", rejections=" + getRejections() + ", sheds=" + getSheds();
+    }
+}
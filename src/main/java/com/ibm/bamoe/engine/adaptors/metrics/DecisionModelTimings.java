@@ -0,0 +1,89 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeTiming;
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeType;
+
+/**
+ * Evaluation time of the decisions, decision tables and context entries of one DMN model, across all calls.
+ */
+public class DecisionModelTimings {
+
+    private static final String NO_ELEMENT = "";
+
+    private final String modelName;
+    private final Map<DecisionNodeType, Map<String, Map<String, DecisionNodeStatistics>>> statistics = new EnumMap<DecisionNodeType, Map<String, Map<String, DecisionNodeStatistics>>>(DecisionNodeType.class);
+
+    public DecisionModelTimings(String modelName) {
+
+        this.modelName = modelName;
+        for (DecisionNodeType type : DecisionNodeType.values()) {
+            statistics.put(type, new ConcurrentHashMap<String, Map<String, DecisionNodeStatistics>>());
+        }
+    }
+
+    public void record(final DecisionNodeTiming timing) {
+        getStatistics(timing.getType(), timing.getNodeName(), timing.getElementName()).record(timing.getNanoseconds());
+    }
+
+    public DecisionNodeStatistics getStatistics(final DecisionNodeType type, final String nodeName, final String elementName) {
+
+        // Nested lookups, so that recording does not build a composite key
+        String node = (nodeName != null) ? nodeName : NO_ELEMENT;
+        String element = (elementName != null) ? elementName : NO_ELEMENT;
+
+        Map<String, DecisionNodeStatistics> elements = statistics.get(type).get(node);
+        if (elements == null) {
+            elements = statistics.get(type).computeIfAbsent(node, key -> new ConcurrentHashMap<String, DecisionNodeStatistics>());
+        }
+
+        DecisionNodeStatistics entry = elements.get(element);
+        if (entry == null) {
+            entry = elements.computeIfAbsent(element, key -> new DecisionNodeStatistics(type, nodeName, elementName));
+        }
+
+        return entry;
+    }
+
+    public String getModelName() {
+        return this.modelName;
+    }
+
+    public List<DecisionNodeStatistics> getStatistics() {
+
+        List<DecisionNodeStatistics> entries = new ArrayList<DecisionNodeStatistics>();
+        for (Map<String, Map<String, DecisionNodeStatistics>> nodes : statistics.values()) {
+
+            for (Map<String, DecisionNodeStatistics> elements : nodes.values()) {
+                entries.addAll(elements.values());
+            }
+        }
+
+        return entries;
+    }
+
+    public List<DecisionNodeStatistics> getSlowestNodes(int limit) {
+
+        List<DecisionNodeStatistics> entries = getStatistics();
+        entries.sort(Comparator.comparingLong(DecisionNodeStatistics::getTotalNanos).reversed());
+        return (entries.size() > limit) ? new ArrayList<DecisionNodeStatistics>(entries.subList(0, Math.max(0, limit))) : entries;
+    }
+
+    public void reset() {
+
+        for (DecisionNodeStatistics entry : getStatistics()) {
+            entry.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[DecisionModelTimings: model=" + modelName + ", nodes=" + getStatistics() + "]";
+    }
+}
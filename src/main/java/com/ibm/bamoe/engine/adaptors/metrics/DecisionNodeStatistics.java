@@ -0,0 +1,71 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeType;
+
+public class DecisionNodeStatistics {
+
+    private final DecisionNodeType type;
+    private final String nodeName;
+    private final String elementName;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public DecisionNodeStatistics(DecisionNodeType type, String nodeName, String elementName) {
+        this.type = type;
+        this.nodeName = nodeName;
+        this.elementName = elementName;
+    }
+
+    public void record(long nanos) {
+
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public DecisionNodeType getType() {
+        return this.type;
+    }
+
+    public String getNodeName() {
+        return this.nodeName;
+    }
+
+    public String getElementName() {
+        return this.elementName;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getAverageNanos() {
+
+        long evaluations = count.sum();
+        return (evaluations == 0) ? 0 : totalNanos.sum() / evaluations;
+    }
+
+    public void reset() {
+
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + type + ": node=" + nodeName + ((elementName != null) ? ", element=" + elementName : "") + ", count=" + getCount() + ", totalNanos=" + getTotalNanos() + ", averageNanos=" + getAverageNanos() + ", maxNanos=" + getMaxNanos() + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.bamoe.engine.adaptors.model.ExecutionLimit;
+
+/**
+ * Latency statistics of an adaptor, and the executions cut short by a limit, one entry per ruleset or decision model name.
+ */
+public class ExecutionMetrics {
+
+    private final Map<String, ExecutionStatistics> statistics = new ConcurrentHashMap<String, ExecutionStatistics>();
+
+    public void record(final String name, final ExecutionTimer timer) {
+
+        ExecutionStatistics entry = statistics.get(name);
+        if (entry == null) {
+            entry = statistics.computeIfAbsent(name, ExecutionStatistics::new);
+        }
+
+        entry.record(timer);
+    }
+
+    public void recordTruncated(final String name, final ExecutionLimit limit) {
+
+        ExecutionStatistics entry = statistics.get(name);
+        if (entry == null) {
+            entry = statistics.computeIfAbsent(name, ExecutionStatistics::new);
+        }
+
+        entry.recordTruncated(limit);
+    }
+
+    public ExecutionStatistics getStatistics(String name) {
+        return statistics.get(name);
+    }
+
+    public Set<String> getNames() {
+        return statistics.keySet();
+    }
+
+    public void reset() {
+
+        for (ExecutionStatistics entry : statistics.values()) {
+            entry.reset();
+        }
+    }
+
+    public void remove(String name) {
+        statistics.remove(name);
+    }
+
+    @Override
+    public String toString() {
+        return statistics.values().toString();
+    }
+}
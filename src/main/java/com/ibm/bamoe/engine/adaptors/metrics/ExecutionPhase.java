@@ -0,0 +1,9 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+public enum ExecutionPhase {
+    CONTAINER_LOOKUP,
+    SESSION_CREATION,
+    FACT_INSERTION,
+    EXECUTION,
+    RESULT_MAPPING
+}
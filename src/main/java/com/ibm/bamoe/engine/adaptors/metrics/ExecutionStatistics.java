@@ -0,0 +1,95 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ibm.bamoe.engine.adaptors.model.ExecutionLimit;
+
+public class ExecutionStatistics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<ExecutionPhase, LatencyHistogram> phaseLatencies = new EnumMap<ExecutionPhase, LatencyHistogram>(ExecutionPhase.class);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder maxRuleFiringsReached = new LongAdder();
+
+    public ExecutionStatistics(String name) {
+
+        this.name = name;
+        for (ExecutionPhase phase : ExecutionPhase.values()) {
+            phaseLatencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public void record(final ExecutionTimer timer) {
+
+        latency.record(timer.getElapsedNanos());
+
+        // Only the phases the execution went through, so that skipped phases do not drag the percentiles down
+        for (Map.Entry<ExecutionPhase, LatencyHistogram> entry : phaseLatencies.entrySet()) {
+
+            if (timer.isMeasured(entry.getKey())) {
+                entry.getValue().record(timer.getPhaseNanos(entry.getKey()));
+            }
+        }
+    }
+
+    public void recordTruncated(final ExecutionLimit limit) {
+
+        if (limit == ExecutionLimit.DEADLINE) {
+            timeouts.increment();
+        } else if (limit == ExecutionLimit.MAX_RULE_FIRINGS) {
+            maxRuleFiringsReached.increment();
+        }
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getMaxRuleFiringsReachedCount() {
+        return maxRuleFiringsReached.sum();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    public LatencyHistogram getPhaseLatency(ExecutionPhase phase) {
+        return phaseLatencies.get(phase);
+    }
+
+    public void reset() {
+
+        latency.reset();
+        timeouts.reset();
+        maxRuleFiringsReached.reset();
+        for (LatencyHistogram histogram : phaseLatencies.values()) {
+            histogram.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("[ExecutionStatistics: name=" + name + ", " + latency);
+        for (Map.Entry<ExecutionPhase, LatencyHistogram> entry : phaseLatencies.entrySet()) {
+
+            if (entry.getValue().getCount() > 0) {
+                sb.append(", ").append(entry.getKey()).append("={").append(entry.getValue()).append("}");
+            }
+        }
+
+        // Limits are only reported once they were reached
+        if (getTimeoutCount() > 0 || getMaxRuleFiringsReachedCount() > 0) {
+            sb.append(", timeouts=").append(getTimeoutCount()).append(", maxRuleFiringsReached=").append(getMaxRuleFiringsReachedCount());
+        }
+
+        return sb.append("]").toString();
+    }
+}
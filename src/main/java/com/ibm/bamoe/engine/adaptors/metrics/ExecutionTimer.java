@@ -0,0 +1,94 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.bamoe.engine.adaptors.model.ExecutionDuration;
+
+/**
+ * Times a single execution with System.nanoTime. Each mark attributes the time since the previous mark to a phase;
+ * marking the same phase again adds to it. The wall clock is only read once, when the timer starts.
+ */
+public class ExecutionTimer {
+
+    private static final ExecutionPhase[] PHASES = ExecutionPhase.values();
+
+    private final long startedOnMillis;
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final boolean[] measured = new boolean[PHASES.length];
+    private long lastMarkNanos;
+    private long elapsedNanos = -1L;
+
+    private ExecutionTimer() {
+        this.startedOnMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.lastMarkNanos = startNanos;
+    }
+
+    public static ExecutionTimer start() {
+        return new ExecutionTimer();
+    }
+
+    public void mark(ExecutionPhase phase) {
+
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lastMarkNanos;
+        measured[phase.ordinal()] = true;
+        lastMarkNanos = now;
+    }
+
+    public long stop() {
+
+        if (elapsedNanos < 0) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        return elapsedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return (elapsedNanos < 0) ? System.nanoTime() - startNanos : elapsedNanos;
+    }
+
+    public boolean isMeasured(ExecutionPhase phase) {
+        return measured[phase.ordinal()];
+    }
+
+    public long getPhaseNanos(ExecutionPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getStartedOnMillis() {
+        return this.startedOnMillis;
+    }
+
+    public long getCompletedOnMillis() {
+        return startedOnMillis + TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+    }
+
+    public ExecutionDuration toExecutionDuration() {
+
+        long nanos = getElapsedNanos();
+
+        ExecutionDuration duration = new ExecutionDuration();
+        duration.setDays(TimeUnit.NANOSECONDS.toDays(nanos));
+        duration.setHours(TimeUnit.NANOSECONDS.toHours(nanos));
+        duration.setMinutes(TimeUnit.NANOSECONDS.toMinutes(nanos));
+        duration.setSeconds(TimeUnit.NANOSECONDS.toSeconds(nanos));
+        duration.setMilliseconds(TimeUnit.NANOSECONDS.toMillis(nanos));
+        duration.setNanoseconds(nanos);
+
+        Map<ExecutionPhase, Long> phases = new EnumMap<ExecutionPhase, Long>(ExecutionPhase.class);
+        for (ExecutionPhase phase : PHASES) {
+
+            if (measured[phase.ordinal()]) {
+                phases.put(phase, phaseNanos[phase.ordinal()]);
+            }
+        }
+
+        duration.setPhaseNanoseconds(phases);
+        return duration;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class KieSessionPoolMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordWait() {
+        waits.increment();
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getWaits() {
+        return waits.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + getHits() + ", misses=" + getMisses() + ", waits=" + getWaits() + ", timeouts=" + getTimeouts() + ", evictions=" + getEvictions();
+    }
+}
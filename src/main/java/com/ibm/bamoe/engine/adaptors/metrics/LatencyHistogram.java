@@ -0,0 +1,126 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram in nanoseconds with log-linear buckets, in the spirit of HdrHistogram.
+ * Values below 128ns are counted exactly, larger values with 64 sub-buckets per power of two (within ~1.6%),
+ * up to one hour; anything longer is counted in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+    private static final int BUCKET_COUNT = bucketIndex(HIGHEST_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public void record(long nanos) {
+
+        long value = Math.max(0L, Math.min(nanos, HIGHEST_TRACKABLE_VALUE));
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    public double getMean() {
+
+        long count = totalCount.sum();
+        return (count == 0) ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+
+        // Walk a snapshot of the buckets, concurrent recordings only shift the result by a few values
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+
+        if (count == 0) {
+            return 0L;
+        }
+
+        long target = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+
+            cumulative += snapshot[i];
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    public long getP50() {
+        return getValueAtPercentile(50.0);
+    }
+
+    public long getP99() {
+        return getValueAtPercentile(99.0);
+    }
+
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    public void reset() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private static int bucketIndex(long value) {
+
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + (subBucket - SUB_BUCKET_COUNT);
+    }
+
+    private static long highestEquivalentValue(int index) {
+
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", meanNanos=" + (long) getMean() + ", p50Nanos=" + getP50() + ", p99Nanos=" + getP99() + ", p999Nanos=" + getP999() + ", maxNanos=" + getMax();
+    }
+}
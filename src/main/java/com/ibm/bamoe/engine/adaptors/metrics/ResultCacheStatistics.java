@@ -0,0 +1,59 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+public class ResultCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+
+    public ResultCacheStatistics(long hits, long misses, long puts, long evictions, long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public long getPuts() {
+        return this.puts;
+    }
+
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    public long getExpirations() {
+        return this.expirations;
+    }
+
+    public long getInvalidations() {
+        return this.invalidations;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public double getHitRatio() {
+        return (hits + misses == 0) ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    @Override
+    public String toString() {
+        return "[ResultCache: hits=" + hits + ", misses=" + misses + ", hitRatio=" + getHitRatio() + ", puts=" + puts + ", evictions=" + evictions + ", expirations=" + expirations + ", invalidations=" + invalidations + ", size=" + size + "]";
+    }
+}
@@ -0,0 +1,56 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RuleProfile {
+
+    private final String packageName;
+    private final String ruleName;
+    private final LongAdder matchesCreated = new LongAdder();
+    private final LongAdder matchesCancelled = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public RuleProfile(String packageName, String ruleName) {
+        this.packageName = packageName;
+        this.ruleName = ruleName;
+    }
+
+    public void recordMatchCreated() {
+        matchesCreated.increment();
+    }
+
+    public void recordMatchCancelled() {
+        matchesCancelled.increment();
+    }
+
+    public void recordFired(long nanos) {
+
+        fired.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public String getPackageName() {
+        return this.packageName;
+    }
+
+    public String getRuleName() {
+        return this.ruleName;
+    }
+
+    public RuleProfileSnapshot snapshot() {
+        return new RuleProfileSnapshot(packageName, ruleName, matchesCreated.sum(), matchesCancelled.sum(), fired.sum(), totalNanos.sum(), maxNanos.get());
+    }
+
+    public void reset() {
+
+        matchesCreated.reset();
+        matchesCancelled.reset();
+        fired.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+public class RuleProfileSnapshot {
+
+    private final String packageName;
+    private final String ruleName;
+    private final long matchesCreated;
+    private final long matchesCancelled;
+    private final long fired;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    public RuleProfileSnapshot(String packageName, String ruleName, long matchesCreated, long matchesCancelled, long fired, long totalNanos, long maxNanos) {
+        this.packageName = packageName;
+        this.ruleName = ruleName;
+        this.matchesCreated = matchesCreated;
+        this.matchesCancelled = matchesCancelled;
+        this.fired = fired;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getPackageName() {
+        return this.packageName;
+    }
+
+    public String getRuleName() {
+        return this.ruleName;
+    }
+
+    public long getMatchesCreated() {
+        return this.matchesCreated;
+    }
+
+    public long getMatchesCancelled() {
+        return this.matchesCancelled;
+    }
+
+    public long getFired() {
+        return this.fired;
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    public long getAverageNanos() {
+        return (fired == 0) ? 0 : totalNanos / fired;
+    }
+
+    @Override
+    public String toString() {
+        return "[RuleProfile: package=" + packageName + ", rule=" + ruleName + ", matchesCreated=" + matchesCreated + ", matchesCancelled=" + matchesCancelled + ", fired=" + fired + ", totalNanos=" + totalNanos + ", averageNanos=" + getAverageNanos() + ", maxNanos=" + maxNanos + "]";
+    }
+}
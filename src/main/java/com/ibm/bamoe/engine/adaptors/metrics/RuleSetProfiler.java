@@ -0,0 +1,75 @@
+package com.ibm.bamoe.engine.adaptors.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-rule match and firing statistics of one ruleset, fed by the agenda listeners of all its sessions.
+ * Counters are striped, so sessions running on different threads do not contend on a shared counter.
+ */
+public class RuleSetProfiler {
+
+    private final String name;
+    private final Map<String, Map<String, RuleProfile>> profiles = new ConcurrentHashMap<String, Map<String, RuleProfile>>();
+
+    public RuleSetProfiler(String name) {
+        this.name = name;
+    }
+
+    public RuleProfile getProfile(final String packageName, String ruleName) {
+
+        // Rule names are only unique within their package, the same name may well be used by two packages
+        Map<String, RuleProfile> rules = profiles.get(packageName);
+        RuleProfile profile = (rules != null) ? rules.get(ruleName) : null;
+        if (profile == null) {
+
+            rules = profiles.computeIfAbsent(packageName, key -> new ConcurrentHashMap<String, RuleProfile>());
+            profile = rules.computeIfAbsent(ruleName, key -> new RuleProfile(packageName, key));
+        }
+
+        return profile;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public List<RuleProfileSnapshot> snapshot() {
+
+        List<RuleProfileSnapshot> snapshots = new ArrayList<RuleProfileSnapshot>();
+        for (Map<String, RuleProfile> rules : profiles.values()) {
+
+            for (RuleProfile profile : rules.values()) {
+                snapshots.add(profile.snapshot());
+            }
+        }
+
+        return snapshots;
+    }
+
+    public List<RuleProfileSnapshot> getHotRules(int limit) {
+
+        // The rules that spent the most time in their consequences first
+        List<RuleProfileSnapshot> snapshots = snapshot();
+        snapshots.sort(Comparator.comparingLong(RuleProfileSnapshot::getTotalNanos).reversed());
+        return (snapshots.size() > limit) ? new ArrayList<RuleProfileSnapshot>(snapshots.subList(0, Math.max(0, limit))) : snapshots;
+    }
+
+    public void reset() {
+
+        for (Map<String, RuleProfile> rules : profiles.values()) {
+
+            for (RuleProfile profile : rules.values()) {
+                profile.reset();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[RuleSetProfiler: name=" + name + ", rules=" + profiles.values().stream().mapToInt(Map::size).sum() + "]";
+    }
+}
@@ -0,0 +1,125 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchRuleResults {
+
+    private String startedOn;
+    private String completedOn;
+    private long startedOnMillis;
+    private long completedOnMillis;
+    private int recordCount;
+    private int parallelism;
+    private long firedRuleCount;
+    private long averageDurationNanos;
+    private double averageDurationMillis;
+    private ExecutionDuration executionDuration;
+    private List<RuleResults> results = new ArrayList<RuleResults>();
+
+    public String getStartedOn() {
+
+        // Formatted on first read only
+        if (this.startedOn == null) {
+            this.startedOn = ExecutionTimestamps.format(startedOnMillis);
+        }
+
+        return this.startedOn;
+    }
+
+    public void setStartedOn(String startedOn) {
+        this.startedOn = startedOn;
+    }
+
+    public String getCompletedOn() {
+
+        if (this.completedOn == null) {
+            this.completedOn = ExecutionTimestamps.format(completedOnMillis);
+        }
+
+        return this.completedOn;
+    }
+
+    public void setCompletedOn(String completedOn) {
+        this.completedOn = completedOn;
+    }
+
+    public long getStartedOnMillis() {
+        return this.startedOnMillis;
+    }
+
+    public void setStartedOnMillis(long startedOnMillis) {
+        this.startedOnMillis = startedOnMillis;
+        this.startedOn = null;
+    }
+
+    public long getCompletedOnMillis() {
+        return this.completedOnMillis;
+    }
+
+    public void setCompletedOnMillis(long completedOnMillis) {
+        this.completedOnMillis = completedOnMillis;
+        this.completedOn = null;
+    }
+
+    public int getRecordCount() {
+        return this.recordCount;
+    }
+
+    public void setRecordCount(int recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getFiredRuleCount() {
+        return this.firedRuleCount;
+    }
+
+    public void setFiredRuleCount(long firedRuleCount) {
+        this.firedRuleCount = firedRuleCount;
+    }
+
+    public long getAverageDurationNanos() {
+        return this.averageDurationNanos;
+    }
+
+    public void setAverageDurationNanos(long averageDurationNanos) {
+        this.averageDurationNanos = averageDurationNanos;
+    }
+
+    public double getAverageDurationMillis() {
+        return this.averageDurationMillis;
+    }
+
+    public void setAverageDurationMillis(double averageDurationMillis) {
+        this.averageDurationMillis = averageDurationMillis;
+    }
+
+    public ExecutionDuration getExecutionDuration() {
+        return this.executionDuration;
+    }
+
+    public void setExecutionDuration(ExecutionDuration executionDuration) {
+        this.executionDuration = executionDuration;
+    }
+
+    public List<RuleResults> getResults() {
+        return this.results;
+    }
+
+    public void setResults(List<RuleResults> results) {
+        this.results = results;
+    }
+
+    @Override
+    public String toString() {
+        return "startedOn=" + getStartedOn() + ", completedOn=" + getCompletedOn() + ", recordCount=" + recordCount + ", parallelism=" + parallelism + ", firedRuleCount=" + firedRuleCount + ", averageDurationNanos=" + averageDurationNanos + ", averageDurationMillis=" + averageDurationMillis + ", executionDuration=" + executionDuration;
+    }
+}
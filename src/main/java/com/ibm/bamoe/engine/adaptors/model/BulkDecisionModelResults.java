@@ -0,0 +1,107 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkDecisionModelResults {
+
+    private String startedOn;
+    private String completedOn;
+    private long startedOnMillis;
+    private long completedOnMillis;
+    private long recordCount;
+    private long failedCount;
+    private int parallelism;
+    private ExecutionDuration executionDuration;
+    private List<DecisionModelRecordResult> results = new ArrayList<DecisionModelRecordResult>();
+
+    public String getStartedOn() {
+
+        // Formatted on first read only
+        if (this.startedOn == null) {
+            this.startedOn = ExecutionTimestamps.format(startedOnMillis);
+        }
+
+        return this.startedOn;
+    }
+
+    public void setStartedOn(String startedOn) {
+        this.startedOn = startedOn;
+    }
+
+    public String getCompletedOn() {
+
+        if (this.completedOn == null) {
+            this.completedOn = ExecutionTimestamps.format(completedOnMillis);
+        }
+
+        return this.completedOn;
+    }
+
+    public void setCompletedOn(String completedOn) {
+        this.completedOn = completedOn;
+    }
+
+    public long getStartedOnMillis() {
+        return this.startedOnMillis;
+    }
+
+    public void setStartedOnMillis(long startedOnMillis) {
+        this.startedOnMillis = startedOnMillis;
+        this.startedOn = null;
+    }
+
+    public long getCompletedOnMillis() {
+        return this.completedOnMillis;
+    }
+
+    public void setCompletedOnMillis(long completedOnMillis) {
+        this.completedOnMillis = completedOnMillis;
+        this.completedOn = null;
+    }
+
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public long getFailedCount() {
+        return this.failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public ExecutionDuration getExecutionDuration() {
+        return this.executionDuration;
+    }
+
+    public void setExecutionDuration(ExecutionDuration executionDuration) {
+        this.executionDuration = executionDuration;
+    }
+
+    public List<DecisionModelRecordResult> getResults() {
+        return this.results;
+    }
+
+    public void setResults(List<DecisionModelRecordResult> results) {
+        this.results = results;
+    }
+
+    @Override
+    public String toString() {
+        return "startedOn=" + getStartedOn() + ", completedOn=" + getCompletedOn() + ", recordCount=" + recordCount + ", failedCount=" + failedCount + ", parallelism=" + parallelism + ", executionDuration=" + executionDuration;
+    }
+}
@@ -11,6 +11,39 @@ public class DecisionModelProperties {
     private String modelNamespace;
     private String modelName;
     private boolean listenerEnabled = false;
+    private int maxInFlight = 0;
+    private List<String> decisionNames;
+    private String decisionServiceName;
+    private boolean resultCacheEnabled = false;
+    private long evaluationTimeout = 0L;
+    private int evaluationMaxOverdue = 16;
+    private int bulkheadMaxConcurrent = 0;
+    private int bulkheadMaxQueued = 0;
+    private long bulkheadMaxWait = 1000L;
+    private boolean bulkheadAdaptive = false;
+
+    public DecisionModelProperties() {
+    }
+
+    public DecisionModelProperties(DecisionModelProperties other) {
+        this.name = other.name;
+        this.releaseId = other.releaseId;
+        this.kieBaseName = other.kieBaseName;
+        this.kieContainerType = other.kieContainerType;
+        this.modelNamespace = other.modelNamespace;
+        this.modelName = other.modelName;
+        this.listenerEnabled = other.listenerEnabled;
+        this.maxInFlight = other.maxInFlight;
+        this.decisionNames = other.decisionNames;
+        this.decisionServiceName = other.decisionServiceName;
+        this.resultCacheEnabled = other.resultCacheEnabled;
+        this.evaluationTimeout = other.evaluationTimeout;
+        this.evaluationMaxOverdue = other.evaluationMaxOverdue;
+        this.bulkheadMaxConcurrent = other.bulkheadMaxConcurrent;
+        this.bulkheadMaxQueued = other.bulkheadMaxQueued;
+        this.bulkheadMaxWait = other.bulkheadMaxWait;
+        this.bulkheadAdaptive = other.bulkheadAdaptive;
+    }
 
     public String getName() {
         return this.name;
@@ -72,7 +105,95 @@ public class DecisionModelProperties {
         this.listenerEnabled = listenerEnabled;
     }
 
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public List<String> getDecisionNames() {
+        return this.decisionNames;
+    }
+
+    public void setDecisionNames(List<String> decisionNames) {
+        this.decisionNames = decisionNames;
+    }
+
+    public String getDecisionServiceName() {
+        return this.decisionServiceName;
+    }
+
+    public void setDecisionServiceName(String decisionServiceName) {
+        this.decisionServiceName = decisionServiceName;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return this.resultCacheEnabled;
+    }
+
+    public boolean getResultCacheEnabled() {
+        return this.resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public long getEvaluationTimeout() {
+        return this.evaluationTimeout;
+    }
+
+    public void setEvaluationTimeout(long evaluationTimeout) {
+        this.evaluationTimeout = evaluationTimeout;
+    }
+
+    public int getEvaluationMaxOverdue() {
+        return this.evaluationMaxOverdue;
+    }
+
+    public void setEvaluationMaxOverdue(int evaluationMaxOverdue) {
+        this.evaluationMaxOverdue = evaluationMaxOverdue;
+    }
+
+    public int getBulkheadMaxConcurrent() {
+        return this.bulkheadMaxConcurrent;
+    }
+
+    public void setBulkheadMaxConcurrent(int bulkheadMaxConcurrent) {
+        this.bulkheadMaxConcurrent = bulkheadMaxConcurrent;
+    }
+
+    public int getBulkheadMaxQueued() {
+        return this.bulkheadMaxQueued;
+    }
+
+    public void setBulkheadMaxQueued(int bulkheadMaxQueued) {
+        this.bulkheadMaxQueued = bulkheadMaxQueued;
+    }
+
+    public long getBulkheadMaxWait() {
+        return this.bulkheadMaxWait;
+    }
+
+    public void setBulkheadMaxWait(long bulkheadMaxWait) {
+        this.bulkheadMaxWait = bulkheadMaxWait;
+    }
+
+    public boolean isBulkheadAdaptive() {
+        return this.bulkheadAdaptive;
+    }
+
+    public boolean getBulkheadAdaptive() {
+        return this.bulkheadAdaptive;
+    }
+
+    public void setBulkheadAdaptive(boolean bulkheadAdaptive) {
+        this.bulkheadAdaptive = bulkheadAdaptive;
+    }
+
     public String toString() {
-        return "[RuleSetProperties: name=" + name + ", releaseId=" + releaseId + ", kieBaseName=" + kieBaseName + ", kieContainerType=" + kieContainerType + ", modelNamespace=" + modelNamespace + ", modelName=" + modelName + ", listenerEnabled=" + listenerEnabled + "]";
+        return "[RuleSetProperties: name=" + name + ", releaseId=" + releaseId + ", kieBaseName=" + kieBaseName + ", kieContainerType=" + kieContainerType + ", modelNamespace=" + modelNamespace + ", modelName=" + modelName + ", listenerEnabled=" + listenerEnabled + ", maxInFlight=" + maxInFlight + ", decisionNames=" + decisionNames + ", decisionServiceName=" + decisionServiceName + ", resultCacheEnabled=" + resultCacheEnabled + ", evaluationTimeout=" + evaluationTimeout + ", evaluationMaxOverdue=" + evaluationMaxOverdue + ", bulkheadMaxConcurrent=" + bulkheadMaxConcurrent + ", bulkheadMaxQueued=" + bulkheadMaxQueued + ", bulkheadMaxWait=" + bulkheadMaxWait + ", bulkheadAdaptive=" + bulkheadAdaptive + "]";
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+public class DecisionModelRecordResult {
+
+    private long index;
+    private DecisionModelResults results;
+    private String failure;
+
+    public long getIndex() {
+        return this.index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public DecisionModelResults getResults() {
+        return this.results;
+    }
+
+    public void setResults(DecisionModelResults results) {
+        this.results = results;
+    }
+
+    public String getFailure() {
+        return this.failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public boolean isFailed() {
+        return this.failure != null;
+    }
+
+    @Override
+    public String toString() {
+        return "[record index=" + index + ", failure=" + failure + ", results=" + results + "]";
+    }
+}
@@ -7,10 +7,21 @@ public class DecisionModelResults {
 
     private String startedOn;
     private String completedOn;
+    private long startedOnMillis;
+    private long completedOnMillis;
     private ExecutionDuration executionDuration;
+    private boolean cached = false;
+    private ExecutionLimit truncatedBy;
     private List<DecisionResult> results = new ArrayList<DecisionResult>();
+    private List<DecisionNodeTiming> nodeTimings = new ArrayList<DecisionNodeTiming>();
 
     public String getStartedOn() {
+
+        // Formatted on first read only
+        if (this.startedOn == null) {
+            this.startedOn = ExecutionTimestamps.format(startedOnMillis);
+        }
+
         return this.startedOn;
     }
 
@@ -19,6 +30,11 @@ public class DecisionModelResults {
     }
 
     public String getCompletedOn() {
+
+        if (this.completedOn == null) {
+            this.completedOn = ExecutionTimestamps.format(completedOnMillis);
+        }
+
         return this.completedOn;
     }
 
@@ -26,6 +42,24 @@ public class DecisionModelResults {
         this.completedOn = completedOn;
     }
 
+    public long getStartedOnMillis() {
+        return this.startedOnMillis;
+    }
+
+    public void setStartedOnMillis(long startedOnMillis) {
+        this.startedOnMillis = startedOnMillis;
+        this.startedOn = null;
+    }
+
+    public long getCompletedOnMillis() {
+        return this.completedOnMillis;
+    }
+
+    public void setCompletedOnMillis(long completedOnMillis) {
+        this.completedOnMillis = completedOnMillis;
+        this.completedOn = null;
+    }
+
     public ExecutionDuration getExecutionDuration() {
         return this.executionDuration;
     }
@@ -42,8 +76,40 @@ public class DecisionModelResults {
         this.results = results;
     }
 
+    public List<DecisionNodeTiming> getNodeTimings() {
+        return this.nodeTimings;
+    }
+
+    public void setNodeTimings(List<DecisionNodeTiming> nodeTimings) {
+        this.nodeTimings = nodeTimings;
+    }
+
+    public boolean isCached() {
+        return this.cached;
+    }
+
+    public boolean getCached() {
+        return this.cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public boolean isTruncated() {
+        return this.truncatedBy != null;
+    }
+
+    public ExecutionLimit getTruncatedBy() {
+        return this.truncatedBy;
+    }
+
+    public void setTruncatedBy(ExecutionLimit truncatedBy) {
+        this.truncatedBy = truncatedBy;
+    }
+
     @Override
     public String toString() {
-        return "startedOn=" + startedOn + ", completedOn=" + completedOn + ", executionDuration=" + executionDuration + ", results=" + getResults();
+        return "startedOn=" + getStartedOn() + ", completedOn=" + getCompletedOn() + ", executionDuration=" + executionDuration + ", results=" + getResults() + ", nodeTimings=" + getNodeTimings() + ", cached=" + cached + ", truncatedBy=" + truncatedBy;
     }
 }
\ No newline at end of file
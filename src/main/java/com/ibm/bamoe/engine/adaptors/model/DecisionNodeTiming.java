@@ -0,0 +1,56 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+public class DecisionNodeTiming {
+
+    private DecisionNodeType type;
+    private String nodeName;
+    private String elementName;
+    private long nanoseconds;
+
+    public DecisionNodeTiming() {
+    }
+
+    public DecisionNodeTiming(DecisionNodeType type, String nodeName, String elementName, long nanoseconds) {
+        this.type = type;
+        this.nodeName = nodeName;
+        this.elementName = elementName;
+        this.nanoseconds = nanoseconds;
+    }
+
+    public DecisionNodeType getType() {
+        return this.type;
+    }
+
+    public void setType(DecisionNodeType type) {
+        this.type = type;
+    }
+
+    public String getNodeName() {
+        return this.nodeName;
+    }
+
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    public String getElementName() {
+        return this.elementName;
+    }
+
+    public void setElementName(String elementName) {
+        this.elementName = elementName;
+    }
+
+    public long getNanoseconds() {
+        return this.nanoseconds;
+    }
+
+    public void setNanoseconds(long nanoseconds) {
+        this.nanoseconds = nanoseconds;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + type + ": node=" + nodeName + ((elementName != null) ? ", element=" + elementName : "") + ", nanoseconds=" + nanoseconds + "]";
+    }
+}
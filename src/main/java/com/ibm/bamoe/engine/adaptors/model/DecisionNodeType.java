@@ -0,0 +1,5 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+public enum DecisionNodeType {
+    DECISION, DECISION_TABLE, CONTEXT_ENTRY;
+}
@@ -1,5 +1,10 @@
 package com.ibm.bamoe.engine.adaptors.model;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionPhase;
+
 public class ExecutionDuration {
 
     private long days = 0;
@@ -7,6 +12,8 @@ public class ExecutionDuration {
     private long minutes = 0;
     private long seconds = 0;
     private long milliseconds = 0L;
+    private long nanoseconds = 0L;
+    private Map<ExecutionPhase, Long> phaseNanoseconds = new EnumMap<ExecutionPhase, Long>(ExecutionPhase.class);
 
     public long getDays() {
         return this.days;
@@ -48,8 +55,24 @@ public class ExecutionDuration {
         this.milliseconds = milliseconds;
     }
 
+    public long getNanoseconds() {
+        return this.nanoseconds;
+    }
+
+    public void setNanoseconds(long nanoseconds) {
+        this.nanoseconds = nanoseconds;
+    }
+
+    public Map<ExecutionPhase, Long> getPhaseNanoseconds() {
+        return this.phaseNanoseconds;
+    }
+
+    public void setPhaseNanoseconds(Map<ExecutionPhase, Long> phaseNanoseconds) {
+        this.phaseNanoseconds = phaseNanoseconds;
+    }
+
     @Override
     public String toString() {
-        return "days=" + days + ", hours=" + hours + ", minutes=" + minutes + ", seconds=" + seconds + ", milliseconds=" + milliseconds;
+        return "days=" + days + ", hours=" + hours + ", minutes=" + minutes + ", seconds=" + seconds + ", milliseconds=" + milliseconds + ", nanoseconds=" + nanoseconds + ", phaseNanoseconds=" + phaseNanoseconds;
     }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+public enum ExecutionLimit {
+    DEADLINE, MAX_RULE_FIRINGS;
+}
@@ -0,0 +1,17 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+final class ExecutionTimestamps {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private ExecutionTimestamps() {
+    }
+
+    static String format(long epochMillis) {
+        return (epochMillis > 0) ? FORMATTER.format(Instant.ofEpochMilli(epochMillis)) : null;
+    }
+}
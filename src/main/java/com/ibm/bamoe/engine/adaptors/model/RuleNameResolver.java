@@ -0,0 +1,6 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+public interface RuleNameResolver {
+
+    String getRuleName(int ruleIndex);
+}
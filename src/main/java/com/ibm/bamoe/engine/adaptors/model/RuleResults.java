@@ -1,18 +1,33 @@
 package com.ibm.bamoe.engine.adaptors.model;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RuleResults {
 
     private String startedOn;
     private String completedOn;
+    private long startedOnMillis;
+    private long completedOnMillis;
     private int firedRuleCount;
     private ExecutionDuration executionDuration;
     private List<Object> facts = new ArrayList<Object>();
+    private Map<String, Object> outputs;
     private List<String> rulesFired = new ArrayList<String>();
+    private int[] firedRuleIndices;
+    private RuleNameResolver ruleNameResolver;
+    private boolean cached = false;
+    private ExecutionLimit truncatedBy;
 
     public String getStartedOn() {
+
+        // Formatted on first read only
+        if (this.startedOn == null) {
+            this.startedOn = ExecutionTimestamps.format(startedOnMillis);
+        }
+
         return this.startedOn;
     }
 
@@ -21,6 +36,11 @@ public class RuleResults {
     }
 
     public String getCompletedOn() {
+
+        if (this.completedOn == null) {
+            this.completedOn = ExecutionTimestamps.format(completedOnMillis);
+        }
+
         return this.completedOn;
     }
 
@@ -28,6 +48,24 @@ public class RuleResults {
         this.completedOn = completedOn;
     }
 
+    public long getStartedOnMillis() {
+        return this.startedOnMillis;
+    }
+
+    public void setStartedOnMillis(long startedOnMillis) {
+        this.startedOnMillis = startedOnMillis;
+        this.startedOn = null;
+    }
+
+    public long getCompletedOnMillis() {
+        return this.completedOnMillis;
+    }
+
+    public void setCompletedOnMillis(long completedOnMillis) {
+        this.completedOnMillis = completedOnMillis;
+        this.completedOn = null;
+    }
+
     public int getFiredRuleCount() {
         return this.firedRuleCount;
     }
@@ -52,7 +90,48 @@ public class RuleResults {
         this.facts = facts;
     }
 
+    public Map<String, Object> getOutputs() {
+
+        // Only rulesets that declare outputs fill them in
+        if (this.outputs == null) {
+            this.outputs = new LinkedHashMap<String, Object>();
+        }
+
+        return this.outputs;
+    }
+
+    public void setOutputs(Map<String, Object> outputs) {
+        this.outputs = outputs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getFacts(final Class<T> factClass) {
+
+        List<T> matchingFacts = new ArrayList<T>();
+        for (Object fact : facts) {
+
+            if (factClass.isInstance(fact)) {
+                matchingFacts.add((T) fact);
+            }
+        }
+
+        return matchingFacts;
+    }
+
     public List<String> getRulesFired() {
+
+        // Rules captured as indices are only named when read
+        if (this.rulesFired == null) {
+
+            this.rulesFired = new ArrayList<String>();
+            if (firedRuleIndices != null && ruleNameResolver != null) {
+
+                for (int ruleIndex : firedRuleIndices) {
+                    this.rulesFired.add(ruleNameResolver.getRuleName(ruleIndex));
+                }
+            }
+        }
+
         return this.rulesFired;
     }
 
@@ -60,8 +139,42 @@ public class RuleResults {
         this.rulesFired = rulesFired;
     }
 
+    public int[] getFiredRuleIndices() {
+        return this.firedRuleIndices;
+    }
+
+    public void setFiredRuleIndices(int[] firedRuleIndices, RuleNameResolver ruleNameResolver) {
+        this.firedRuleIndices = firedRuleIndices;
+        this.ruleNameResolver = ruleNameResolver;
+        this.rulesFired = null;
+    }
+
+    public boolean isCached() {
+        return this.cached;
+    }
+
+    public boolean getCached() {
+        return this.cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public boolean isTruncated() {
+        return this.truncatedBy != null;
+    }
+
+    public ExecutionLimit getTruncatedBy() {
+        return this.truncatedBy;
+    }
+
+    public void setTruncatedBy(ExecutionLimit truncatedBy) {
+        this.truncatedBy = truncatedBy;
+    }
+
     @Override
     public String toString() {
-        return "startedOn=" + startedOn + ", completedOn=" + completedOn + ", firedRuleCount=" + firedRuleCount + ", executionDuration=" + executionDuration + ", firedRules=" + rulesFired + ", updatedFacts=" + getFacts();
+        return "startedOn=" + getStartedOn() + ", completedOn=" + getCompletedOn() + ", firedRuleCount=" + firedRuleCount + ", executionDuration=" + executionDuration + ", firedRules=" + getRulesFired() + ", updatedFacts=" + getFacts() + ", outputs=" + outputs + ", cached=" + cached + ", truncatedBy=" + truncatedBy;
     }
 }
\ No newline at end of file
@@ -14,6 +14,64 @@ public class RuleSetProperties {
     private boolean ruleAgendaListenerEnabled = false;
     private boolean ruleWorkingMemoryListenerEnabled = false;
     private boolean processListenerEnabled = false;
+    private int sessionPoolMinSize = 0;
+    private int sessionPoolMaxSize = 0;
+    private long sessionPoolBorrowTimeout = 5000L;
+    private int maxInFlight = 0;
+    private boolean ruleProfilingEnabled = false;
+    private RuleCaptureMode ruleCaptureMode;
+    private boolean resultCacheEnabled = false;
+    private long sessionIdleTimeout = 1800000L;
+    private long sessionMaxLifetime = 0L;
+    private int shardCount = 0;
+    private String shardKey;
+    private boolean shardKeysIsolated = false;
+    private List<String> outputQueries;
+    private List<String> outputClasses;
+    private List<String> outputIdentifiers;
+    private long executionTimeout = 0L;
+    private int maxRuleFirings = 0;
+    private int bulkheadMaxConcurrent = 0;
+    private int bulkheadMaxQueued = 0;
+    private long bulkheadMaxWait = 1000L;
+    private boolean bulkheadAdaptive = false;
+
+    public RuleSetProperties() {
+    }
+
+    public RuleSetProperties(RuleSetProperties other) {
+        this.name = other.name;
+        this.releaseId = other.releaseId;
+        this.kieBaseName = other.kieBaseName;
+        this.kieSessionName = other.kieSessionName;
+        this.kieSessionType = other.kieSessionType;
+        this.kieContainerType = other.kieContainerType;
+        this.ruleFlowName = other.ruleFlowName;
+        this.ruleAgendaListenerEnabled = other.ruleAgendaListenerEnabled;
+        this.ruleWorkingMemoryListenerEnabled = other.ruleWorkingMemoryListenerEnabled;
+        this.processListenerEnabled = other.processListenerEnabled;
+        this.sessionPoolMinSize = other.sessionPoolMinSize;
+        this.sessionPoolMaxSize = other.sessionPoolMaxSize;
+        this.sessionPoolBorrowTimeout = other.sessionPoolBorrowTimeout;
+        this.maxInFlight = other.maxInFlight;
+        this.ruleProfilingEnabled = other.ruleProfilingEnabled;
+        this.ruleCaptureMode = other.ruleCaptureMode;
+        this.resultCacheEnabled = other.resultCacheEnabled;
+        this.sessionIdleTimeout = other.sessionIdleTimeout;
+        this.sessionMaxLifetime = other.sessionMaxLifetime;
+        this.shardCount = other.shardCount;
+        this.shardKey = other.shardKey;
+        this.shardKeysIsolated = other.shardKeysIsolated;
+        this.outputQueries = other.outputQueries;
+        this.outputClasses = other.outputClasses;
+        this.outputIdentifiers = other.outputIdentifiers;
+        this.executionTimeout = other.executionTimeout;
+        this.maxRuleFirings = other.maxRuleFirings;
+        this.bulkheadMaxConcurrent = other.bulkheadMaxConcurrent;
+        this.bulkheadMaxQueued = other.bulkheadMaxQueued;
+        this.bulkheadMaxWait = other.bulkheadMaxWait;
+        this.bulkheadAdaptive = other.bulkheadAdaptive;
+    }
 
     public String getName() {
         return this.name;
@@ -107,8 +165,198 @@ public class RuleSetProperties {
         this.processListenerEnabled = processListenerEnabled;
     }
     
+    public int getSessionPoolMinSize() {
+        return this.sessionPoolMinSize;
+    }
+
+    public void setSessionPoolMinSize(int sessionPoolMinSize) {
+        this.sessionPoolMinSize = sessionPoolMinSize;
+    }
+
+    public int getSessionPoolMaxSize() {
+        return this.sessionPoolMaxSize;
+    }
+
+    public void setSessionPoolMaxSize(int sessionPoolMaxSize) {
+        this.sessionPoolMaxSize = sessionPoolMaxSize;
+    }
+
+    public long getSessionPoolBorrowTimeout() {
+        return this.sessionPoolBorrowTimeout;
+    }
+
+    public void setSessionPoolBorrowTimeout(long sessionPoolBorrowTimeout) {
+        this.sessionPoolBorrowTimeout = sessionPoolBorrowTimeout;
+    }
+
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public boolean isRuleProfilingEnabled() {
+        return this.ruleProfilingEnabled;
+    }
+
+    public boolean getRuleProfilingEnabled() {
+        return this.ruleProfilingEnabled;
+    }
+
+    public void setRuleProfilingEnabled(boolean ruleProfilingEnabled) {
+        this.ruleProfilingEnabled = ruleProfilingEnabled;
+    }
+
+    public RuleCaptureMode getRuleCaptureMode() {
+
+        // Unless set, rule names are captured whenever the agenda listener is enabled
+        if (this.ruleCaptureMode == null) {
+            return ruleAgendaListenerEnabled ? RuleCaptureMode.NAMES : RuleCaptureMode.NONE;
+        }
+
+        return this.ruleCaptureMode;
+    }
+
+    public void setRuleCaptureMode(RuleCaptureMode ruleCaptureMode) {
+        this.ruleCaptureMode = ruleCaptureMode;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return this.resultCacheEnabled;
+    }
+
+    public boolean getResultCacheEnabled() {
+        return this.resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public long getSessionIdleTimeout() {
+        return this.sessionIdleTimeout;
+    }
+
+    public void setSessionIdleTimeout(long sessionIdleTimeout) {
+        this.sessionIdleTimeout = sessionIdleTimeout;
+    }
+
+    public long getSessionMaxLifetime() {
+        return this.sessionMaxLifetime;
+    }
+
+    public void setSessionMaxLifetime(long sessionMaxLifetime) {
+        this.sessionMaxLifetime = sessionMaxLifetime;
+    }
+
+    public int getShardCount() {
+        return this.shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public String getShardKey() {
+        return this.shardKey;
+    }
+
+    public void setShardKey(String shardKey) {
+        this.shardKey = shardKey;
+    }
+
+    public boolean isShardKeysIsolated() {
+        return this.shardKeysIsolated;
+    }
+
+    public boolean getShardKeysIsolated() {
+        return this.shardKeysIsolated;
+    }
+
+    public void setShardKeysIsolated(boolean shardKeysIsolated) {
+        this.shardKeysIsolated = shardKeysIsolated;
+    }
+
+    public List<String> getOutputQueries() {
+        return this.outputQueries;
+    }
+
+    public void setOutputQueries(List<String> outputQueries) {
+        this.outputQueries = outputQueries;
+    }
+
+    public List<String> getOutputClasses() {
+        return this.outputClasses;
+    }
+
+    public void setOutputClasses(List<String> outputClasses) {
+        this.outputClasses = outputClasses;
+    }
+
+    public List<String> getOutputIdentifiers() {
+        return this.outputIdentifiers;
+    }
+
+    public void setOutputIdentifiers(List<String> outputIdentifiers) {
+        this.outputIdentifiers = outputIdentifiers;
+    }
+
+    public long getExecutionTimeout() {
+        return this.executionTimeout;
+    }
+
+    public void setExecutionTimeout(long executionTimeout) {
+        this.executionTimeout = executionTimeout;
+    }
+
+    public int getMaxRuleFirings() {
+        return this.maxRuleFirings;
+    }
+
+    public void setMaxRuleFirings(int maxRuleFirings) {
+        this.maxRuleFirings = maxRuleFirings;
+    }
+
+    public int getBulkheadMaxConcurrent() {
+        return this.bulkheadMaxConcurrent;
+    }
+
+    public void setBulkheadMaxConcurrent(int bulkheadMaxConcurrent) {
+        this.bulkheadMaxConcurrent = bulkheadMaxConcurrent;
+    }
+
+    public int getBulkheadMaxQueued() {
+        return this.bulkheadMaxQueued;
+    }
+
+    public void setBulkheadMaxQueued(int bulkheadMaxQueued) {
+        this.bulkheadMaxQueued = bulkheadMaxQueued;
+    }
+
+    public long getBulkheadMaxWait() {
+        return this.bulkheadMaxWait;
+    }
+
+    public void setBulkheadMaxWait(long bulkheadMaxWait) {
+        this.bulkheadMaxWait = bulkheadMaxWait;
+    }
+
+    public boolean isBulkheadAdaptive() {
+        return this.bulkheadAdaptive;
+    }
+
+    public boolean getBulkheadAdaptive() {
+        return this.bulkheadAdaptive;
+    }
+
+    public void setBulkheadAdaptive(boolean bulkheadAdaptive) {
+        this.bulkheadAdaptive = bulkheadAdaptive;
+    }
+
     @Override
     public String toString() {
-        return "[RuleSetProperties: name=" + name + ", releaseId=" + releaseId + ", kieBaseName=" + kieBaseName + ", kieSessionName=" + kieSessionName + ", kieSessionType=" + kieSessionType + ", kieContainerType=" + kieContainerType + ", ruleFlowName=" + ruleFlowName + ", ruleAgendaListenerEnabled=" + ruleAgendaListenerEnabled + ", ruleWorkingMemoryListenerEnabled=" + ruleWorkingMemoryListenerEnabled + ", processListenerEnabled=" + processListenerEnabled + "]";
+        return "[RuleSetProperties: name=" + name + ", releaseId=" + releaseId + ", kieBaseName=" + kieBaseName + ", kieSessionName=" + kieSessionName + ", kieSessionType=" + kieSessionType + ", kieContainerType=" + kieContainerType + ", ruleFlowName=" + ruleFlowName + ", ruleAgendaListenerEnabled=" + ruleAgendaListenerEnabled + ", ruleWorkingMemoryListenerEnabled=" + ruleWorkingMemoryListenerEnabled + ", processListenerEnabled=" + processListenerEnabled + ", sessionPoolMinSize=" + sessionPoolMinSize + ", sessionPoolMaxSize=" + sessionPoolMaxSize + ", sessionPoolBorrowTimeout=" + sessionPoolBorrowTimeout + ", maxInFlight=" + maxInFlight + ", ruleProfilingEnabled=" + ruleProfilingEnabled + ", ruleCaptureMode=" + getRuleCaptureMode() + ", resultCacheEnabled=" + resultCacheEnabled + ", sessionIdleTimeout=" + sessionIdleTimeout + ", sessionMaxLifetime=" + sessionMaxLifetime + ", shardCount=" + shardCount + ", shardKey=" + shardKey + ", shardKeysIsolated=" + shardKeysIsolated + ", outputQueries=" + outputQueries + ", outputClasses=" + outputClasses + ", outputIdentifiers=" + outputIdentifiers + ", executionTimeout=" + executionTimeout + ", maxRuleFirings=" + maxRuleFirings + ", bulkheadMaxConcurrent=" + bulkheadMaxConcurrent + ", bulkheadMaxQueued=" + bulkheadMaxQueued + ", bulkheadMaxWait=" + bulkheadMaxWait + ", bulkheadAdaptive=" + bulkheadAdaptive + "]";
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WarmUpResults {
+
+    private WarmUpStatus status = WarmUpStatus.PENDING;
+    private long startedOnMillis;
+    private long completedOnMillis;
+    private long executionCount;
+    private ExecutionDuration executionDuration;
+    private List<String> ruleSetNames = new ArrayList<String>();
+    private List<String> decisionModelNames = new ArrayList<String>();
+    private Map<String, String> failures = new LinkedHashMap<String, String>();
+
+    public WarmUpStatus getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(WarmUpStatus status) {
+        this.status = status;
+    }
+
+    public long getStartedOnMillis() {
+        return this.startedOnMillis;
+    }
+
+    public void setStartedOnMillis(long startedOnMillis) {
+        this.startedOnMillis = startedOnMillis;
+    }
+
+    public long getCompletedOnMillis() {
+        return this.completedOnMillis;
+    }
+
+    public void setCompletedOnMillis(long completedOnMillis) {
+        this.completedOnMillis = completedOnMillis;
+    }
+
+    public long getExecutionCount() {
+        return this.executionCount;
+    }
+
+    public void setExecutionCount(long executionCount) {
+        this.executionCount = executionCount;
+    }
+
+    public ExecutionDuration getExecutionDuration() {
+        return this.executionDuration;
+    }
+
+    public void setExecutionDuration(ExecutionDuration executionDuration) {
+        this.executionDuration = executionDuration;
+    }
+
+    public List<String> getRuleSetNames() {
+        return this.ruleSetNames;
+    }
+
+    public void setRuleSetNames(List<String> ruleSetNames) {
+        this.ruleSetNames = ruleSetNames;
+    }
+
+    public List<String> getDecisionModelNames() {
+        return this.decisionModelNames;
+    }
+
+    public void setDecisionModelNames(List<String> decisionModelNames) {
+        this.decisionModelNames = decisionModelNames;
+    }
+
+    public Map<String, String> getFailures() {
+        return this.failures;
+    }
+
+    public void setFailures(Map<String, String> failures) {
+        this.failures = failures;
+    }
+
+    @Override
+    public String toString() {
+        return "status=" + status + ", ruleSetNames=" + ruleSetNames + ", decisionModelNames=" + decisionModelNames + ", executionCount=" + executionCount + ", failures=" + failures + ", executionDuration=" + executionDuration;
+    }
+}
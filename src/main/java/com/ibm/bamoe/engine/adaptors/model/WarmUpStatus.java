@@ -0,0 +1,5 @@
+package com.ibm.bamoe.engine.adaptors.model;
+
+public enum WarmUpStatus {
+    PENDING, RUNNING, READY, FAILED;
+}
@@ -0,0 +1,69 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.Objects;
+
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelProperties;
+
+public final class DecisionModelKey {
+
+    private final KieBaseKey kieBaseKey;
+    private final String modelNamespace;
+    private final String modelName;
+    private final boolean listenerEnabled;
+    private final int hash;
+
+    private DecisionModelKey(KieBaseKey kieBaseKey, String modelNamespace, String modelName, boolean listenerEnabled) {
+        this.kieBaseKey = kieBaseKey;
+        this.modelNamespace = modelNamespace;
+        this.modelName = modelName;
+        this.listenerEnabled = listenerEnabled;
+        this.hash = Objects.hash(kieBaseKey, modelNamespace, modelName, listenerEnabled);
+    }
+
+    public static DecisionModelKey of(final KieBaseKey kieBaseKey, DecisionModelProperties properties) {
+
+        // The kieBase of the release the model was prepared on, which is not always the configured one
+        return new DecisionModelKey(kieBaseKey, properties.getModelNamespace(), properties.getModelName(), properties.isListenerEnabled());
+    }
+
+    public KieBaseKey getKieBaseKey() {
+        return this.kieBaseKey;
+    }
+
+    public String getModelNamespace() {
+        return this.modelNamespace;
+    }
+
+    public String getModelName() {
+        return this.modelName;
+    }
+
+    public boolean isListenerEnabled() {
+        return this.listenerEnabled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof DecisionModelKey)) {
+            return false;
+        }
+
+        DecisionModelKey other = (DecisionModelKey) o;
+        return listenerEnabled == other.listenerEnabled && kieBaseKey.equals(other.kieBaseKey) && Objects.equals(modelNamespace, other.modelNamespace) && Objects.equals(modelName, other.modelName);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "[DecisionModelKey: kieBaseKey=" + kieBaseKey + ", modelNamespace=" + modelNamespace + ", modelName=" + modelName + ", listenerEnabled=" + listenerEnabled + "]";
+    }
+}
@@ -0,0 +1,109 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.api.command.ExecutableCommand;
+import org.kie.api.runtime.Context;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.command.RegistryContext;
+
+/**
+ * Bounds the wall-clock time of a single execution. Once bound to the session that runs the rules, the session is
+ * halted when the deadline expires, so that a looping ruleset returns what it has done so far instead of holding
+ * the caller and its session forever.
+ */
+public class ExecutionDeadline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionDeadline.class);
+
+    private static final ScheduledExecutorService deadlineScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("bamoe-execution-deadline").factory());
+
+    private final long timeoutMillis;
+    private KieSession kieSession;
+    private ScheduledFuture<?> timer;
+    private boolean expired;
+    private boolean closed;
+
+    public ExecutionDeadline(final long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    public ExecutableCommand<Void> bindCommand() {
+
+        // Sessions run their batch on the calling thread, the deadline is armed by its first command
+        return new ExecutableCommand<Void>() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Void execute(Context context) {
+
+                bind(((RegistryContext) context).lookup(KieSession.class));
+                return null;
+            }
+        };
+    }
+
+    public ExecutableCommand<Void> closeCommand() {
+
+        // Disarmed as soon as the rules are done, so that collecting the outputs never counts against it
+        return new ExecutableCommand<Void>() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Void execute(Context context) {
+
+                close();
+                return null;
+            }
+        };
+    }
+
+    public synchronized boolean isExpired() {
+        return this.expired;
+    }
+
+    public synchronized boolean close() {
+
+        closed = true;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+
+        kieSession = null;
+        return expired;
+    }
+
+    private synchronized void bind(final KieSession kieSession) {
+
+        // Armed once, by the first session bound to it
+        if (timeoutMillis <= 0 || closed || timer != null) {
+            return;
+        }
+
+        this.kieSession = kieSession;
+        this.timer = deadlineScheduler.schedule(this::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void expire() {
+
+        if (closed || kieSession == null) {
+            return;
+        }
+
+        logger.debug("Execution deadline expired, halting session: timeout=" + timeoutMillis + "ms");
+        expired = true;
+        kieSession.halt();
+    }
+}
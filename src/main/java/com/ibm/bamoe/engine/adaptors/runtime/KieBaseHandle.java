@@ -0,0 +1,223 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.StatelessKieSession;
+
+public final class KieBaseHandle {
+
+    private final KieBaseKey key;
+    private final KieContainer kieContainer;
+    private final KieBase kieBase;
+    private final RuleIndex ruleIndex;
+    private final boolean restored;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private int openSessions;
+    private Runnable sessionsClosed;
+    private final Map<List<String>, Class<?>[]> resolvedClasses = new ConcurrentHashMap<List<String>, Class<?>[]>();
+
+    KieBaseHandle(KieBaseKey key, KieContainer kieContainer, KieBase kieBase) {
+        this(key, kieContainer, kieBase, false);
+    }
+
+    KieBaseHandle(KieBaseKey key, KieContainer kieContainer, KieBase kieBase, boolean restored) {
+        this.key = key;
+        this.kieContainer = kieContainer;
+        this.kieBase = kieBase;
+        this.ruleIndex = new RuleIndex(kieBase);
+        this.restored = restored;
+    }
+
+    public KieBaseKey getKey() {
+        return this.key;
+    }
+
+    public KieContainer getKieContainer() {
+        return this.kieContainer;
+    }
+
+    public KieBase getKieBase() {
+        return this.kieBase;
+    }
+
+    public RuleIndex getRuleIndex() {
+        return this.ruleIndex;
+    }
+
+    public boolean isRestored() {
+        return this.restored;
+    }
+
+    public KieSession newKieSession(final String kieSessionName) {
+
+        // A kieBase restored from a snapshot creates its own sessions, the container would compile the kieBase again
+        if (!restored) {
+            return kieContainer.newKieSession(kieSessionName);
+        }
+
+        return kieBase.newKieSession(sessionConfiguration(kieSessionName), null);
+    }
+
+    public boolean isResettable(final String kieSessionName) {
+
+        // A reset drops the listeners, work item handlers, calendars and channels the container wired up from the
+        // kmodule, only the container can wire them again, on a new session
+        KieSessionModel kieSessionModel = null;
+        if (kieSessionName != null) {
+            kieSessionModel = kieContainer.getKieSessionModel(kieSessionName);
+        } else if (key.getKieBaseName() != null) {
+
+            KieBaseModel kieBaseModel = kieContainer.getKieBaseModel(key.getKieBaseName());
+            if (kieBaseModel != null) {
+
+                for (KieSessionModel candidate : kieBaseModel.getKieSessionModels().values()) {
+
+                    if (candidate.isDefault() && candidate.getType() == KieSessionModel.KieSessionType.STATEFUL) {
+                        kieSessionModel = candidate;
+                    }
+                }
+            }
+        }
+
+        return kieSessionModel == null || (kieSessionModel.getListenerModels().isEmpty() && kieSessionModel.getWorkItemHandlerModels().isEmpty() && kieSessionModel.getCalendars().isEmpty() && kieSessionModel.getChannelModels().isEmpty());
+    }
+
+    public StatelessKieSession newStatelessKieSession(final String kieSessionName) {
+
+        if (!restored) {
+            return kieContainer.newStatelessKieSession(kieSessionName);
+        }
+
+        return kieBase.newStatelessKieSession(sessionConfiguration(kieSessionName));
+    }
+
+    public Class<?>[] resolveClasses(final List<String> classNames) throws Exception {
+
+        // Resolved once per list of names, against the class loader of the release that declares the fact types
+        Class<?>[] classes = resolvedClasses.get(classNames);
+        if (classes != null) {
+            return classes;
+        }
+
+        classes = new Class<?>[classNames.size()];
+        for (int i = 0; i < classes.length; i++) {
+
+            try {
+                classes[i] = Class.forName(classNames.get(i), false, kieContainer.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new Exception("Unable to find fact class: " + classNames.get(i) + " in kieBase: " + key.getKieBaseName(), e);
+            }
+        }
+
+        resolvedClasses.put(List.copyOf(classNames), classes);
+        return classes;
+    }
+
+    public boolean tryAcquire() {
+
+        // A retired handle holds a negative count and admits no new executions
+        while (true) {
+
+            int count = inFlight.get();
+            if (count < 0) {
+                return false;
+            }
+
+            if (inFlight.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return Math.max(0, inFlight.get());
+    }
+
+    public boolean isRetired() {
+        return inFlight.get() < 0;
+    }
+
+    public synchronized void openSession() {
+
+        // Long-lived sessions are opened while an execution holds the handle, but do not count as in flight
+        openSessions++;
+    }
+
+    public void closeSession() {
+
+        Runnable closed;
+        synchronized (this) {
+
+            openSessions--;
+            closed = (openSessions == 0) ? sessionsClosed : null;
+            if (closed != null) {
+                sessionsClosed = null;
+            }
+        }
+
+        // Run outside of the lock, it disposes of the container of an evicted kieBase
+        if (closed != null) {
+            closed.run();
+        }
+    }
+
+    public synchronized int getOpenSessions() {
+        return this.openSessions;
+    }
+
+    synchronized boolean retainWhileSessionsOpen(final Runnable sessionsClosed) {
+
+        if (openSessions == 0) {
+            return false;
+        }
+
+        this.sessionsClosed = sessionsClosed;
+        return true;
+    }
+
+    boolean tryRetire() {
+        return inFlight.compareAndSet(0, -1);
+    }
+
+    void forceRetire() {
+        inFlight.set(Integer.MIN_VALUE / 2);
+    }
+
+    private KieSessionConfiguration sessionConfiguration(final String kieSessionName) {
+
+        KieSessionConfiguration kieSessionConfiguration = KieServices.Factory.get().newKieSessionConfiguration(null, kieContainer.getClassLoader());
+        if (kieSessionName == null) {
+            return kieSessionConfiguration;
+        }
+
+        KieSessionModel kieSessionModel = kieContainer.getKieSessionModel(kieSessionName);
+        if (kieSessionModel == null || !kieSessionModel.getKieBaseModel().getName().equals(key.getKieBaseName())) {
+            throw new RuntimeException("Cannot find KieSession: " + kieSessionName + " in kieBase: " + key.getKieBaseName());
+        }
+
+        if (kieSessionModel.getClockType() != null) {
+            kieSessionConfiguration.setOption(kieSessionModel.getClockType());
+        }
+
+        return kieSessionConfiguration;
+    }
+
+    @Override
+    public String toString() {
+        return "[KieBaseHandle: key=" + key + ", restored=" + restored + "]";
+    }
+}
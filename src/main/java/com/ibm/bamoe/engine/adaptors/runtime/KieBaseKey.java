@@ -0,0 +1,74 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.Objects;
+
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+
+public final class KieBaseKey {
+
+    private final KieContainerType kieContainerType;
+    private final String releaseId;
+    private final String kieBaseName;
+    private final int hash;
+
+    private KieBaseKey(KieContainerType kieContainerType, String releaseId, String kieBaseName) {
+        this.kieContainerType = kieContainerType;
+        this.releaseId = releaseId;
+        this.kieBaseName = kieBaseName;
+        this.hash = Objects.hash(kieContainerType, releaseId, kieBaseName);
+    }
+
+    public static KieBaseKey of(KieContainerType kieContainerType, String releaseId, String kieBaseName) {
+
+        // The releaseId plays no part in resolving a classpath container
+        String normalizedReleaseId = (kieContainerType == KieContainerType.CLASSPATH) ? null : releaseId;
+        return new KieBaseKey(kieContainerType, normalizedReleaseId, kieBaseName);
+    }
+
+    public boolean matches(final KieContainerType kieContainerType, String releaseId, String kieBaseName) {
+
+        String normalizedReleaseId = (kieContainerType == KieContainerType.CLASSPATH) ? null : releaseId;
+        return this.kieContainerType == kieContainerType && Objects.equals(this.releaseId, normalizedReleaseId) && Objects.equals(this.kieBaseName, kieBaseName);
+    }
+
+    public KieBaseKey containerKey() {
+        return (kieBaseName == null) ? this : new KieBaseKey(kieContainerType, releaseId, null);
+    }
+
+    public KieContainerType getKieContainerType() {
+        return this.kieContainerType;
+    }
+
+    public String getReleaseId() {
+        return this.releaseId;
+    }
+
+    public String getKieBaseName() {
+        return this.kieBaseName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof KieBaseKey)) {
+            return false;
+        }
+
+        KieBaseKey other = (KieBaseKey) o;
+        return kieContainerType == other.kieContainerType && Objects.equals(releaseId, other.releaseId) && Objects.equals(kieBaseName, other.kieBaseName);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "[KieBaseKey: kieContainerType=" + kieContainerType + ", releaseId=" + releaseId + ", kieBaseName=" + kieBaseName + "]";
+    }
+}
@@ -0,0 +1,366 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.drools.base.common.DroolsObjectInputStream;
+import org.drools.base.common.DroolsObjectOutputStream;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieContainerImpl;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.kiesession.rulebase.InternalKnowledgeBase;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.conf.DeclarativeAgendaOption;
+import org.kie.api.conf.EqualityBehaviorOption;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.conf.SequentialOption;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.runtime.KieContainer;
+import org.kie.util.maven.support.ReleaseIdImpl;
+
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+
+/**
+ * Stores the compiled packages of a KieBase on disk, so that later starts rebuild it without compiling any rules.
+ * Each snapshot records a fingerprint of the KIE module it was compiled from and is ignored once that module changes.
+ * KieBases holding DMN models, or whose sessions declare listeners, handlers, calendars or channels, are always compiled.
+ */
+public class KieBaseSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieBaseSnapshotStore.class);
+
+    private static final int MAGIC = 0x424B4253;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_SUFFIX = ".kbs";
+
+    private final Path directory;
+
+    public KieBaseSnapshotStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        // Build time entry point: <directory> <kieContainerType> <releaseId> <kieBaseName>...
+        if (args.length < 4) {
+            throw new Exception("Usage: KieBaseSnapshotStore <directory> <CLASSPATH|RELEASE_ID> <releaseId> <kieBaseName>...");
+        }
+
+        KieBaseSnapshotStore snapshotStore = new KieBaseSnapshotStore(Paths.get(args[0]));
+        KieContainerType kieContainerType = KieContainerType.valueOf(args[1]);
+
+        for (int i = 3; i < args.length; i++) {
+
+            KieBaseKey key = KieBaseKey.of(kieContainerType, args[2], args[i]);
+            KieServices kieServices = KieServices.Factory.get();
+            KieContainer kieContainer = (kieContainerType == KieContainerType.CLASSPATH) ? kieServices.newKieClasspathContainer() : kieServices.newKieContainer(new ReleaseIdImpl(args[2]));
+
+            try {
+
+                if (!snapshotStore.store(key, kieContainer, kieContainer.getKieBase(args[i]))) {
+                    throw new Exception("Unable to snapshot kieBase: " + key);
+                }
+            } finally {
+                kieContainer.dispose();
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    public KieBase load(final KieBaseKey key, KieContainer kieContainer) {
+
+        if (!isSupported(key, kieContainer)) {
+            return null;
+        }
+
+        Path snapshotPath = snapshotPath(key);
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+
+            // Mapped rather than read, the packages are deserialized straight from the page cache
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DataInputStream header = new DataInputStream(new ByteBufferInputStream(buffer));
+
+            if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION) {
+
+                logger.warn("Ignoring unreadable kieBase snapshot: " + snapshotPath);
+                return null;
+            }
+
+            String fingerprint = header.readUTF();
+            String expectedFingerprint = fingerprint(key, kieContainer);
+            if (!fingerprint.equals(expectedFingerprint)) {
+
+                logger.info("Ignoring stale kieBase snapshot: key=" + key + ", path=" + snapshotPath);
+                return null;
+            }
+
+            Collection<KiePackage> kiePackages = readPackages(new ByteBufferInputStream(buffer), kieContainer.getClassLoader());
+            KieBase kieBase = newKieBase(key, kieContainer, kiePackages);
+
+            logger.info("Loaded kieBase snapshot: key=" + key + ", packages=" + kiePackages.size() + ", millis=" + (System.nanoTime() - started) / 1000000L);
+            return kieBase;
+        } catch (Exception e) {
+
+            logger.warn("Unable to load kieBase snapshot, compiling instead: key=" + key + ", path=" + snapshotPath, e);
+            return null;
+        }
+    }
+
+    public boolean store(final KieBaseKey key, KieContainer kieContainer, KieBase kieBase) {
+
+        if (!isSupported(key, kieContainer)) {
+            return false;
+        }
+
+        Path snapshotPath = snapshotPath(key);
+        Path temporaryPath = null;
+        try {
+
+            Files.createDirectories(directory);
+            temporaryPath = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaryPath))) {
+
+                DataOutputStream header = new DataOutputStream(out);
+                header.writeInt(MAGIC);
+                header.writeInt(FORMAT_VERSION);
+                header.writeUTF(fingerprint(key, kieContainer));
+                header.flush();
+
+                ObjectOutputStream packages = new DroolsObjectOutputStream(out);
+                packages.writeObject(new ArrayList<KiePackage>(kieBase.getKiePackages()));
+                packages.flush();
+            }
+
+            // Replaced atomically, so that a concurrent start never reads a partial snapshot
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Stored kieBase snapshot: key=" + key + ", path=" + snapshotPath);
+
+            return true;
+        } catch (Exception e) {
+
+            logger.warn("Unable to store kieBase snapshot: key=" + key, e);
+            return false;
+        } finally {
+
+            if (temporaryPath != null) {
+
+                try {
+                    Files.deleteIfExists(temporaryPath);
+                } catch (IOException e) {
+                    logger.debug("Unable to delete temporary snapshot: " + temporaryPath);
+                }
+            }
+        }
+    }
+
+    public boolean delete(final KieBaseKey key) throws IOException {
+        return Files.deleteIfExists(snapshotPath(key));
+    }
+
+    private boolean isSupported(final KieBaseKey key, KieContainer kieContainer) {
+
+        if (key.getKieBaseName() == null || !(kieContainer instanceof KieContainerImpl)) {
+            return false;
+        }
+
+        KieBaseModel kieBaseModel = kieContainer.getKieBaseModel(key.getKieBaseName());
+        if (kieBaseModel == null) {
+            return false;
+        }
+
+        // Only the container wires up what the sessions declare in the kmodule
+        for (KieSessionModel kieSessionModel : kieBaseModel.getKieSessionModels().values()) {
+
+            if (!kieSessionModel.getListenerModels().isEmpty() || !kieSessionModel.getWorkItemHandlerModels().isEmpty() || !kieSessionModel.getCalendars().isEmpty() || !kieSessionModel.getChannelModels().isEmpty()) {
+                return false;
+            }
+        }
+
+        // DMN models are compiled by the DMN runtime and cannot be restored from packages
+        return !hasDecisionModels(key.getKieBaseName(), (KieContainerImpl) kieContainer, new HashSet<String>());
+    }
+
+    private boolean hasDecisionModels(final String kieBaseName, KieContainerImpl kieContainer, Set<String> visited) {
+
+        if (!visited.add(kieBaseName)) {
+            return false;
+        }
+
+        InternalKieModule kieModule = (InternalKieModule) kieContainer.getKieModuleForKBase(kieBaseName);
+        KieBaseModel kieBaseModel = kieContainer.getKieBaseModel(kieBaseName);
+        if (kieModule == null || kieBaseModel == null) {
+            return false;
+        }
+
+        for (String fileName : kieModule.getFileNames()) {
+
+            if (fileName.endsWith(".dmn") && kieModule.isFileInKBase(kieBaseModel, fileName)) {
+                return true;
+            }
+        }
+
+        for (String include : kieBaseModel.getIncludes()) {
+
+            if (hasDecisionModels(include, kieContainer, visited)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private KieBase newKieBase(final KieBaseKey key, KieContainer kieContainer, Collection<KiePackage> kiePackages) {
+
+        // The same options the container would apply from the kmodule
+        KieBaseModel kieBaseModel = kieContainer.getKieBaseModel(key.getKieBaseName());
+        KieBaseConfiguration kieBaseConfiguration = RuleBaseFactory.newKnowledgeBaseConfiguration(null, kieContainer.getClassLoader());
+        kieBaseConfiguration.setOption(kieBaseModel.getEqualsBehavior() != null ? kieBaseModel.getEqualsBehavior() : EqualityBehaviorOption.IDENTITY);
+        kieBaseConfiguration.setOption(kieBaseModel.getEventProcessingMode() != null ? kieBaseModel.getEventProcessingMode() : EventProcessingOption.CLOUD);
+        kieBaseConfiguration.setOption(kieBaseModel.getDeclarativeAgenda() != null ? kieBaseModel.getDeclarativeAgenda() : DeclarativeAgendaOption.DISABLED);
+        kieBaseConfiguration.setOption(kieBaseModel.getSequential() != null ? kieBaseModel.getSequential() : SequentialOption.NO);
+
+        InternalKnowledgeBase kieBase = KnowledgeBaseFactory.newKnowledgeBase(key.getKieBaseName(), kieBaseConfiguration);
+        kieBase.addPackages(kiePackages);
+
+        return kieBase;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<KiePackage> readPackages(final InputStream in, ClassLoader classLoader) throws Exception {
+
+        try (ObjectInputStream packages = new DroolsObjectInputStream(in, classLoader)) {
+            return (Collection<KiePackage>) packages.readObject();
+        }
+    }
+
+    private String fingerprint(final KieBaseKey key, KieContainer kieContainer) throws Exception {
+
+        // Covers the runtime version and every file of the modules the kieBase and its includes are built from
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(String.valueOf(KieServices.class.getPackage().getImplementationVersion()).getBytes(StandardCharsets.UTF_8));
+        digest.update(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+        digest.update(String.valueOf(kieContainer.getReleaseId()).getBytes(StandardCharsets.UTF_8));
+
+        for (InternalKieModule kieModule : modules(key.getKieBaseName(), kieContainer)) {
+
+            for (String fileName : new TreeSet<String>(kieModule.getFileNames())) {
+
+                byte[] bytes = kieModule.getBytes(fileName);
+                digest.update(fileName.getBytes(StandardCharsets.UTF_8));
+                if (bytes != null) {
+                    digest.update(bytes);
+                }
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private List<InternalKieModule> modules(final String kieBaseName, KieContainer kieContainer) {
+
+        List<InternalKieModule> kieModules = new ArrayList<InternalKieModule>();
+        collectModules(kieBaseName, (KieContainerImpl) kieContainer, kieModules, new HashSet<String>());
+
+        return kieModules;
+    }
+
+    private void collectModules(final String kieBaseName, KieContainerImpl kieContainer, List<InternalKieModule> kieModules, Set<String> visited) {
+
+        if (!visited.add(kieBaseName)) {
+            return;
+        }
+
+        InternalKieModule kieModule = (InternalKieModule) kieContainer.getKieModuleForKBase(kieBaseName);
+        if (kieModule != null && !kieModules.contains(kieModule)) {
+            kieModules.add(kieModule);
+        }
+
+        KieBaseModel kieBaseModel = kieContainer.getKieBaseModel(kieBaseName);
+        if (kieBaseModel != null) {
+
+            for (String include : kieBaseModel.getIncludes()) {
+                collectModules(include, kieContainer, kieModules, visited);
+            }
+        }
+    }
+
+    private Path snapshotPath(final KieBaseKey key) {
+
+        // One file per kieBase, named after the container type, releaseId and kieBase
+        String releaseId = (key.getReleaseId() != null) ? key.getReleaseId() : "classpath";
+        String fileName = (key.getKieContainerType() + "_" + releaseId + "_" + key.getKieBaseName()).replaceAll("[^A-Za-z0-9._-]", "_");
+
+        return directory.resolve(fileName + SNAPSHOT_SUFFIX);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+import org.kie.util.maven.support.ReleaseIdImpl;
+
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+
+/**
+ * Builds each KieContainer and KieBase once and hands them out lock-free to the adaptors.
+ * Building, eviction and disposal are serialized; lookups of an already built KieBase never block.
+ */
+public class KieContainerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieContainerRegistry.class);
+
+    private static final KieContainerRegistry INSTANCE = new KieContainerRegistry();
+
+    private final Map<KieBaseKey, KieContainer> containers = new ConcurrentHashMap<KieBaseKey, KieContainer>();
+    private final Map<KieBaseKey, KieBaseHandle> kieBases = new ConcurrentHashMap<KieBaseKey, KieBaseHandle>();
+    private final Set<KieBaseHandle> retainedKieBases = new HashSet<KieBaseHandle>();
+    private final Object lifecycleLock = new Object();
+    private final Map<Object, KieBaseKey> routes = new HashMap<Object, KieBaseKey>();
+    private final Map<KieBaseKey, Integer> routeCounts = new HashMap<KieBaseKey, Integer>();
+    private final Object routeLock = new Object();
+    private volatile KieBaseSnapshotStore snapshotStore;
+
+    public static KieContainerRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public KieBaseHandle getKieBase(final KieContainerType kieContainerType, final String releaseId, final String kieBaseName) throws Exception {
+
+        KieBaseKey key = KieBaseKey.of(kieContainerType, releaseId, kieBaseName);
+
+        // Already built, no locking required
+        KieBaseHandle handle = kieBases.get(key);
+        if (handle != null && !handle.isRetired()) {
+            return handle;
+        }
+
+        synchronized (lifecycleLock) {
+
+            handle = kieBases.get(key);
+            if (handle != null && handle.isRetired()) {
+
+                // Retired but not evicted yet, the kieBase is handed out again under a new handle
+                logger.debug("Reviving retired kieBase for: " + key);
+                retain(handle);
+                handle = new KieBaseHandle(key, handle.getKieContainer(), handle.getKieBase(), handle.isRestored());
+                kieBases.put(key, handle);
+            } else if (handle == null) {
+
+                logger.debug("Building kieBase for: " + key + "...");
+                KieContainer kieContainer = getOrCreateKieContainer(key.containerKey());
+                handle = buildKieBase(key, kieContainer);
+                kieBases.put(key, handle);
+            }
+        }
+
+        return handle;
+    }
+
+    public KieBaseSnapshotStore getSnapshotStore() {
+        return this.snapshotStore;
+    }
+
+    public void setSnapshotStore(KieBaseSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    public KieBaseHandle preload(final KieContainerType kieContainerType, final String releaseId, final String kieBaseName) throws Exception {
+        return getKieBase(kieContainerType, releaseId, kieBaseName);
+    }
+
+    public KieBaseHandle getLoadedKieBase(final KieContainerType kieContainerType, final String releaseId, final String kieBaseName) {
+        return kieBases.get(KieBaseKey.of(kieContainerType, releaseId, kieBaseName));
+    }
+
+    public boolean isLoaded(final KieContainerType kieContainerType, final String releaseId, final String kieBaseName) {
+        return kieBases.containsKey(KieBaseKey.of(kieContainerType, releaseId, kieBaseName));
+    }
+
+    public void route(final Object owner, KieBaseKey key) {
+
+        // Every name of every adaptor routing to a release is counted, whether configured or switched by an update
+        synchronized (routeLock) {
+
+            KieBaseKey previous = routes.put(owner, key);
+            if (key.equals(previous)) {
+                return;
+            }
+
+            if (previous != null) {
+                routeCounts.computeIfPresent(previous, (routedKey, count) -> (count > 1) ? count - 1 : null);
+            }
+
+            routeCounts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    public void unroute(final Object owner) {
+
+        synchronized (routeLock) {
+
+            KieBaseKey previous = routes.remove(owner);
+            if (previous != null) {
+                routeCounts.computeIfPresent(previous, (routedKey, count) -> (count > 1) ? count - 1 : null);
+            }
+        }
+    }
+
+    public int getRouteCount(final KieBaseKey key) {
+
+        synchronized (routeLock) {
+            return routeCounts.getOrDefault(key, 0);
+        }
+    }
+
+    public boolean isRouted(final KieBaseKey key) {
+        return getRouteCount(key) > 0;
+    }
+
+    public boolean retire(final KieBaseHandle handle, boolean force) {
+
+        // Only a release that no name routes to is retired, the check and the retirement are atomic with routing
+        synchronized (routeLock) {
+
+            if (routeCounts.containsKey(handle.getKey())) {
+                return false;
+            }
+
+            if (!force) {
+                return handle.tryRetire();
+            }
+
+            handle.forceRetire();
+            return true;
+        }
+    }
+
+    public boolean evict(final KieContainerType kieContainerType, final String releaseId, final String kieBaseName) {
+
+        KieBaseKey key = KieBaseKey.of(kieContainerType, releaseId, kieBaseName);
+
+        synchronized (lifecycleLock) {
+
+            KieBaseHandle handle = kieBases.remove(key);
+            if (handle == null) {
+                return false;
+            }
+
+            logger.debug("Evicted kieBase: " + key);
+            if (!retain(handle)) {
+                disposeUnusedKieContainer(key);
+            }
+
+            return true;
+        }
+    }
+
+    public boolean evict(final KieBaseHandle handle) {
+
+        synchronized (lifecycleLock) {
+
+            // Only this very handle, a kieBase rebuilt for the same key in the meantime is kept
+            if (!kieBases.remove(handle.getKey(), handle)) {
+                return false;
+            }
+
+            logger.debug("Evicted kieBase: " + handle.getKey());
+            if (!retain(handle)) {
+                disposeUnusedKieContainer(handle.getKey());
+            }
+
+            return true;
+        }
+    }
+
+    public void dispose() {
+
+        synchronized (lifecycleLock) {
+
+            kieBases.clear();
+            retainedKieBases.clear();
+
+            List<KieBaseKey> containerKeys = new ArrayList<KieBaseKey>(containers.keySet());
+            for (KieBaseKey containerKey : containerKeys) {
+                disposeKieContainer(containerKey, containers.remove(containerKey));
+            }
+        }
+    }
+
+    private boolean retain(final KieBaseHandle handle) {
+
+        // Long-lived sessions keep using an evicted kieBase, its container is disposed once the last of them is closed
+        if (!handle.retainWhileSessionsOpen(() -> releaseRetained(handle))) {
+            return false;
+        }
+
+        logger.debug("Keeping kieBase until its long-lived sessions are closed: " + handle.getKey() + ", openSessions=" + handle.getOpenSessions());
+        retainedKieBases.add(handle);
+
+        return true;
+    }
+
+    private void releaseRetained(final KieBaseHandle handle) {
+
+        synchronized (lifecycleLock) {
+
+            if (retainedKieBases.remove(handle)) {
+
+                logger.debug("Last long-lived session closed, releasing kieBase: " + handle.getKey());
+                disposeUnusedKieContainer(handle.getKey());
+            }
+        }
+    }
+
+    private void disposeUnusedKieContainer(final KieBaseKey key) {
+
+        // Dispose of the container once no other kieBase, nor a session of an evicted one, still refers to it
+        KieBaseKey containerKey = key.containerKey();
+        for (KieBaseKey other : kieBases.keySet()) {
+
+            if (other.containerKey().equals(containerKey)) {
+                return;
+            }
+        }
+
+        for (KieBaseHandle retained : retainedKieBases) {
+
+            if (retained.getKey().containerKey().equals(containerKey)) {
+                return;
+            }
+        }
+
+        KieContainer kieContainer = containers.remove(containerKey);
+        if (kieContainer != null) {
+            disposeKieContainer(containerKey, kieContainer);
+        }
+    }
+
+    private KieBaseHandle buildKieBase(final KieBaseKey key, KieContainer kieContainer) {
+
+        KieBaseSnapshotStore store = this.snapshotStore;
+        if (store == null) {
+            return new KieBaseHandle(key, kieContainer, kieContainer.getKieBase(key.getKieBaseName()));
+        }
+
+        // Restored from an up to date snapshot when there is one, otherwise compiled and snapshotted for the next start
+        KieBase kieBase = store.load(key, kieContainer);
+        if (kieBase != null) {
+            return new KieBaseHandle(key, kieContainer, kieBase, true);
+        }
+
+        // Snapshotted before the handle is published, while no session can be changing the kieBase being serialized
+        KieBase compiledKieBase = kieContainer.getKieBase(key.getKieBaseName());
+        store.store(key, kieContainer, compiledKieBase);
+
+        return new KieBaseHandle(key, kieContainer, compiledKieBase);
+    }
+
+    private KieContainer getOrCreateKieContainer(final KieBaseKey containerKey) throws Exception {
+
+        KieContainer kieContainer = containers.get(containerKey);
+        if (kieContainer == null) {
+
+            kieContainer = createKieContainer(KieServices.Factory.get(), containerKey.getKieContainerType(), containerKey.getReleaseId());
+            containers.put(containerKey, kieContainer);
+        }
+
+        return kieContainer;
+    }
+
+    private KieContainer createKieContainer(final KieServices kieServices, final KieContainerType kieContainerType, final String releaseId) throws Exception {
+
+        KieContainer kieContainer = null;
+
+        if (kieContainerType == KieContainerType.CLASSPATH) {
+
+            // A private classpath container, so that disposing it does not affect the shared one held by KieServices
+            logger.debug("Creating classpath container...");
+            kieContainer = kieServices.newKieClasspathContainer();
+        } else if (kieContainerType == KieContainerType.RELEASE_ID) {
+
+            logger.debug("Creating releaseId container: releaseId=" + releaseId + "...");
+            kieContainer = kieServices.newKieContainer(new ReleaseIdImpl(releaseId));
+        } else {
+           throw new Exception("Unsupported KIE container type: " + kieContainerType);
+        }
+
+        return kieContainer;
+    }
+
+    private void disposeKieContainer(final KieBaseKey containerKey, final KieContainer kieContainer) {
+
+        if (kieContainer == null) {
+            return;
+        }
+
+        try {
+
+            logger.debug("Disposing container: " + containerKey);
+            kieContainer.dispose();
+        } catch (Exception e) {
+            logger.warn("Failed to dispose container: " + containerKey, e);
+        }
+    }
+}
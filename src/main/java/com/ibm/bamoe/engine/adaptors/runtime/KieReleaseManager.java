@@ -0,0 +1,284 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+
+/**
+ * Routes each ruleset or decision model name to its active release and rolls new releases out without downtime.
+ * A new release is built and warmed up in the background, traffic is switched atomically, and the previous
+ * KieBase is evicted once its in-flight executions have drained and no name of either adaptor routes to it anymore.
+ */
+public class KieReleaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieReleaseManager.class);
+
+    public static final long DEFAULT_DRAIN_POLL_INTERVAL = 50L;
+    public static final long DEFAULT_DRAIN_TIMEOUT = 300000L;
+
+    private static final ScheduledExecutorService drainScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("bamoe-release-drain").factory());
+
+    @FunctionalInterface
+    public interface WarmUp {
+        void warmUp(KieBaseHandle kieBaseHandle) throws Exception;
+    }
+
+    private final KieContainerRegistry registry;
+    private final Map<String, ReleaseState> releases = new ConcurrentHashMap<String, ReleaseState>();
+    private final Map<KieBaseHandle, ScheduledFuture<?>> drains = new ConcurrentHashMap<KieBaseHandle, ScheduledFuture<?>>();
+    private volatile Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile long drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+    private volatile boolean disposed = false;
+
+    public KieReleaseManager(final KieContainerRegistry registry) {
+        this.registry = registry;
+    }
+
+    public String getReleaseId(final String name, final String configuredReleaseId) {
+
+        // Names that were never updated keep using their configured release
+        ReleaseState state = (name != null) ? releases.get(name) : null;
+        return (state != null && state.activeReleaseId != null) ? state.activeReleaseId : configuredReleaseId;
+    }
+
+    public String route(final String name, final KieContainerType kieContainerType, final String configuredReleaseId, final String kieBaseName) {
+
+        // A disposed manager no longer counts routes, they would never be released again
+        if (name == null || disposed) {
+            return configuredReleaseId;
+        }
+
+        ReleaseState state = releases.get(name);
+        if (state == null) {
+            state = releases.computeIfAbsent(name, key -> new ReleaseState());
+        }
+
+        // The shared registry is only told when the name moves to another release
+        String releaseId = (state.activeReleaseId != null) ? state.activeReleaseId : configuredReleaseId;
+        KieBaseKey routedKey = state.routedKey;
+        if (routedKey == null || !routedKey.matches(kieContainerType, releaseId, kieBaseName)) {
+
+            synchronized (state) {
+
+                releaseId = (state.activeReleaseId != null) ? state.activeReleaseId : configuredReleaseId;
+                state.routedKey = KieBaseKey.of(kieContainerType, releaseId, kieBaseName);
+                registry.route(state, state.routedKey);
+            }
+        }
+
+        return releaseId;
+    }
+
+    public String getPreviousReleaseId(final String name) {
+
+        ReleaseState state = releases.get(name);
+        return (state != null) ? state.previousReleaseId : null;
+    }
+
+    public boolean isPinned(final String name) {
+
+        ReleaseState state = releases.get(name);
+        return state != null && state.pinned;
+    }
+
+    public CompletableFuture<KieBaseHandle> update(final String name, final KieContainerType kieContainerType, final String kieBaseName, final String configuredReleaseId, final String releaseId, final WarmUp warmUp) {
+        return deploy(name, kieContainerType, kieBaseName, configuredReleaseId, releaseId, warmUp, false);
+    }
+
+    public CompletableFuture<KieBaseHandle> pin(final String name, final KieContainerType kieContainerType, final String kieBaseName, final String configuredReleaseId, final String releaseId, final WarmUp warmUp) {
+        return deploy(name, kieContainerType, kieBaseName, configuredReleaseId, releaseId, warmUp, true);
+    }
+
+    public void unpin(final String name) {
+
+        ReleaseState state = releases.get(name);
+        if (state != null) {
+
+            synchronized (state) {
+                state.pinned = false;
+            }
+        }
+    }
+
+    public CompletableFuture<KieBaseHandle> rollback(final String name, final KieContainerType kieContainerType, final String kieBaseName, final WarmUp warmUp) {
+
+        ReleaseState state = releases.get(name);
+        if (state == null || state.previousReleaseId == null) {
+            return CompletableFuture.failedFuture(new Exception("No previous release to roll back to: name=" + name));
+        }
+
+        return deploy(name, kieContainerType, kieBaseName, state.previousReleaseId, state.previousReleaseId, warmUp, state.pinned);
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public long getDrainTimeout() {
+        return this.drainTimeout;
+    }
+
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    public void dispose() {
+
+        // The names of a discarded adaptor no longer hold on to their releases in the shared registry
+        disposed = true;
+        for (ReleaseState state : releases.values()) {
+
+            synchronized (state) {
+
+                registry.unroute(state);
+                state.routedKey = null;
+            }
+        }
+
+        for (ScheduledFuture<?> drain : drains.values()) {
+            drain.cancel(false);
+        }
+
+        drains.clear();
+        releases.clear();
+    }
+
+    private CompletableFuture<KieBaseHandle> deploy(final String name, final KieContainerType kieContainerType, final String kieBaseName, final String configuredReleaseId, final String releaseId, final WarmUp warmUp, final boolean pin) {
+
+        if (disposed) {
+            return CompletableFuture.failedFuture(new Exception("Release manager is disposed: name=" + name));
+        }
+
+        if (kieContainerType != KieContainerType.RELEASE_ID) {
+            return CompletableFuture.failedFuture(new Exception("Only RELEASE_ID containers can be updated: name=" + name + ", kieContainerType=" + kieContainerType));
+        }
+
+        if (!pin && isPinned(name)) {
+            return CompletableFuture.failedFuture(new Exception("Release is pinned, unpin it before updating: name=" + name + ", releaseId=" + getReleaseId(name, configuredReleaseId)));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+
+            KieBaseHandle kieBaseHandle = null;
+            try {
+
+                // Build and warm up the new release while the current one keeps serving
+                logger.debug("Building release: name=" + name + ", releaseId=" + releaseId + "...");
+                kieBaseHandle = registry.preload(kieContainerType, releaseId, kieBaseName);
+                if (warmUp != null) {
+
+                    logger.debug("Warming up release: name=" + name + ", releaseId=" + releaseId + "...");
+                    warmUp.warmUp(kieBaseHandle);
+                }
+
+                // Switch traffic over, executions already running finish on the previous release
+                ReleaseState state = releases.computeIfAbsent(name, key -> new ReleaseState());
+                String replacedReleaseId;
+                synchronized (state) {
+
+                    if (state.pinned && !pin) {
+                        throw new Exception("Release was pinned during the update: name=" + name + ", releaseId=" + getReleaseId(name, configuredReleaseId));
+                    }
+
+                    replacedReleaseId = (state.activeReleaseId != null) ? state.activeReleaseId : configuredReleaseId;
+                    if (replacedReleaseId == null || !replacedReleaseId.equals(releaseId)) {
+                        state.previousReleaseId = replacedReleaseId;
+                    }
+
+                    state.activeReleaseId = releaseId;
+                    state.pinned = pin;
+                    state.routedKey = kieBaseHandle.getKey();
+                    registry.route(state, state.routedKey);
+                }
+
+                logger.info("Switched release: name=" + name + ", releaseId=" + releaseId + ", previousReleaseId=" + replacedReleaseId);
+
+                if (replacedReleaseId != null && !replacedReleaseId.equals(releaseId)) {
+                    retire(registry.getLoadedKieBase(kieContainerType, replacedReleaseId, kieBaseName));
+                }
+
+                return kieBaseHandle;
+            } catch (Exception e) {
+
+                // A release that failed to build or warm up is dropped again, unless a name routes to it
+                logger.warn("Release update failed: name=" + name + ", releaseId=" + releaseId, e);
+                retire(kieBaseHandle);
+
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private void retire(final KieBaseHandle kieBaseHandle) {
+
+        // Another name, of this adaptor or the other one, may still route to the same release
+        if (kieBaseHandle == null || registry.isRouted(kieBaseHandle.getKey())) {
+            return;
+        }
+
+        // The first check is deferred, so that executions that resolved the release just before the switch still get it
+        scheduleDrain(kieBaseHandle, System.nanoTime());
+    }
+
+    private void scheduleDrain(final KieBaseHandle kieBaseHandle, final long startedNanos) {
+
+        if (!disposed) {
+            drains.put(kieBaseHandle, drainScheduler.schedule(() -> drain(kieBaseHandle, startedNanos), DEFAULT_DRAIN_POLL_INTERVAL, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void drain(final KieBaseHandle kieBaseHandle, final long startedNanos) {
+
+        drains.remove(kieBaseHandle);
+        if (disposed) {
+            return;
+        }
+
+        // A name routed to the release again while it drained, by a rollback for instance, keeps it
+        if (registry.isRouted(kieBaseHandle.getKey())) {
+
+            logger.debug("Release is routed again, drain cancelled: " + kieBaseHandle);
+            return;
+        }
+
+        if (registry.retire(kieBaseHandle, false)) {
+
+            logger.debug("Release drained, evicting: " + kieBaseHandle);
+            registry.evict(kieBaseHandle);
+            return;
+        }
+
+        int inFlight = kieBaseHandle.getInFlight();
+        if (System.nanoTime() - startedNanos > drainTimeout * 1000000L && registry.retire(kieBaseHandle, true)) {
+
+            logger.warn("Release did not drain in time, evicting: " + kieBaseHandle + ", inFlight=" + inFlight);
+            registry.evict(kieBaseHandle);
+            return;
+        }
+
+        scheduleDrain(kieBaseHandle, startedNanos);
+    }
+
+    private static final class ReleaseState {
+
+        private volatile String activeReleaseId;
+        private volatile String previousReleaseId;
+        private volatile KieBaseKey routedKey;
+        private volatile boolean pinned = false;
+    }
+}
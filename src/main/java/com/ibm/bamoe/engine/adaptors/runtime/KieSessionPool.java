@@ -0,0 +1,187 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.api.runtime.KieSession;
+
+import com.ibm.bamoe.engine.adaptors.listeners.RuleEngineAgendaListener;
+import com.ibm.bamoe.engine.adaptors.listeners.SessionListeners;
+import com.ibm.bamoe.engine.adaptors.metrics.KieSessionPoolMetrics;
+import com.ibm.bamoe.engine.adaptors.metrics.RuleSetProfiler;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+
+/**
+ * A bounded pool of stateful sessions for one ruleset. Sessions keep their listeners and are reset, rather than
+ * disposed, when they are returned. Sessions declaring listeners, work item handlers, calendars or channels in the
+ * kmodule would lose them on reset, those are disposed when returned and the pool only bounds how many are in use.
+ */
+public class KieSessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieSessionPool.class);
+
+    private final RuleSetProperties properties;
+    private final KieBaseHandle kieBaseHandle;
+    private final RuleSetProfiler profiler;
+    private final int maxSize;
+    private final long borrowTimeout;
+    private final Semaphore permits;
+    private final boolean resettable;
+    private final BlockingDeque<PooledKieSession> idle = new LinkedBlockingDeque<PooledKieSession>();
+    private final KieSessionPoolMetrics metrics = new KieSessionPoolMetrics();
+    private volatile boolean closed = false;
+
+    public KieSessionPool(final RuleSetProperties properties, final KieBaseHandle kieBaseHandle) {
+        this(properties, kieBaseHandle, null);
+    }
+
+    public KieSessionPool(final RuleSetProperties properties, final KieBaseHandle kieBaseHandle, final RuleSetProfiler profiler) {
+
+        this.properties = new RuleSetProperties(properties);
+        this.kieBaseHandle = kieBaseHandle;
+        this.profiler = profiler;
+        this.maxSize = Math.max(1, properties.getSessionPoolMaxSize());
+        this.borrowTimeout = properties.getSessionPoolBorrowTimeout();
+        this.permits = new Semaphore(maxSize, true);
+        this.resettable = kieBaseHandle.isResettable(properties.getKieSessionName());
+
+        if (!resettable) {
+            logger.info("KIE session declares listeners, work item handlers, calendars or channels, pooled sessions are not reused: name=" + properties.getName() + ", kieSession=" + properties.getKieSessionName());
+        }
+
+        // Pre-create the minimum number of sessions
+        int minSize = resettable ? Math.min(properties.getSessionPoolMinSize(), maxSize) : 0;
+        logger.debug("Creating session pool: name=" + properties.getName() + ", minSize=" + minSize + ", maxSize=" + maxSize + "...");
+
+        for (int i = 0; i < minSize; i++) {
+            idle.offerLast(createSession());
+        }
+    }
+
+    public PooledKieSession borrow() throws Exception {
+
+        if (closed) {
+            throw new IllegalStateException("Session pool is closed: name=" + properties.getName());
+        }
+
+        if (!permits.tryAcquire()) {
+
+            metrics.recordWait();
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+
+                metrics.recordTimeout();
+                throw new TimeoutException("Timed out after " + borrowTimeout + "ms waiting for a session: name=" + properties.getName());
+            }
+        }
+
+        PooledKieSession session = idle.pollFirst();
+        if (session != null) {
+
+            metrics.recordHit();
+            return session;
+        }
+
+        metrics.recordMiss();
+
+        try {
+            return createSession();
+        } catch (RuntimeException e) {
+
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(final PooledKieSession session, final boolean reusable) {
+
+        try {
+
+            if (!closed && reusable && resettable) {
+
+                session.reset();
+                idle.offerFirst(session);
+            } else {
+                evict(session);
+            }
+        } catch (RuntimeException e) {
+
+            logger.warn("Unable to reset pooled session, discarding it: name=" + properties.getName(), e);
+            evict(session);
+        } finally {
+            permits.release();
+        }
+
+        // The pool may have been closed while the session was reset
+        if (closed && idle.remove(session)) {
+            evict(session);
+        }
+    }
+
+    public void close() {
+
+        closed = true;
+
+        PooledKieSession session;
+        while ((session = idle.pollFirst()) != null) {
+            evict(session);
+        }
+    }
+
+    public boolean isResettable() {
+        return this.resettable;
+    }
+
+    public KieBaseHandle getKieBaseHandle() {
+        return this.kieBaseHandle;
+    }
+
+    public KieSessionPoolMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    private PooledKieSession createSession() {
+
+        logger.debug("Creating pooled KIE session: name=" + properties.getKieSessionName() + "...");
+        KieSession kieSession = kieBaseHandle.newKieSession(properties.getKieSessionName());
+
+        // Listeners are created once for the lifetime of the session, and attached again on every reset
+        RuleEngineAgendaListener ruleAgendaListener = SessionListeners.newAgendaListener(properties, kieBaseHandle.getRuleIndex(), profiler);
+        SessionListeners.attach(kieSession, properties, ruleAgendaListener);
+
+        return new PooledKieSession(kieSession, ruleAgendaListener, properties);
+    }
+
+    private void evict(final PooledKieSession session) {
+
+        metrics.recordEviction();
+
+        try {
+            session.dispose();
+        } catch (RuntimeException e) {
+            logger.warn("Unable to dispose pooled session: name=" + properties.getName(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[KieSessionPool: name=" + properties.getName() + ", idle=" + getIdleCount() + ", active=" + getActiveCount() + ", maxSize=" + maxSize + ", " + metrics + "]";
+    }
+}
@@ -0,0 +1,240 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import com.ibm.bamoe.engine.adaptors.listeners.RuleEngineAgendaListener;
+import com.ibm.bamoe.engine.adaptors.listeners.SessionListeners;
+import com.ibm.bamoe.engine.adaptors.metrics.RuleSetProfiler;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+
+/**
+ * A stateful session that lives across executions, addressed by a session key. Facts are inserted, updated and deleted
+ * one at a time through their fact handles, so that each firing only works through the resulting agenda changes.
+ * The session holds on to its kieBase until it is closed, an updated release is only used by sessions opened later.
+ * Open sessions do not hold up the drain of a replaced release, but its container is only disposed once they are closed.
+ */
+public class LongLivedKieSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(LongLivedKieSession.class);
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(LongLivedKieSession session) throws Exception;
+    }
+
+    private final String sessionKey;
+    private final RuleSetProperties properties;
+    private final KieBaseHandle kieBaseHandle;
+    private final KieSession kieSession;
+    private final RuleEngineAgendaListener ruleAgendaListener;
+    private final Map<String, FactHandle> factHandles = new HashMap<String, FactHandle>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long createdNanos = System.nanoTime();
+    private volatile long lastAccessNanos = createdNanos;
+    private volatile long factCount = 0L;
+    private volatile boolean closed = false;
+
+    public LongLivedKieSession(final String sessionKey, RuleSetProperties properties, KieBaseHandle kieBaseHandle, RuleSetProfiler profiler) {
+
+        this.sessionKey = sessionKey;
+        this.properties = new RuleSetProperties(properties);
+        this.kieBaseHandle = kieBaseHandle;
+
+        // Listeners are attached once for the lifetime of the session
+        logger.debug("Creating long-lived KIE session: name=" + properties.getName() + ", sessionKey=" + sessionKey + "...");
+        this.kieSession = kieBaseHandle.newKieSession(properties.getKieSessionName());
+        this.ruleAgendaListener = SessionListeners.newAgendaListener(properties, kieBaseHandle.getRuleIndex(), profiler);
+        SessionListeners.attach(kieSession, properties, ruleAgendaListener);
+    }
+
+    public <T> T execute(final Work<T> work) throws Exception {
+
+        // Executions against the same session are serialized, a KieSession is not thread-safe
+        lock.lock();
+        try {
+
+            if (closed) {
+                throw new IllegalStateException("Long-lived session is closed: name=" + properties.getName() + ", sessionKey=" + sessionKey);
+            }
+
+            lastAccessNanos = System.nanoTime();
+            return work.execute(this);
+        } finally {
+
+            // Counted while the session is still locked, readers of the count never touch the session
+            if (!closed) {
+                factCount = kieSession.getFactCount();
+            }
+
+            lastAccessNanos = System.nanoTime();
+            lock.unlock();
+        }
+    }
+
+    public FactHandle insert(final Object fact) throws Exception {
+        return execute(session -> kieSession.insert(fact));
+    }
+
+    public FactHandle insert(final String factName, Object fact) throws Exception {
+
+        return execute(session -> {
+
+            // A named fact that is already known is updated in place
+            FactHandle factHandle = factHandles.get(factName);
+            if (factHandle != null) {
+
+                kieSession.update(factHandle, fact);
+                return factHandle;
+            }
+
+            factHandle = kieSession.insert(fact);
+            factHandles.put(factName, factHandle);
+
+            return factHandle;
+        });
+    }
+
+    public void update(final FactHandle factHandle, Object fact) throws Exception {
+
+        execute(session -> {
+
+            kieSession.update(factHandle, fact);
+            return null;
+        });
+    }
+
+    public void update(final FactHandle factHandle, Object fact, String... modifiedProperties) throws Exception {
+
+        // Only the rules constrained on the modified properties are re-evaluated
+        execute(session -> {
+
+            kieSession.update(factHandle, fact, modifiedProperties);
+            return null;
+        });
+    }
+
+    public void delete(final FactHandle factHandle) throws Exception {
+
+        execute(session -> {
+
+            kieSession.delete(factHandle);
+            factHandles.values().remove(factHandle);
+            return null;
+        });
+    }
+
+    public boolean delete(final String factName) throws Exception {
+
+        return execute(session -> {
+
+            FactHandle factHandle = factHandles.remove(factName);
+            if (factHandle == null) {
+                return false;
+            }
+
+            kieSession.delete(factHandle);
+            return true;
+        });
+    }
+
+    public FactHandle getFactHandle(final String factName) throws Exception {
+        return execute(session -> factHandles.get(factName));
+    }
+
+    public Map<String, FactHandle> getFactHandles() throws Exception {
+        return execute(session -> Collections.unmodifiableMap(new HashMap<String, FactHandle>(factHandles)));
+    }
+
+    public String getSessionKey() {
+        return this.sessionKey;
+    }
+
+    public RuleSetProperties getProperties() {
+        return this.properties;
+    }
+
+    public KieBaseHandle getKieBaseHandle() {
+        return this.kieBaseHandle;
+    }
+
+    public KieSession getKieSession() {
+        return this.kieSession;
+    }
+
+    public RuleEngineAgendaListener getRuleAgendaListener() {
+        return this.ruleAgendaListener;
+    }
+
+    public long getFactCount() {
+        return closed ? 0L : this.factCount;
+    }
+
+    public long getIdleMillis() {
+        return (System.nanoTime() - lastAccessNanos) / 1000000L;
+    }
+
+    public long getAgeMillis() {
+        return (System.nanoTime() - createdNanos) / 1000000L;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    boolean tryClose() {
+
+        // A session busy with an execution is left alone, it is looked at again on the next sweep
+        if (!lock.tryLock()) {
+            return false;
+        }
+
+        try {
+            close();
+        } finally {
+            lock.unlock();
+        }
+
+        return true;
+    }
+
+    void close() {
+
+        lock.lock();
+        try {
+
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            factCount = 0L;
+            logger.debug("Disposing long-lived KIE session: name=" + properties.getName() + ", sessionKey=" + sessionKey);
+
+            try {
+                kieSession.dispose();
+            } catch (RuntimeException e) {
+                logger.warn("Unable to dispose long-lived session: name=" + properties.getName() + ", sessionKey=" + sessionKey, e);
+            } finally {
+
+                // Lets the container of an evicted release be disposed once its last session is gone
+                kieBaseHandle.closeSession();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[LongLivedKieSession: name=" + properties.getName() + ", sessionKey=" + sessionKey + ", factCount=" + getFactCount() + ", closed=" + closed + "]";
+    }
+}
@@ -0,0 +1,159 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the long-lived sessions of an adaptor by ruleset and session key, and closes those that stayed idle,
+ * or lived, for longer than their ruleset allows.
+ */
+public class LongLivedSessionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(LongLivedSessionRegistry.class);
+
+    public static final long DEFAULT_SWEEP_INTERVAL = 1000L;
+
+    private static final ScheduledExecutorService sweepScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("bamoe-session-eviction").factory());
+
+    @FunctionalInterface
+    public interface SessionFactory {
+        LongLivedKieSession create() throws Exception;
+    }
+
+    private final Map<String, Map<String, LongLivedKieSession>> sessions = new ConcurrentHashMap<String, Map<String, LongLivedKieSession>>();
+    private final ScheduledFuture<?> sweeper;
+
+    public LongLivedSessionRegistry() {
+        this(DEFAULT_SWEEP_INTERVAL);
+    }
+
+    public LongLivedSessionRegistry(final long sweepInterval) {
+        this.sweeper = sweepScheduler.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public LongLivedKieSession get(final String ruleSetKey, String sessionKey) {
+
+        Map<String, LongLivedKieSession> ruleSetSessions = sessions.get(ruleSetKey);
+        LongLivedKieSession session = (ruleSetSessions != null) ? ruleSetSessions.get(sessionKey) : null;
+
+        return (session != null && !session.isClosed()) ? session : null;
+    }
+
+    public LongLivedKieSession getOrCreate(final String ruleSetKey, String sessionKey, SessionFactory sessionFactory) throws Exception {
+
+        LongLivedKieSession session = get(ruleSetKey, sessionKey);
+        if (session != null) {
+            return session;
+        }
+
+        Map<String, LongLivedKieSession> ruleSetSessions = sessions.computeIfAbsent(ruleSetKey, key -> new ConcurrentHashMap<String, LongLivedKieSession>());
+        synchronized (ruleSetSessions) {
+
+            // A session closed by the sweeper in the meantime is replaced
+            session = ruleSetSessions.get(sessionKey);
+            if (session == null || session.isClosed()) {
+
+                session = sessionFactory.create();
+                ruleSetSessions.put(sessionKey, session);
+            }
+        }
+
+        return session;
+    }
+
+    public boolean close(final String ruleSetKey, String sessionKey) {
+
+        Map<String, LongLivedKieSession> ruleSetSessions = sessions.get(ruleSetKey);
+        LongLivedKieSession session = (ruleSetSessions != null) ? ruleSetSessions.remove(sessionKey) : null;
+        if (session == null) {
+            return false;
+        }
+
+        session.close();
+        return true;
+    }
+
+    public int closeAll(final String ruleSetKey) {
+
+        Map<String, LongLivedKieSession> ruleSetSessions = sessions.remove(ruleSetKey);
+        if (ruleSetSessions == null) {
+            return 0;
+        }
+
+        int closed = 0;
+        for (LongLivedKieSession session : ruleSetSessions.values()) {
+
+            session.close();
+            closed++;
+        }
+
+        return closed;
+    }
+
+    public List<String> getSessionKeys(final String ruleSetKey) {
+
+        Map<String, LongLivedKieSession> ruleSetSessions = sessions.get(ruleSetKey);
+        return (ruleSetSessions != null) ? new ArrayList<String>(ruleSetSessions.keySet()) : new ArrayList<String>();
+    }
+
+    public int size() {
+
+        int size = 0;
+        for (Map<String, LongLivedKieSession> ruleSetSessions : sessions.values()) {
+            size += ruleSetSessions.size();
+        }
+
+        return size;
+    }
+
+    public void dispose() {
+
+        sweeper.cancel(false);
+
+        List<String> ruleSetKeys = new ArrayList<String>(sessions.keySet());
+        for (String ruleSetKey : ruleSetKeys) {
+            closeAll(ruleSetKey);
+        }
+    }
+
+    private void sweep() {
+
+        try {
+
+            for (Map<String, LongLivedKieSession> ruleSetSessions : sessions.values()) {
+
+                for (Map.Entry<String, LongLivedKieSession> entry : ruleSetSessions.entrySet()) {
+
+                    LongLivedKieSession session = entry.getValue();
+                    if (isExpired(session) && session.tryClose()) {
+
+                        ruleSetSessions.remove(entry.getKey(), session);
+                        logger.debug("Evicted long-lived session: " + session);
+                    } else if (session.isClosed()) {
+                        ruleSetSessions.remove(entry.getKey(), session);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Unable to sweep long-lived sessions", e);
+        }
+    }
+
+    private boolean isExpired(final LongLivedKieSession session) {
+
+        // A timeout of zero or less never expires
+        long idleTimeout = session.getProperties().getSessionIdleTimeout();
+        long maxLifetime = session.getProperties().getSessionMaxLifetime();
+
+        return (idleTimeout > 0 && session.getIdleMillis() > idleTimeout) || (maxLifetime > 0 && session.getAgeMillis() > maxLifetime);
+    }
+}
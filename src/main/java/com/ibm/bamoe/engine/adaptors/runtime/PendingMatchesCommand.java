@@ -0,0 +1,70 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.ArrayList;
+
+import org.drools.core.common.InternalAgenda;
+import org.drools.core.common.InternalAgendaGroup;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.phreak.RuleAgendaItem;
+import org.drools.core.phreak.RuleExecutor;
+import org.kie.api.command.ExecutableCommand;
+import org.kie.api.runtime.Context;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.command.RegistryContext;
+
+/**
+ * Tells whether a limited fireAllRules was cut short, or whether the rules had run out of matches by themselves.
+ * Rules queued on an active agenda group are evaluated the way the next fireAllRules would evaluate them, but nothing
+ * is fired, so the session is left as it was.
+ */
+public class PendingMatchesCommand implements ExecutableCommand<Boolean> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String outIdentifier;
+
+    public PendingMatchesCommand(final String outIdentifier) {
+        this.outIdentifier = outIdentifier;
+    }
+
+    @Override
+    public Boolean execute(Context context) {
+
+        boolean pending = hasPendingMatches(((RegistryContext) context).lookup(KieSession.class));
+        ((RegistryContext) context).lookup(ExecutionResults.class).setResult(outIdentifier, pending);
+
+        return pending;
+    }
+
+    public static boolean hasPendingMatches(final KieSession kieSession) {
+
+        // Without access to the agenda, the limit is assumed to have been reached
+        if (!(kieSession instanceof InternalWorkingMemory)) {
+            return true;
+        }
+
+        // Facts inserted or updated by the last consequence are only staged, they are propagated first
+        InternalWorkingMemory workingMemory = (InternalWorkingMemory) kieSession;
+        workingMemory.flushPropagations();
+
+        InternalAgenda agenda = workingMemory.getAgenda();
+        for (InternalAgendaGroup agendaGroup : agenda.getAgendaGroupsManager().getAgendaGroups()) {
+
+            if (!agendaGroup.isActive()) {
+                continue;
+            }
+
+            for (RuleAgendaItem ruleAgendaItem : new ArrayList<RuleAgendaItem>(agendaGroup.getActivations())) {
+
+                RuleExecutor ruleExecutor = ruleAgendaItem.getRuleExecutor();
+                ruleExecutor.evaluateNetworkIfDirty(agenda);
+                if (!ruleExecutor.getActiveMatches().isEmpty()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
+import org.kie.api.runtime.KieSession;
+
+import com.ibm.bamoe.engine.adaptors.listeners.RuleEngineAgendaListener;
+import com.ibm.bamoe.engine.adaptors.listeners.SessionListeners;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+
+public class PooledKieSession {
+
+    private final KieSession kieSession;
+    private final RuleEngineAgendaListener ruleAgendaListener;
+    private final RuleSetProperties properties;
+
+    PooledKieSession(KieSession kieSession, RuleEngineAgendaListener ruleAgendaListener, RuleSetProperties properties) {
+        this.kieSession = kieSession;
+        this.ruleAgendaListener = ruleAgendaListener;
+        this.properties = properties;
+    }
+
+    public KieSession getKieSession() {
+        return this.kieSession;
+    }
+
+    public RuleEngineAgendaListener getRuleAgendaListener() {
+        return this.ruleAgendaListener;
+    }
+
+    public void reset() {
+
+        // Memories, agenda, globals, timers and ruleflows are all reset in place, without firing any events the
+        // listeners would count; the listeners are dropped along with everything else and attached again
+        if (!(kieSession instanceof StatefulKnowledgeSessionImpl)) {
+            throw new UnsupportedOperationException("Unable to reset KIE session: " + kieSession.getClass().getName());
+        }
+
+        ((StatefulKnowledgeSessionImpl) kieSession).reset();
+        SessionListeners.attach(kieSession, properties, ruleAgendaListener);
+
+        if (ruleAgendaListener != null) {
+            ruleAgendaListener.reset();
+        }
+    }
+
+    void dispose() {
+        kieSession.dispose();
+    }
+}
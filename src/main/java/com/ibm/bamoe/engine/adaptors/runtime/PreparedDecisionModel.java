@@ -0,0 +1,429 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kie.api.runtime.KieRuntimeFactory;
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNDecisionResult;
+import org.kie.dmn.api.core.DMNMessage;
+import org.kie.dmn.api.core.DMNMessageType;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.dmn.api.core.ast.DecisionNode;
+import org.kie.dmn.api.core.ast.DecisionServiceNode;
+import org.kie.dmn.api.core.event.AfterEvaluateDecisionEvent;
+import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
+import org.kie.dmn.core.impl.DMNResultImpl;
+
+import com.ibm.bamoe.engine.adaptors.binding.FactBinding;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelProperties;
+import com.ibm.bamoe.engine.adaptors.listeners.DecisionModelEventListener;
+import com.ibm.bamoe.engine.adaptors.metrics.DecisionModelTimings;
+import com.ibm.bamoe.engine.adaptors.model.DecisionNodeTiming;
+
+/**
+ * A DMN runtime and model resolved once for a set of decision model properties.
+ * Evaluating the handle only creates a new context and evaluates it; the listener, if any, is attached once.
+ * The model is shared by every decision model name that refers to it on the same release, each name is handed its
+ * own handle on it, carrying the name and properties it is evaluated with.
+ * Evaluation can be limited to target decisions, or a decision service, and the decisions they require, and bounded
+ * in time, in which case the decisions completed by the deadline are returned with an error for the rest.
+ * DMN evaluation cannot be interrupted: an evaluation past its deadline keeps running, and keeps its release in use,
+ * until it completes. Overdue evaluations are counted per model, and new bounded evaluations are rejected while the
+ * count is at its limit.
+ */
+public class PreparedDecisionModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreparedDecisionModel.class);
+
+    private final DecisionModelKey key;
+    private final DecisionModelProperties properties;
+    private final KieBaseHandle kieBaseHandle;
+    private final DMNRuntime runtime;
+    private final DMNModel model;
+    private final DecisionModelEventListener listener;
+    private final SharedState shared;
+
+    private PreparedDecisionModel(DecisionModelKey key, DecisionModelProperties properties, KieBaseHandle kieBaseHandle, DMNRuntime runtime, DMNModel model, DecisionModelEventListener listener, SharedState shared) {
+        this.key = key;
+        this.properties = new DecisionModelProperties(properties);
+        this.kieBaseHandle = kieBaseHandle;
+        this.runtime = runtime;
+        this.model = model;
+        this.listener = listener;
+        this.shared = shared;
+    }
+
+    public static PreparedDecisionModel prepare(final DecisionModelProperties properties, final KieBaseHandle kieBaseHandle) throws Exception {
+        return prepare(properties, kieBaseHandle, new DecisionModelTimings(properties.getModelName()));
+    }
+
+    public static PreparedDecisionModel prepare(final DecisionModelProperties properties, final KieBaseHandle kieBaseHandle, final DecisionModelTimings timings) throws Exception {
+
+        // Obtain the DMN runtime from the KIE container and reference to the DMN model
+        logger.debug("Preparing decision model: name=" + properties.getName() + ", kieBase=" + properties.getKieBaseName() + "...");
+        DMNRuntime runtime = KieRuntimeFactory.of(kieBaseHandle.getKieBase()).get(DMNRuntime.class);
+        DMNModel model = runtime.getModel(properties.getModelNamespace(), properties.getModelName());
+
+        if (model == null) {
+            throw new Exception("Unable to find DMN model: namespace=" + properties.getModelNamespace() + ", name=" + properties.getModelName());
+        }
+
+        // Attach the timing listener once for the lifetime of this handle
+        DecisionModelEventListener listener = null;
+        if (properties.isListenerEnabled()) {
+
+            logger.debug("--> Attaching event listener...");
+            listener = new DecisionModelEventListener(timings);
+            runtime.addListener(listener);
+        }
+
+        return new PreparedDecisionModel(DecisionModelKey.of(kieBaseHandle.getKey(), properties), properties, kieBaseHandle, runtime, model, listener, new SharedState());
+    }
+
+    public PreparedDecisionModel withProperties(final DecisionModelProperties properties) {
+
+        // Another handle on the same runtime and model, for the name the properties belong to
+        return new PreparedDecisionModel(key, properties, kieBaseHandle, runtime, model, listener, shared);
+    }
+
+    public DMNResult evaluate(final Map<String,Object> facts) {
+
+        // Setting the DMN context
+        DMNContext context = newContext();
+
+        // Add facts to the DMN context
+        setFacts(context, facts);
+
+        // Execute the decision model
+        return evaluate(context);
+    }
+
+    public DMNContext newContext() {
+        return runtime.newContext();
+    }
+
+    public void setFacts(final DMNContext context, Map<String,Object> facts) {
+
+        for (Map.Entry<String, Object> fact : facts.entrySet()) {
+
+            if (logger.isDebugEnabled()) {
+                logger.debug(fact.getKey() + " -> " + fact.getValue());
+            }
+
+            context.set(fact.getKey(), fact.getValue());
+        }
+    }
+
+    public <T> void setFacts(final DMNContext context, FactBinding<T> factBinding, T facts) {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(factBinding.getType().getSimpleName() + " -> " + facts);
+        }
+
+        factBinding.bind(context, facts);
+    }
+
+    public DMNResult evaluate(final DMNContext context) {
+        return evaluate(context, null);
+    }
+
+    public DMNResult evaluate(final DMNContext context, List<DecisionNodeTiming> nodeTimings) {
+        return evaluate(context, null, null, nodeTimings);
+    }
+
+    public DMNResult evaluate(final DMNContext context, String[] decisionNames, String decisionServiceName, List<DecisionNodeTiming> nodeTimings) {
+
+        if (listener == null) {
+            return evaluateDecisions(context, decisionNames, decisionServiceName);
+        }
+
+        // Collect the per-node timings of this evaluation only
+        listener.begin();
+        try {
+            return evaluateDecisions(context, decisionNames, decisionServiceName);
+        } finally {
+
+            List<DecisionNodeTiming> timings = listener.end();
+            if (nodeTimings != null) {
+                nodeTimings.addAll(timings);
+            }
+        }
+    }
+
+    public DMNResult evaluate(final DMNContext context, String[] decisionNames, String decisionServiceName, List<DecisionNodeTiming> nodeTimings, long timeoutMillis, Executor executor) throws Exception {
+        return evaluate(context, decisionNames, decisionServiceName, nodeTimings, timeoutMillis, properties.getEvaluationMaxOverdue(), executor);
+    }
+
+    public DMNResult evaluate(final DMNContext context, String[] decisionNames, String decisionServiceName, List<DecisionNodeTiming> nodeTimings, long timeoutMillis, int maxOverdue, Executor executor) throws Exception {
+
+        if (timeoutMillis <= 0) {
+            return evaluate(context, decisionNames, decisionServiceName, nodeTimings);
+        }
+
+        // Evaluations that overran their deadline still hold an executor thread each, no more are started past the limit
+        if (maxOverdue > 0 && shared.overdueEvaluations.get() >= maxOverdue) {
+            throw new IllegalStateException("Too many decision model evaluations are running past their deadline: name=" + getName() + ", overdue=" + shared.overdueEvaluations.get() + ", maxOverdue=" + maxOverdue);
+        }
+
+        // DMN evaluation cannot be interrupted, it runs apart so that the caller only waits until the deadline
+        Queue<DMNDecisionResult> completed = new ConcurrentLinkedQueue<DMNDecisionResult>();
+        List<DecisionNodeTiming> evaluationTimings = new ArrayList<DecisionNodeTiming>();
+        DMNContext inputs = context.clone();
+        attachCompletionListener();
+
+        // The evaluation may outlive the caller, it holds its own reference to the release
+        if (!kieBaseHandle.tryAcquire()) {
+            throw new IllegalStateException("Decision model release was retired: name=" + getName() + ", key=" + key);
+        }
+
+        CompletableFuture<DMNResult> evaluation;
+        try {
+
+            evaluation = CompletableFuture.supplyAsync(() -> {
+
+                shared.completedDecisions.set(completed);
+                try {
+                    return evaluate(context, decisionNames, decisionServiceName, evaluationTimings);
+                } finally {
+
+                    shared.completedDecisions.remove();
+                    kieBaseHandle.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+
+            kieBaseHandle.release();
+            throw e;
+        }
+
+        try {
+
+            DMNResult results = evaluation.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (nodeTimings != null) {
+                nodeTimings.addAll(evaluationTimings);
+            }
+
+            return results;
+        } catch (TimeoutException e) {
+
+            // Counted until it completes, whenComplete runs at once when it completed in the meantime
+            shared.overdueEvaluations.incrementAndGet();
+            evaluation.whenComplete((results, failure) -> shared.overdueEvaluations.decrementAndGet());
+
+            logger.debug("Decision model evaluation timed out: name=" + getName() + ", timeout=" + timeoutMillis + "ms, completed=" + completed.size());
+            return new TruncatedResult(model, inputs, completed, timeoutMillis);
+        } catch (ExecutionException e) {
+
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw e;
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    public int getOverdueEvaluations() {
+        return shared.overdueEvaluations.get();
+    }
+
+    public static boolean isTruncated(final DMNResult results) {
+        return results instanceof TruncatedResult;
+    }
+
+    public String[] resolveDecisionNames(final List<String> decisionNamesOrIds) throws Exception {
+
+        if (decisionNamesOrIds == null || decisionNamesOrIds.isEmpty()) {
+            return null;
+        }
+
+        // Resolved once per list of targets, decisions may be referred to by name or by id
+        String[] decisionNames = shared.resolvedDecisionNames.get(decisionNamesOrIds);
+        if (decisionNames != null) {
+            return decisionNames;
+        }
+
+        decisionNames = new String[decisionNamesOrIds.size()];
+        for (int i = 0; i < decisionNames.length; i++) {
+
+            String decisionNameOrId = decisionNamesOrIds.get(i);
+            DecisionNode decision = model.getDecisionByName(decisionNameOrId);
+            if (decision == null) {
+                decision = model.getDecisionById(decisionNameOrId);
+            }
+
+            if (decision == null) {
+                throw new Exception("Unable to find decision in DMN model: name=" + model.getName() + ", decision=" + decisionNameOrId);
+            }
+
+            decisionNames[i] = decision.getName();
+        }
+
+        shared.resolvedDecisionNames.put(List.copyOf(decisionNamesOrIds), decisionNames);
+        return decisionNames;
+    }
+
+    public String resolveDecisionService(final String decisionServiceName) throws Exception {
+
+        if (decisionServiceName == null || shared.resolvedDecisionServices.contains(decisionServiceName)) {
+            return decisionServiceName;
+        }
+
+        for (DecisionServiceNode decisionService : model.getDecisionServices()) {
+
+            if (decisionService.getName().equals(decisionServiceName)) {
+
+                shared.resolvedDecisionServices.add(decisionServiceName);
+                return decisionServiceName;
+            }
+        }
+
+        throw new Exception("Unable to find decision service in DMN model: name=" + model.getName() + ", decisionService=" + decisionServiceName);
+    }
+
+    public void dispose() {
+
+        if (listener != null) {
+
+            logger.debug("Detaching event listener from decision model: key=" + key + "...");
+            runtime.removeListener(listener);
+        }
+
+        if (shared.completionListener != null) {
+            runtime.removeListener(shared.completionListener);
+        }
+    }
+
+    private void attachCompletionListener() {
+
+        if (shared.completionListener != null) {
+            return;
+        }
+
+        synchronized (shared) {
+
+            // Attached on the first bounded evaluation, only evaluations that registered a queue are tracked
+            if (shared.completionListener == null) {
+
+                DMNRuntimeEventListener tracker = new DMNRuntimeEventListener() {
+
+                    @Override
+                    public void afterEvaluateDecision(AfterEvaluateDecisionEvent event) {
+
+                        Queue<DMNDecisionResult> completed = shared.completedDecisions.get();
+                        if (completed != null) {
+
+                            DMNDecisionResult result = event.getResult().getDecisionResultById(event.getDecision().getId());
+                            if (result != null) {
+                                completed.add(result);
+                            }
+                        }
+                    }
+                };
+
+                runtime.addListener(tracker);
+                shared.completionListener = tracker;
+            }
+        }
+    }
+
+    private DMNResult evaluateDecisions(final DMNContext context, String[] decisionNames, String decisionServiceName) {
+
+        // Only the targets and the decisions they require are evaluated
+        if (decisionServiceName != null) {
+            return runtime.evaluateDecisionService(model, context, decisionServiceName);
+        } else if (decisionNames != null) {
+            return runtime.evaluateByName(model, context, decisionNames);
+        }
+
+        return runtime.evaluateAll(model, context);
+    }
+
+    public DecisionModelKey getKey() {
+        return this.key;
+    }
+
+    public Object getCacheOwner() {
+
+        // The same for every handle on the model, a model prepared again never shares it
+        return this.shared;
+    }
+
+    public String getName() {
+        return this.properties.getName();
+    }
+
+    public DecisionModelProperties getProperties() {
+        return this.properties;
+    }
+
+    public KieBaseHandle getKieBaseHandle() {
+        return this.kieBaseHandle;
+    }
+
+    public DMNRuntime getRuntime() {
+        return this.runtime;
+    }
+
+    public DMNModel getModel() {
+        return this.model;
+    }
+
+    public DecisionModelTimings getTimings() {
+        return (listener != null) ? listener.getTimings() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "[PreparedDecisionModel: name=" + getName() + ", key=" + key + "]";
+    }
+
+    private static final class SharedState {
+
+        private final Map<List<String>, String[]> resolvedDecisionNames = new ConcurrentHashMap<List<String>, String[]>();
+        private final Set<String> resolvedDecisionServices = ConcurrentHashMap.newKeySet();
+        private final ThreadLocal<Queue<DMNDecisionResult>> completedDecisions = new ThreadLocal<Queue<DMNDecisionResult>>();
+        private volatile DMNRuntimeEventListener completionListener;
+        private final AtomicInteger overdueEvaluations = new AtomicInteger();
+    }
+
+    private static class TruncatedResult extends DMNResultImpl {
+
+        TruncatedResult(final DMNModel model, DMNContext inputs, Queue<DMNDecisionResult> completed, long timeoutMillis) {
+
+            // The context of the evaluation is still being written to, the results get the inputs and completed decisions
+            super(model);
+            setContext(inputs);
+            for (DMNDecisionResult result : completed) {
+
+                inputs.set(result.getDecisionName(), result.getResult());
+                addDecisionResult(result);
+            }
+
+            addMessage(DMNMessage.Severity.ERROR, "Evaluation timed out: model=" + model.getName() + ", timeout=" + timeoutMillis + "ms, completed=" + completed.size(), DMNMessageType.ERROR_EVAL_NODE, null);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.api.KieBase;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.definition.rule.Rule;
+
+import com.ibm.bamoe.engine.adaptors.model.RuleNameResolver;
+
+/**
+ * Numbers the rules of a kieBase, so that fired rules can be captured as integers and named only when read.
+ * Looking up a known rule does not allocate; rules that were not in the kieBase when it was indexed are appended.
+ */
+public class RuleIndex implements RuleNameResolver {
+
+    private final KieBase kieBase;
+    private final Map<String, Map<String, Integer>> indices = new ConcurrentHashMap<String, Map<String, Integer>>();
+    private volatile String[] ruleNames = new String[0];
+    private boolean indexed = false;
+
+    RuleIndex(KieBase kieBase) {
+        this.kieBase = kieBase;
+    }
+
+    public int indexOf(final String packageName, final String ruleName) {
+
+        Map<String, Integer> rules = indices.get(packageName);
+        Integer index = (rules != null) ? rules.get(ruleName) : null;
+        return (index != null) ? index : register(packageName, ruleName);
+    }
+
+    @Override
+    public String getRuleName(int ruleIndex) {
+
+        String[] names = ruleNames;
+        return (ruleIndex >= 0 && ruleIndex < names.length) ? names[ruleIndex] : null;
+    }
+
+    public int size() {
+        return ruleNames.length;
+    }
+
+    private synchronized int register(final String packageName, final String ruleName) {
+
+        // Number all the rules of the kieBase on first use, so that indices follow the package order
+        if (!indexed) {
+
+            indexed = true;
+            for (KiePackage kiePackage : kieBase.getKiePackages()) {
+
+                for (Rule rule : kiePackage.getRules()) {
+                    append(rule.getPackageName(), rule.getName());
+                }
+            }
+        }
+
+        Map<String, Integer> rules = indices.get(packageName);
+        Integer index = (rules != null) ? rules.get(ruleName) : null;
+        return (index != null) ? index : append(packageName, ruleName);
+    }
+
+    private int append(final String packageName, final String ruleName) {
+
+        Map<String, Integer> rules = indices.computeIfAbsent(packageName, key -> new ConcurrentHashMap<String, Integer>());
+        Integer existing = rules.get(ruleName);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Publish the name before the index, so that a captured index can always be resolved
+        int index = ruleNames.length;
+        String[] names = Arrays.copyOf(ruleNames, index + 1);
+        names[index] = ruleName;
+        ruleNames = names;
+
+        rules.put(ruleName, index);
+        return index;
+    }
+}
@@ -0,0 +1,320 @@
+package com.ibm.bamoe.engine.adaptors.startup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import io.smallrye.config.SmallRyeConfig;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.bamoe.engine.adaptors.DecisionModelAdaptor;
+import com.ibm.bamoe.engine.adaptors.RuleEngineAdaptor;
+import com.ibm.bamoe.engine.adaptors.metrics.ExecutionTimer;
+import com.ibm.bamoe.engine.adaptors.metrics.RuleSetProfiler;
+import com.ibm.bamoe.engine.adaptors.model.DecisionModelProperties;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+import com.ibm.bamoe.engine.adaptors.model.WarmUpResults;
+import com.ibm.bamoe.engine.adaptors.model.WarmUpStatus;
+
+/**
+ * Builds every configured ruleset and decision model up front and runs sample facts through them,
+ * so that the first requests after startup do not pay for compilation and a cold JIT.
+ * Readiness is only reported once all names have been warmed up.
+ */
+public class EngineWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngineWarmUp.class);
+
+    private static final String KIE_SESSION_NAME   = "kie-session.name";
+    private static final String DMN_MODEL_NAME     = "dmn-model.name";
+    private static final String WARM_UP_ENABLED    = "warm-up.enabled";
+    private static final String WARM_UP_ITERATIONS = "warm-up.iterations";
+
+    public static final int DEFAULT_ITERATIONS = 1000;
+
+    private final RuleEngineAdaptor ruleEngineAdaptor;
+    private final DecisionModelAdaptor decisionModelAdaptor;
+    private final Map<String, RecordedFacts> recordedFacts = new ConcurrentHashMap<String, RecordedFacts>();
+    private final Map<String, IntFunction<Map<String,Object>>> factGenerators = new ConcurrentHashMap<String, IntFunction<Map<String,Object>>>();
+    private volatile Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile int defaultIterations = DEFAULT_ITERATIONS;
+    private volatile WarmUpStatus status = WarmUpStatus.PENDING;
+    private volatile WarmUpResults results;
+    private CompletableFuture<WarmUpResults> warmUp;
+
+    public EngineWarmUp(final RuleEngineAdaptor ruleEngineAdaptor, final DecisionModelAdaptor decisionModelAdaptor) {
+        this.ruleEngineAdaptor = ruleEngineAdaptor;
+        this.decisionModelAdaptor = decisionModelAdaptor;
+    }
+
+    public void setFacts(final String name, List<Map<String,Object>> facts) {
+
+        // Rules modify the facts they are given, so every iteration is replayed from a serialized copy of the recording
+        List<byte[]> serializedFacts = new ArrayList<byte[]>(facts.size());
+        for (Map<String,Object> factSet : facts) {
+
+            try {
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(new HashMap<String,Object>(factSet));
+                }
+
+                serializedFacts.add(bytes.toByteArray());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Warm-up facts are not serializable, a fact generator is needed instead: name=" + name + ", " + e.getMessage(), e);
+            }
+        }
+
+        recordedFacts.put(name, new RecordedFacts(serializedFacts, Thread.currentThread().getContextClassLoader()));
+    }
+
+    public void setFactGenerator(final String name, IntFunction<Map<String,Object>> factGenerator) {
+        factGenerators.put(name, factGenerator);
+    }
+
+    public synchronized CompletableFuture<WarmUpResults> start() {
+
+        // Started once, later callers wait on the same warm-up
+        if (warmUp == null) {
+
+            status = WarmUpStatus.RUNNING;
+            warmUp = CompletableFuture.supplyAsync(this::run, executor);
+        }
+
+        return warmUp;
+    }
+
+    public boolean isReady() {
+        return status == WarmUpStatus.READY;
+    }
+
+    public WarmUpStatus getStatus() {
+        return this.status;
+    }
+
+    public WarmUpResults getResults() {
+        return this.results;
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getDefaultIterations() {
+        return this.defaultIterations;
+    }
+
+    public void setDefaultIterations(int defaultIterations) {
+        this.defaultIterations = defaultIterations;
+    }
+
+    private WarmUpResults run() {
+
+        ExecutionTimer timer = ExecutionTimer.start();
+        var smallRyeConfig = ConfigProvider.getConfig().unwrap(SmallRyeConfig.class);
+
+        // Rulesets and decision models are told apart by the keys only they configure
+        TreeSet<String> ruleSetNames = new TreeSet<String>();
+        TreeSet<String> decisionModelNames = new TreeSet<String>();
+        for (String propertyName : smallRyeConfig.getPropertyNames()) {
+
+            if (propertyName.endsWith("." + KIE_SESSION_NAME)) {
+                addName(smallRyeConfig, ruleSetNames, propertyName.substring(0, propertyName.length() - KIE_SESSION_NAME.length() - 1));
+            } else if (propertyName.endsWith("." + DMN_MODEL_NAME)) {
+                addName(smallRyeConfig, decisionModelNames, propertyName.substring(0, propertyName.length() - DMN_MODEL_NAME.length() - 1));
+            }
+        }
+
+        logger.info("Warming up rulesets: " + ruleSetNames + ", decision models: " + decisionModelNames + "...");
+
+        AtomicLong executionCount = new AtomicLong();
+        Map<String, String> failures = new ConcurrentHashMap<String, String>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<CompletableFuture<Void>>();
+
+        // Names are built in parallel, as compiling the kieBases and DMN models dominates the warm-up
+        for (String ruleSetName : ruleSetNames) {
+            tasks.add(CompletableFuture.runAsync(() -> warmUpRuleSet(smallRyeConfig, ruleSetName, executionCount, failures), executor));
+        }
+
+        for (String decisionModelName : decisionModelNames) {
+            tasks.add(CompletableFuture.runAsync(() -> warmUpDecisionModel(smallRyeConfig, decisionModelName, executionCount, failures), executor));
+        }
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        timer.stop();
+
+        WarmUpResults warmUpResults = new WarmUpResults();
+        warmUpResults.setStatus(failures.isEmpty() ? WarmUpStatus.READY : WarmUpStatus.FAILED);
+        warmUpResults.setStartedOnMillis(timer.getStartedOnMillis());
+        warmUpResults.setCompletedOnMillis(timer.getCompletedOnMillis());
+        warmUpResults.setExecutionDuration(timer.toExecutionDuration());
+        warmUpResults.setExecutionCount(executionCount.get());
+        warmUpResults.setRuleSetNames(new ArrayList<String>(ruleSetNames));
+        warmUpResults.setDecisionModelNames(new ArrayList<String>(decisionModelNames));
+        warmUpResults.setFailures(new LinkedHashMap<String, String>(failures));
+
+        this.results = warmUpResults;
+        this.status = warmUpResults.getStatus();
+
+        if (failures.isEmpty()) {
+            logger.info("Warm-up completed: " + warmUpResults);
+        } else {
+            logger.warn("Warm-up completed with failures: " + warmUpResults);
+        }
+
+        return warmUpResults;
+    }
+
+    private void addName(final SmallRyeConfig smallRyeConfig, TreeSet<String> names, String name) {
+
+        if (smallRyeConfig.getOptionalValue(name + "." + WARM_UP_ENABLED, Boolean.class).orElse(Boolean.TRUE)) {
+            names.add(name);
+        }
+    }
+
+    private void warmUpRuleSet(final SmallRyeConfig smallRyeConfig, String ruleSetName, AtomicLong executionCount, Map<String, String> failures) {
+
+        try {
+
+            // Builds the kieBase, then runs through the regular path so that the session pool is filled as well
+            RuleSetProperties properties = ruleEngineAdaptor.getProperties(ruleSetName);
+            ruleEngineAdaptor.preload(properties);
+            properties.setResultCacheEnabled(false);
+
+            int iterations = hasFacts(ruleSetName) ? iterations(smallRyeConfig, ruleSetName) : 0;
+            for (int i = 0; i < iterations; i++) {
+
+                ruleEngineAdaptor.execute(properties, facts(ruleSetName, i));
+                executionCount.incrementAndGet();
+            }
+
+            // The warm-up executions are not part of the ruleset metrics
+            ruleEngineAdaptor.getExecutionMetrics().remove(ruleSetName);
+            RuleSetProfiler ruleProfiler = ruleEngineAdaptor.getRuleProfiler(ruleSetName);
+            if (ruleProfiler != null) {
+                ruleProfiler.reset();
+            }
+
+            logger.debug("Warmed up ruleset: name=" + ruleSetName + ", iterations=" + iterations);
+        } catch (Exception e) {
+
+            logger.warn("Unable to warm up ruleset: name=" + ruleSetName, e);
+            failures.put(ruleSetName, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void warmUpDecisionModel(final SmallRyeConfig smallRyeConfig, String decisionModelName, AtomicLong executionCount, Map<String, String> failures) {
+
+        try {
+
+            // Compiles the DMN model, then evaluates it through the regular path
+            DecisionModelProperties properties = decisionModelAdaptor.getProperties(decisionModelName);
+            decisionModelAdaptor.prepare(properties);
+            properties.setResultCacheEnabled(false);
+
+            int iterations = hasFacts(decisionModelName) ? iterations(smallRyeConfig, decisionModelName) : 0;
+            for (int i = 0; i < iterations; i++) {
+
+                decisionModelAdaptor.execute(properties, facts(decisionModelName, i));
+                executionCount.incrementAndGet();
+            }
+
+            // The warm-up executions are not part of the decision model metrics
+            decisionModelAdaptor.getExecutionMetrics().remove(decisionModelName);
+            decisionModelAdaptor.getDecisionModelTimings(properties).reset();
+
+            logger.debug("Warmed up decision model: name=" + decisionModelName + ", iterations=" + iterations);
+        } catch (Exception e) {
+
+            logger.warn("Unable to warm up decision model: name=" + decisionModelName, e);
+            failures.put(decisionModelName, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private int iterations(final SmallRyeConfig smallRyeConfig, String name) {
+        return smallRyeConfig.getOptionalValue(name + "." + WARM_UP_ITERATIONS, Integer.class).orElse(defaultIterations);
+    }
+
+    private boolean hasFacts(final String name) {
+
+        // Without facts the name is only built, running it empty would exercise little beyond the adaptor itself
+        RecordedFacts recorded = recordedFacts.get(name);
+        return (recorded != null && !recorded.factSets.isEmpty()) || factGenerators.containsKey(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String,Object> facts(final String name, int iteration) throws Exception {
+
+        // Recorded fact sets are replayed in turn, otherwise facts are generated
+        RecordedFacts recorded = recordedFacts.get(name);
+        if (recorded != null && !recorded.factSets.isEmpty()) {
+
+            try (ObjectInputStream in = new RecordedFactsInputStream(new ByteArrayInputStream(recorded.factSets.get(iteration % recorded.factSets.size())), recorded.classLoader)) {
+                return (Map<String,Object>) in.readObject();
+            }
+        }
+
+        return factGenerators.get(name).apply(iteration);
+    }
+
+    private static final class RecordedFacts {
+
+        private final List<byte[]> factSets;
+        private final ClassLoader classLoader;
+
+        private RecordedFacts(List<byte[]> factSets, ClassLoader classLoader) {
+            this.factSets = factSets;
+            this.classLoader = classLoader;
+        }
+    }
+
+    private static final class RecordedFactsInputStream extends ObjectInputStream {
+
+        private final ClassLoader classLoader;
+
+        private RecordedFactsInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+
+            // Fact classes are resolved where they were recorded, the warm-up threads may not see them
+            if (classLoader != null) {
+
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // Falls back to the default resolution, which also covers primitive types
+                }
+            }
+
+            return super.resolveClass(desc);
+        }
+    }
+}
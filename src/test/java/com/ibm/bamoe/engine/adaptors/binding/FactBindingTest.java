@@ -0,0 +1,66 @@
+package com.ibm.bamoe.engine.adaptors.binding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reads the properties of records and beans as DMN input data, by property name or by the name given with {@link DecisionName}.
+ */
+public class FactBindingTest {
+
+    public record Applicant(@DecisionName("Applicant Age") int age, String name) {
+    }
+
+    public static class Loan {
+
+        private long amount;
+        private boolean secured;
+
+        public Loan(long amount, boolean secured) {
+            this.amount = amount;
+            this.secured = secured;
+        }
+
+        public long getAmount() {
+            return this.amount;
+        }
+
+        public boolean isSecured() {
+            return this.secured;
+        }
+    }
+
+    public record Unnamed() {
+    }
+
+    @Test
+    public void readsRecordComponents() {
+
+        FactBinding<Applicant> binding = FactBinding.of(Applicant.class);
+        Applicant applicant = new Applicant(30, "Ada");
+
+        // Names are sorted, so that the context is always filled in the same order
+        assertEquals(List.of("Applicant Age", "name"), binding.getNames());
+        assertEquals(Map.of("Applicant Age", 30, "name", "Ada"), binding.toMap(applicant));
+        assertEquals(30, binding.get(applicant, "Applicant Age"));
+        assertNull(binding.get(applicant, "age"));
+    }
+
+    @Test
+    public void readsBeanGetters() {
+
+        FactBinding<Loan> binding = FactBinding.of(Loan.class);
+        assertEquals(Map.of("amount", 250000L, "secured", true), binding.toMap(new Loan(250000L, true)));
+    }
+
+    @Test
+    public void rejectsTypesWithoutProperties() {
+        assertThrows(IllegalArgumentException.class, () -> FactBinding.of(Unnamed.class));
+    }
+}
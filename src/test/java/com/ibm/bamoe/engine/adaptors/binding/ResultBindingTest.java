@@ -0,0 +1,115 @@
+package com.ibm.bamoe.engine.adaptors.binding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Binds DMN results, as they come back from the engine, to records and beans, converting numbers and nested structures.
+ */
+public class ResultBindingTest {
+
+    public enum Grade { LOW, HIGH }
+
+    public record Address(String city, int floor) {
+    }
+
+    public record Offer(@DecisionName("Loan Amount") long amount, double rate, BigDecimal fee, Grade grade, Address address, List<Integer> terms) {
+    }
+
+    public static class Score {
+
+        private int value;
+        private boolean approved = true;
+
+        public int getValue() {
+            return this.value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+
+        public boolean isApproved() {
+            return this.approved;
+        }
+
+        public void setApproved(boolean approved) {
+            this.approved = approved;
+        }
+    }
+
+    @Test
+    public void convertsDmnNumbers() {
+
+        // FEEL numbers come back as BigDecimal, whatever the type of the property
+        Map<String, Object> results = new HashMap<String, Object>();
+        results.put("Loan Amount", new BigDecimal("250000"));
+        results.put("rate", new BigDecimal("3.75"));
+        results.put("fee", 120);
+        results.put("grade", "HIGH");
+        results.put("address", Map.of("city", "Paris", "floor", new BigDecimal("4")));
+        results.put("terms", List.of(new BigDecimal("12"), new BigDecimal("24")));
+        results.put("unrelated", "ignored");
+
+        Offer offer = ResultBinding.of(Offer.class).bind(results);
+
+        assertEquals(250000L, offer.amount());
+        assertEquals(3.75d, offer.rate());
+        assertEquals(new BigDecimal("120"), offer.fee());
+        assertEquals(Grade.HIGH, offer.grade());
+        assertEquals(new Address("Paris", 4), offer.address());
+        assertEquals(List.of(12, 24), offer.terms());
+    }
+
+    @Test
+    public void missingRecordComponentsTakeDefaults() {
+
+        Offer offer = ResultBinding.of(Offer.class).bind(Map.of("rate", new BigDecimal("1.5")));
+
+        assertEquals(0L, offer.amount());
+        assertEquals(1.5d, offer.rate());
+        assertNull(offer.fee());
+        assertNull(offer.address());
+    }
+
+    @Test
+    public void missingBeanPropertiesAreLeftAlone() {
+
+        Map<String, Object> results = new HashMap<String, Object>();
+        results.put("value", new BigDecimal("42"));
+        results.put("approved", null);
+
+        // A null result cannot be set on a primitive, the initial value is kept
+        Score score = ResultBinding.of(Score.class).bind(results);
+        assertEquals(42, score.getValue());
+        assertTrue(score.isApproved());
+
+        assertEquals(Set.of("value", "approved"), ResultBinding.of(Score.class).getNames());
+    }
+
+    @Test
+    public void rejectsUnconvertibleResults() {
+
+        Map<String, Object> results = Map.of("rate", List.of("not a number"));
+        assertThrows(IllegalArgumentException.class, () -> ResultBinding.of(Offer.class).bind(results));
+    }
+
+    @Test
+    public void bindsByDecisionName() {
+
+        Set<String> names = ResultBinding.of(Offer.class).getNames();
+        assertTrue(names.contains("Loan Amount"));
+        assertFalse(names.contains("amount"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Captures fact maps and restores them onto equal facts, only when every change was made in place.
+ */
+public class FactStateTest {
+
+    @Test
+    public void equalFactsHaveEqualState() {
+
+        assertEquals(FactState.capture(facts("a", 20)), FactState.capture(facts("a", 20)));
+        assertFalse(FactState.capture(facts("a", 20)).equals(FactState.capture(facts("a", 21))));
+    }
+
+    @Test
+    public void restoresChangesMadeInPlace() {
+
+        // What an execution left behind, changed fields and a refilled list
+        Map<String, Object> executed = facts("a", 20);
+        Applicant applicant = (Applicant) executed.get("applicant");
+        applicant.score = 42;
+        applicant.address.city = "Paris";
+        applicant.notes.add("approved");
+        FactState after = FactState.capture(executed);
+
+        Map<String, Object> live = facts("a", 20);
+        Applicant target = (Applicant) live.get("applicant");
+        Address address = target.address;
+
+        assertTrue(after.restore(live));
+        assertEquals(42, target.score);
+        assertSame(address, target.address);
+        assertEquals("Paris", address.city);
+        assertEquals(List.of("approved"), target.notes);
+    }
+
+    @Test
+    public void createdNestedObjectIsNotRestored() {
+
+        // The rules set an address into a null field, it has to be rebuilt so restore fails before anything is written
+        Map<String, Object> executed = facts("a", 20);
+        ((Applicant) executed.get("applicant")).score = 42;
+        FactState after = FactState.capture(executed);
+
+        Map<String, Object> live = facts("a", 20);
+        Applicant target = (Applicant) live.get("applicant");
+        target.address = null;
+
+        assertFalse(after.restore(live));
+        assertEquals(20, target.score);
+        assertNull(target.address);
+    }
+
+    @Test
+    public void differentFactNamesAreNotRestored() {
+
+        FactState after = FactState.capture(facts("a", 20));
+        Map<String, Object> live = facts("a", 20);
+        live.put("other", "value");
+
+        assertFalse(after.restore(live));
+    }
+
+    @Test
+    public void platformObjectsAreNotCaptured() {
+
+        Map<String, Object> facts = facts("a", 20);
+        facts.put("thread", Thread.currentThread());
+
+        assertNull(FactState.capture(facts));
+        assertNotNull(FactState.capture(facts("a", 20)));
+    }
+
+    private static Map<String, Object> facts(final String name, int score) {
+
+        Map<String, Object> facts = new HashMap<String, Object>();
+        facts.put("applicant", new Applicant(name, score));
+        facts.put("limit", 100);
+
+        return facts;
+    }
+
+    public static class Applicant {
+
+        private final String name;
+        private int score;
+        private Address address = new Address("London");
+        private List<String> notes = new ArrayList<String>();
+
+        public Applicant(String name, int score) {
+            this.name = name;
+            this.score = score;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    public static class Address {
+
+        private String city;
+
+        public Address(String city) {
+            this.city = city;
+        }
+    }
+}
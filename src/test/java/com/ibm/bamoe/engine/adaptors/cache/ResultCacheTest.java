@@ -0,0 +1,80 @@
+package com.ibm.bamoe.engine.adaptors.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.ibm.bamoe.engine.adaptors.metrics.ResultCacheStatistics;
+
+/**
+ * Looks up, expires and invalidates cached results, and counts entries the caller cannot use as misses.
+ */
+public class ResultCacheTest {
+
+    private final Object owner = new Object();
+
+    @Test
+    public void countsHitsAndMisses() {
+
+        ResultCache<String> cache = new ResultCache<String>();
+        cache.put(ResultCacheKey.of(owner, "decision", 1), "one");
+
+        assertEquals("one", cache.get(ResultCacheKey.of(owner, "decision", 1)));
+        assertNull(cache.get(ResultCacheKey.of(owner, "decision", 2)));
+        assertNull(cache.get(ResultCacheKey.of(new Object(), "decision", 1)));
+
+        ResultCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+        assertEquals(1, statistics.getPuts());
+    }
+
+    @Test
+    public void unusableEntryIsMiss() {
+
+        ResultCache<String> cache = new ResultCache<String>();
+        ResultCacheKey key = ResultCacheKey.of(owner, "decision", 1);
+        cache.put(key, "one");
+
+        // The entry stays cached, only this caller could not use it
+        assertNull(cache.get(key, cached -> false));
+        assertEquals("one", cache.get(key, cached -> true));
+
+        ResultCacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void expiresAfterTtl() throws Exception {
+
+        ResultCache<String> cache = new ResultCache<String>(ResultCache.DEFAULT_MAX_SIZE, 1L);
+        ResultCacheKey key = ResultCacheKey.of(owner, "decision", 1);
+        cache.put(key, "one");
+
+        Thread.sleep(10);
+
+        assertNull(cache.get(key));
+        assertEquals(1, cache.getStatistics().getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void invalidatesByOwner() {
+
+        Object other = new Object();
+        ResultCache<String> cache = new ResultCache<String>();
+        cache.put(ResultCacheKey.of(owner, "decision", 1), "one");
+        cache.put(ResultCacheKey.of(owner, "decision", 2), "two");
+        cache.put(ResultCacheKey.of(other, "decision", 1), "other");
+
+        cache.invalidate(owner);
+
+        assertNull(cache.get(ResultCacheKey.of(owner, "decision", 1)));
+        assertNull(cache.get(ResultCacheKey.of(owner, "decision", 2)));
+        assertEquals("other", cache.get(ResultCacheKey.of(other, "decision", 1)));
+        assertEquals(2, cache.getStatistics().getInvalidations());
+    }
+}
@@ -0,0 +1,141 @@
+package com.ibm.bamoe.engine.adaptors.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Admits, queues, rejects and sheds executions of one name around a blocked execution holding the only slot.
+ */
+public class BulkheadTest {
+
+    @Test
+    public void rejectsWhenQueueFull() throws Exception {
+
+        Bulkhead bulkhead = new Bulkhead("rejected", 1, 0, 30000L, false);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<String> holder = hold(bulkhead, blocked);
+
+        // Nothing may wait, the second execution is rejected straight away
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.execute(() -> "second"));
+        assertEquals(1, bulkhead.getMetrics().getRejections());
+        assertEquals(0, bulkhead.getMetrics().getWaits());
+
+        blocked.countDown();
+        assertEquals("held", holder.get(30, TimeUnit.SECONDS));
+        assertEquals("third", bulkhead.execute(() -> "third"));
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    public void shedsAfterMaxWait() throws Exception {
+
+        Bulkhead bulkhead = new Bulkhead("shed", 1, 1, 50L, false);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<String> holder = hold(bulkhead, blocked);
+
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.execute(() -> "second"));
+        assertEquals(1, bulkhead.getMetrics().getWaits());
+        assertEquals(1, bulkhead.getMetrics().getSheds());
+        assertEquals(0, bulkhead.getMetrics().getRejections());
+        assertEquals(0, bulkhead.getQueueDepth());
+
+        blocked.countDown();
+        assertEquals("held", holder.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void admitsQueuedOnRelease() throws Exception {
+
+        Bulkhead bulkhead = new Bulkhead("queued", 1, 1, 30000L, false);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<String> holder = hold(bulkhead, blocked);
+
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> call(bulkhead, "queued"));
+        await(() -> bulkhead.getQueueDepth() == 1);
+
+        // The queue is full as well, a third execution is rejected
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.execute(() -> "third"));
+
+        blocked.countDown();
+        assertEquals("held", holder.get(30, TimeUnit.SECONDS));
+        assertEquals("queued", waiter.get(30, TimeUnit.SECONDS));
+        assertEquals(2, bulkhead.getMetrics().getAdmissions());
+        assertEquals(1, bulkhead.getMetrics().getRejections());
+        assertEquals(0, bulkhead.getMetrics().getSheds());
+    }
+
+    @Test
+    public void adaptiveLimitStaysWithinMaximum() throws Exception {
+
+        Bulkhead bulkhead = new Bulkhead("adaptive", 4, 0, 0L, true);
+        for (int i = 0; i < 100; i++) {
+            bulkhead.execute(() -> "executed");
+        }
+
+        assertTrue(bulkhead.getLimit() >= 1 && bulkhead.getLimit() <= 4);
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    public void registryReplacesBulkheadWhenSettingsChange() throws Exception {
+
+        BulkheadRegistry registry = new BulkheadRegistry();
+        assertEquals("first", registry.execute("name", 2, 0, 0L, false, () -> "first"));
+        Bulkhead bulkhead = registry.get("name");
+
+        registry.execute("name", 2, 0, 0L, false, () -> "same");
+        assertSame(bulkhead, registry.get("name"));
+
+        registry.execute("name", 3, 0, 0L, false, () -> "changed");
+        assertNotSame(bulkhead, registry.get("name"));
+        assertEquals(3, registry.get("name").getMaxConcurrent());
+    }
+
+    private static CompletableFuture<String> hold(final Bulkhead bulkhead, CountDownLatch blocked) throws InterruptedException {
+
+        // Takes the only slot until the latch is released
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() -> call(bulkhead, () -> {
+
+            blocked.await();
+            return "held";
+        }));
+
+        await(() -> bulkhead.getInFlight() == 1);
+        return holder;
+    }
+
+    private static String call(final Bulkhead bulkhead, String result) {
+        return call(bulkhead, () -> result);
+    }
+
+    private static String call(final Bulkhead bulkhead, Callable<String> task) {
+
+        try {
+            return bulkhead.execute(task);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the bulkhead");
+            Thread.sleep(10);
+        }
+    }
+}
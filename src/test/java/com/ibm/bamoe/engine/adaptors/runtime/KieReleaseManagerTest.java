@@ -0,0 +1,214 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+
+import com.ibm.bamoe.engine.adaptors.RuleEngineAdaptor;
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+import com.ibm.bamoe.engine.adaptors.model.KieSessionType;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+
+/**
+ * Updates and rolls back releases of KJARs installed in the local KIE repository, across two adaptors sharing a registry.
+ */
+public class KieReleaseManagerTest {
+
+    private static final String RELEASE_1 = "com.ibm.bamoe.test:release-manager:1.0";
+    private static final String RELEASE_2 = "com.ibm.bamoe.test:release-manager:2.0";
+    private static final String KIE_BASE  = "releases";
+
+    @BeforeAll
+    public static void installReleases() {
+        install("1.0", 1);
+        install("2.0", 2);
+    }
+
+    @Test
+    public void updateKeepsReleaseRoutedByOtherAdaptor() throws Exception {
+
+        KieContainerRegistry registry = new KieContainerRegistry();
+        RuleEngineAdaptor first = new RuleEngineAdaptor(registry);
+        RuleEngineAdaptor second = new RuleEngineAdaptor(registry);
+
+        assertEquals(1, execute(first, properties("first")));
+        assertEquals(1, execute(second, properties("second")));
+
+        // The other adaptor still routes to the configured release, it is neither retired nor evicted
+        KieBaseHandle release1 = registry.getLoadedKieBase(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE);
+        first.getReleaseManager().update("first", KieContainerType.RELEASE_ID, KIE_BASE, RELEASE_1, RELEASE_2, null).get(30, TimeUnit.SECONDS);
+        await(() -> registry.getRouteCount(release1.getKey()) == 1);
+
+        assertEquals(2, execute(first, properties("first")));
+        assertEquals(1, execute(second, properties("second")));
+        assertFalse(release1.isRetired());
+        assertTrue(registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE));
+
+        // Once the last name moves away the release drains and is evicted
+        second.getReleaseManager().update("second", KieContainerType.RELEASE_ID, KIE_BASE, RELEASE_1, RELEASE_2, null).get(30, TimeUnit.SECONDS);
+        await(() -> !registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE));
+
+        assertFalse(registry.isRouted(release1.getKey()));
+        assertTrue(release1.isRetired());
+        assertFalse(registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE));
+    }
+
+    @Test
+    public void rollbackDuringDrainCancelsIt() throws Exception {
+
+        KieContainerRegistry registry = new KieContainerRegistry();
+        RuleEngineAdaptor adaptor = new RuleEngineAdaptor(registry);
+        KieReleaseManager releaseManager = adaptor.getReleaseManager();
+
+        assertEquals(1, execute(adaptor, properties("rollback")));
+
+        // An execution still in flight on the release keeps it draining
+        KieBaseHandle release1 = registry.getLoadedKieBase(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE);
+        assertTrue(release1.tryAcquire());
+        releaseManager.update("rollback", KieContainerType.RELEASE_ID, KIE_BASE, RELEASE_1, RELEASE_2, null).get(30, TimeUnit.SECONDS);
+        assertEquals(2, execute(adaptor, properties("rollback")));
+        assertEquals(RELEASE_1, releaseManager.getPreviousReleaseId("rollback"));
+
+        releaseManager.rollback("rollback", KieContainerType.RELEASE_ID, KIE_BASE, null).get(30, TimeUnit.SECONDS);
+        release1.release();
+        await(() -> !registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_2, KIE_BASE));
+
+        // The rolled back release is served by the very same kieBase
+        assertEquals(1, execute(adaptor, properties("rollback")));
+        assertFalse(release1.isRetired());
+        assertSame(release1, registry.getLoadedKieBase(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE));
+        assertEquals(RELEASE_2, releaseManager.getPreviousReleaseId("rollback"));
+        assertFalse(registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_2, KIE_BASE));
+    }
+
+    @Test
+    public void openSessionsOutliveDrainTimeout() throws Exception {
+
+        KieContainerRegistry registry = new KieContainerRegistry();
+        RuleEngineAdaptor adaptor = new RuleEngineAdaptor(registry);
+        adaptor.getReleaseManager().setDrainTimeout(0L);
+
+        RuleSetProperties properties = properties("sessions");
+        properties.setKieSessionName(KIE_BASE + "-stateful");
+        properties.setKieSessionType(KieSessionType.STATEFUL);
+
+        LongLivedKieSession session = adaptor.openSession(properties, "session");
+        KieBaseHandle release1 = session.getKieBaseHandle();
+        assertEquals(1, release1.getOpenSessions());
+        assertEquals(0, release1.getInFlight());
+
+        // The replaced release drains and is evicted, the open session keeps working on it
+        adaptor.getReleaseManager().update("sessions", KieContainerType.RELEASE_ID, KIE_BASE, RELEASE_1, RELEASE_2, null).get(30, TimeUnit.SECONDS);
+        await(() -> !registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE));
+
+        assertTrue(release1.isRetired());
+        assertFalse(registry.isLoaded(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE));
+        assertEquals(1, execute(adaptor, properties, "session"));
+        assertEquals(2, execute(adaptor, properties, "other"));
+
+        assertTrue(adaptor.closeSession(properties, "session"));
+        assertEquals(0, release1.getOpenSessions());
+    }
+
+    @Test
+    public void disposeReleasesRoutes() throws Exception {
+
+        KieContainerRegistry registry = new KieContainerRegistry();
+        RuleEngineAdaptor first = new RuleEngineAdaptor(registry);
+        RuleEngineAdaptor second = new RuleEngineAdaptor(registry);
+
+        assertEquals(1, execute(first, properties("disposed")));
+        assertEquals(1, execute(second, properties("kept")));
+        KieBaseHandle release1 = registry.getLoadedKieBase(KieContainerType.RELEASE_ID, RELEASE_1, KIE_BASE);
+        assertEquals(2, registry.getRouteCount(release1.getKey()));
+
+        // A discarded adaptor no longer keeps the release routed
+        first.dispose();
+        assertEquals(1, registry.getRouteCount(release1.getKey()));
+
+        second.dispose();
+        assertFalse(registry.isRouted(release1.getKey()));
+        assertTrue(registry.retire(release1, false));
+    }
+
+    private static RuleSetProperties properties(final String name) {
+
+        RuleSetProperties properties = new RuleSetProperties();
+        properties.setName(name);
+        properties.setKieContainerType(KieContainerType.RELEASE_ID);
+        properties.setReleaseId(RELEASE_1);
+        properties.setKieBaseName(KIE_BASE);
+        properties.setKieSessionName(KIE_BASE + "-stateless");
+        properties.setKieSessionType(KieSessionType.STATELESS);
+        properties.setRuleFlowName("none");
+
+        return properties;
+    }
+
+    private static int execute(final RuleEngineAdaptor adaptor, RuleSetProperties properties) throws Exception {
+
+        AtomicInteger version = new AtomicInteger();
+        Map<String,Object> facts = new HashMap<String,Object>();
+        facts.put("version", version);
+
+        adaptor.execute(properties, facts);
+        return version.get();
+    }
+
+    private static int execute(final RuleEngineAdaptor adaptor, RuleSetProperties properties, String sessionKey) throws Exception {
+
+        AtomicInteger version = new AtomicInteger();
+        Map<String,Object> facts = new HashMap<String,Object>();
+        facts.put("version", version);
+
+        adaptor.execute(properties, sessionKey, facts);
+        return version.get();
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+
+        // Drains run on the release manager's own thread, poll for their outcome rather than guessing how long they take
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the release to drain");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void install(final String version, int marker) {
+
+        // Built into the local KIE repository, where a RELEASE_ID container resolves it from
+        KieServices kieServices = KieServices.Factory.get();
+        ReleaseId releaseId = kieServices.newReleaseId("com.ibm.bamoe.test", "release-manager", version);
+
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        kieFileSystem.generateAndWritePomXML(releaseId);
+        kieFileSystem.writeKModuleXML("<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">"
+            + "<kbase name=\"" + KIE_BASE + "\" packages=\"" + KIE_BASE + "\"><ksession name=\"" + KIE_BASE + "-stateless\" type=\"stateless\"/>"
+            + "<ksession name=\"" + KIE_BASE + "-stateful\" type=\"stateful\"/></kbase>"
+            + "</kmodule>");
+        kieFileSystem.write("src/main/resources/" + KIE_BASE + "/version.drl", "package " + KIE_BASE + ";\n"
+            + "import java.util.concurrent.atomic.AtomicInteger;\n"
+            + "rule \"Version\" when $version : AtomicInteger() then $version.set(" + marker + "); end\n");
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem).buildAll();
+        assertFalse(kieBuilder.getResults().hasMessages(Message.Level.ERROR), kieBuilder.getResults().toString());
+    }
+}
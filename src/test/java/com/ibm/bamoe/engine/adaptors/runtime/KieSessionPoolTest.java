@@ -0,0 +1,140 @@
+package com.ibm.bamoe.engine.adaptors.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+
+import com.ibm.bamoe.engine.adaptors.RuleEngineAdaptor;
+import com.ibm.bamoe.engine.adaptors.model.KieContainerType;
+import com.ibm.bamoe.engine.adaptors.model.KieSessionType;
+import com.ibm.bamoe.engine.adaptors.model.RuleSetProperties;
+
+/**
+ * Reuses pooled stateful sessions of a KJAR installed in the local KIE repository, and keeps sessions declaring listeners out of reuse.
+ */
+public class KieSessionPoolTest {
+
+    private static final String RELEASE  = "com.ibm.bamoe.test:session-pool:1.0";
+    private static final String KIE_BASE = "pool";
+
+    @BeforeAll
+    public static void installRelease() {
+        install();
+    }
+
+    @Test
+    public void resetIsolatesExecutions() throws Exception {
+
+        RuleEngineAdaptor adaptor = new RuleEngineAdaptor();
+        RuleSetProperties properties = properties("reset", KIE_BASE + "-stateful");
+
+        // The one pre-created session serves every execution, the string inserted by the first must not match in the next ones
+        assertEquals(1, execute(adaptor, properties, true));
+        assertEquals(0, execute(adaptor, properties, false));
+        assertEquals(0, execute(adaptor, properties, false));
+
+        KieSessionPool sessionPool = adaptor.getSessionPool("reset");
+        assertTrue(sessionPool.isResettable());
+        assertEquals(3, sessionPool.getMetrics().getHits());
+        assertEquals(0, sessionPool.getMetrics().getMisses());
+
+        adaptor.dispose();
+    }
+
+    @Test
+    public void listenedSessionsAreNotReused() throws Exception {
+
+        RuleEngineAdaptor adaptor = new RuleEngineAdaptor();
+        RuleSetProperties properties = properties("listened", KIE_BASE + "-listened");
+
+        // Every execution gets a fresh session, so the declared listener sees each firing exactly once
+        int fired = CountingListener.FIRED.get();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, execute(adaptor, properties, true));
+        }
+
+        assertEquals(fired + 3, CountingListener.FIRED.get());
+
+        KieSessionPool sessionPool = adaptor.getSessionPool("listened");
+        assertFalse(sessionPool.isResettable());
+        assertEquals(0, sessionPool.getMetrics().getHits());
+        assertEquals(0, sessionPool.getIdleCount());
+
+        adaptor.dispose();
+    }
+
+    private static RuleSetProperties properties(final String name, String kieSessionName) {
+
+        RuleSetProperties properties = new RuleSetProperties();
+        properties.setName(name);
+        properties.setKieContainerType(KieContainerType.RELEASE_ID);
+        properties.setReleaseId(RELEASE);
+        properties.setKieBaseName(KIE_BASE);
+        properties.setKieSessionName(kieSessionName);
+        properties.setKieSessionType(KieSessionType.STATEFUL);
+        properties.setRuleFlowName("none");
+        properties.setSessionPoolMinSize(1);
+        properties.setSessionPoolMaxSize(1);
+
+        return properties;
+    }
+
+    private static int execute(final RuleEngineAdaptor adaptor, RuleSetProperties properties, boolean withMarker) throws Exception {
+
+        AtomicInteger count = new AtomicInteger();
+        Map<String,Object> facts = new HashMap<String,Object>();
+        facts.put("count", count);
+        if (withMarker) {
+            facts.put("marker", "marker");
+        }
+
+        adaptor.execute(properties, facts);
+        return count.get();
+    }
+
+    private static void install() {
+
+        // Built into the local KIE repository, where a RELEASE_ID container resolves it from
+        KieServices kieServices = KieServices.Factory.get();
+        ReleaseId releaseId = kieServices.newReleaseId("com.ibm.bamoe.test", "session-pool", "1.0");
+
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        kieFileSystem.generateAndWritePomXML(releaseId);
+        kieFileSystem.writeKModuleXML("<kmodule xmlns=\"http://www.drools.org/xsd/kmodule\">"
+            + "<kbase name=\"" + KIE_BASE + "\" packages=\"" + KIE_BASE + "\"><ksession name=\"" + KIE_BASE + "-stateful\" type=\"stateful\"/>"
+            + "<ksession name=\"" + KIE_BASE + "-listened\" type=\"stateful\"><listeners>"
+            + "<agendaEventListener type=\"" + CountingListener.class.getName() + "\"/></listeners></ksession></kbase>"
+            + "</kmodule>");
+        kieFileSystem.write("src/main/resources/" + KIE_BASE + "/count.drl", "package " + KIE_BASE + ";\n"
+            + "import java.util.concurrent.atomic.AtomicInteger;\n"
+            + "rule \"Count\" when $count : AtomicInteger() String() then $count.incrementAndGet(); end\n");
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem).buildAll();
+        assertFalse(kieBuilder.getResults().hasMessages(Message.Level.ERROR), kieBuilder.getResults().toString());
+    }
+
+    public static class CountingListener extends DefaultAgendaEventListener {
+
+        private static final AtomicInteger FIRED = new AtomicInteger();
+
+        @Override
+        public void afterMatchFired(final AfterMatchFiredEvent event) {
+            FIRED.incrementAndGet();
+        }
+    }
+}